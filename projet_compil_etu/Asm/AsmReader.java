@@ -0,0 +1,334 @@
+package Asm;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Lecture d'un programme assembleur texte (format de Program.toString(), accepté par simcode.py).
+ *
+ * Une instruction par ligne : [label:] OPÉRATION opérandes, séparés par des espaces ou tabulations.
+ * Les registres s'écrivent Rn, les constantes en décimal (signe accepté), les adresses de saut par leur label.
+ * Un # commence un commentaire jusqu'à la fin de la ligne, les lignes vides sont ignorées.
+ *
+ * Le texte est découpé directement dans le tableau d'octets lu (sans String par mot) et vérifié en une passe ;
+ * les labels visés sont résolus à la fin avec la table des labels du programme.
+ */
+public class AsmReader {
+    private static final Opcode[] OPCODES = Opcode.values();
+    private static final UAL.Op[] UAL_OPS = UAL.Op.values();
+    private static final UALi.Op[] UALI_OPS = UALi.Op.values();
+    private static final CondJump.Op[] COND_JUMP_OPS = CondJump.Op.values();
+    private static final JumpCall.Op[] JUMP_CALL_OPS = JumpCall.Op.values();
+    private static final IO.Op[] IO_OPS = IO.Op.values();
+
+    // Table de hachage (adressage ouvert) des mnémoniques : l'opération est retrouvée sans créer de String
+    private static final int TABLE_SIZE = 128;
+    private static final byte[][] MNEMONICS = new byte[OPCODES.length][];
+    private static final int[] TABLE = new int[TABLE_SIZE];
+
+    static {
+        Arrays.fill(TABLE, -1);
+        for (Opcode op : OPCODES) {
+            byte[] name = op.name().getBytes(StandardCharsets.US_ASCII);
+            MNEMONICS[op.ordinal()] = name;
+            int slot = hash(name, 0, name.length);
+            while (TABLE[slot] != -1) {
+                slot = (slot + 1) & (TABLE_SIZE - 1);
+            }
+            TABLE[slot] = op.ordinal();
+        }
+    }
+
+    private final byte[] text;
+    private int pos = 0;
+    private int line = 1;
+
+    // Mot courant : text[tokenStart..tokenEnd[
+    private int tokenStart;
+    private int tokenEnd;
+
+    private final Program program = new Program();
+    private int[] lines = new int[64];
+
+    /**
+     * Constructeur
+     * @param text contenu du fichier assembleur
+     */
+    private AsmReader(byte[] text) {
+        this.text = text;
+    }
+
+    /**
+     * Lit un fichier assembleur
+     * @param path chemin du fichier .asm
+     * @return Program programme lu
+     * @throws IOException si la lecture échoue
+     * @throws IllegalArgumentException si le texte n'est pas un programme valide (le message donne la ligne)
+     */
+    public static Program read(Path path) throws IOException, IllegalArgumentException {
+        return new AsmReader(Files.readAllBytes(path)).parse();
+    }
+
+    /**
+     * Lit un programme assembleur texte
+     * @param text texte du programme
+     * @return Program programme lu
+     * @throws IllegalArgumentException si le texte n'est pas un programme valide (le message donne la ligne)
+     */
+    public static Program read(String text) throws IllegalArgumentException {
+        return new AsmReader(text.getBytes(StandardCharsets.UTF_8)).parse();
+    }
+
+    /**
+     * Analyse tout le texte puis vérifie que chaque label visé est défini
+     * @return Program programme lu
+     */
+    private Program parse() {
+        while (pos < text.length) {
+            if (nextToken()) {
+                parseInstruction();
+                if (nextToken()) {
+                    throw error("opérande en trop : " + token());
+                }
+            }
+            endLine();
+        }
+
+        SymbolTable symbols = program.getSymbols();
+        for (int i = 0; i < program.size(); i++) {
+            int target = program.getTargetId(i);
+            if (target != SymbolTable.UNDEFINED && symbols.getIndex(target) == SymbolTable.UNDEFINED) {
+                throw new IllegalArgumentException("Ligne " + lines[i] + " : label non défini : " + symbols.getName(target));
+            }
+        }
+        return program;
+    }
+
+    /**
+     * Analyse l'instruction dont le premier mot vient d'être lu, et l'ajoute au programme
+     */
+    private void parseInstruction() {
+        String label = "";
+        if (text[tokenEnd - 1] == ':') {
+            if (tokenEnd - 1 == tokenStart) {
+                throw error("label vide");
+            }
+            label = new String(text, tokenStart, tokenEnd - 1 - tokenStart, StandardCharsets.UTF_8);
+            int id = program.getSymbols().getId(label);
+            if (id != SymbolTable.UNDEFINED && program.getSymbols().getIndex(id) != SymbolTable.UNDEFINED) {
+                throw error("label défini deux fois : " + label);
+            }
+            if (!nextToken()) {
+                throw error("label sans instruction : " + label);
+            }
+        }
+
+        Opcode op = lookup();
+        int ordinal = op.ordinal();
+        Instruction instruction;
+        switch (op.getFormat()) {
+            case UAL: {
+                int dest = register(), sr1 = register(), sr2 = register();
+                instruction = new UAL(label, UAL_OPS[ordinal - Opcode.ADD.ordinal()], dest, sr1, sr2);
+                break;
+            }
+            case UALI: {
+                int dest = register(), sr = register(), imm = immediate();
+                instruction = new UALi(label, UALI_OPS[ordinal - Opcode.ADDi.ordinal()], dest, sr, imm);
+                break;
+            }
+            case MEM: {
+                int dest = register(), address = register();
+                instruction = new Mem(label, op == Opcode.LD ? Mem.Op.LD : Mem.Op.ST, dest, address);
+                break;
+            }
+            case COND_JUMP: {
+                int sr1 = register(), sr2 = register();
+                instruction = new CondJump(label, COND_JUMP_OPS[ordinal - Opcode.JINF.ordinal()], sr1, sr2, target());
+                break;
+            }
+            case JUMP_CALL:
+                instruction = new JumpCall(label, JUMP_CALL_OPS[ordinal - Opcode.JMP.ordinal()], target());
+                break;
+            case IO:
+                instruction = new IO(label, IO_OPS[ordinal - Opcode.IN.ordinal()], register());
+                break;
+            default:
+                instruction = op == Opcode.RET ? new Ret(label) : new Stop(label);
+        }
+
+        int index = program.size();
+        if (index == lines.length) {
+            lines = Arrays.copyOf(lines, index * 2);
+        }
+        lines[index] = line;
+        program.addInstruction(instruction);
+    }
+
+    /**
+     * Passe au mot suivant de la ligne courante (un # termine la ligne)
+     * @return boolean false s'il n'y a plus de mot sur la ligne
+     */
+    private boolean nextToken() {
+        while (pos < text.length && (text[pos] == ' ' || text[pos] == '\t' || text[pos] == '\r')) {
+            pos++;
+        }
+        if (pos >= text.length || text[pos] == '\n') {
+            return false;
+        }
+        if (text[pos] == '#') {
+            while (pos < text.length && text[pos] != '\n') {
+                pos++;
+            }
+            return false;
+        }
+        tokenStart = pos;
+        while (pos < text.length && text[pos] != ' ' && text[pos] != '\t' && text[pos] != '\r' && text[pos] != '\n') {
+            pos++;
+        }
+        tokenEnd = pos;
+        return true;
+    }
+
+    /**
+     * Passe à la ligne suivante (la ligne courante est entièrement lue)
+     */
+    private void endLine() {
+        if (pos < text.length) {
+            pos++;
+            line++;
+        }
+    }
+
+    /**
+     * Opération désignée par le mot courant
+     * @return Opcode opération
+     */
+    private Opcode lookup() {
+        int slot = hash(text, tokenStart, tokenEnd);
+        while (TABLE[slot] != -1) {
+            byte[] name = MNEMONICS[TABLE[slot]];
+            if (Arrays.equals(name, 0, name.length, text, tokenStart, tokenEnd)) {
+                return OPCODES[TABLE[slot]];
+            }
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+        throw error("opération inconnue : " + token());
+    }
+
+    /**
+     * Lit un opérande registre (Rn)
+     * @return int numéro du registre
+     */
+    private int register() {
+        if (!nextToken()) {
+            throw error("registre attendu");
+        }
+        if (text[tokenStart] != 'R' || tokenEnd - tokenStart < 2) {
+            throw error("registre invalide : " + token());
+        }
+        return number(tokenStart + 1, "registre invalide : ");
+    }
+
+    /**
+     * Lit un opérande constante (entier décimal signé sur 32 bits)
+     * @return int valeur de la constante
+     */
+    private int immediate() {
+        if (!nextToken()) {
+            throw error("constante attendue");
+        }
+        byte sign = text[tokenStart];
+        if ((sign == '-' || sign == '+') && tokenEnd - tokenStart > 1) {
+            long value = digits(tokenStart + 1, "constante invalide : ");
+            if (sign == '-') {
+                value = -value;
+            }
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw error("constante hors limites : " + token());
+            }
+            return (int) value;
+        }
+        return number(tokenStart, "constante invalide : ");
+    }
+
+    /**
+     * Lit un opérande adresse de saut
+     * @return String label visé
+     */
+    private String target() {
+        if (!nextToken()) {
+            throw error("label attendu");
+        }
+        return token();
+    }
+
+    /**
+     * Valeur décimale positive du mot courant à partir de start
+     * @param start début des chiffres
+     * @param message message d'erreur
+     * @return int valeur lue
+     */
+    private int number(int start, String message) {
+        long value = digits(start, message);
+        if (value > Integer.MAX_VALUE) {
+            throw error(message + token());
+        }
+        return (int) value;
+    }
+
+    /**
+     * Valeur des chiffres du mot courant à partir de start (au plus 10 chiffres significatifs)
+     * @param start début des chiffres
+     * @param message message d'erreur
+     * @return long valeur lue
+     */
+    private long digits(int start, String message) {
+        long value = 0;
+        for (int i = start; i < tokenEnd; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw error(message + token());
+            }
+            value = value * 10 + digit;
+            if (value > 1L << 32) {
+                throw error(message + token());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Texte du mot courant (utilisé pour les labels et les messages d'erreur)
+     * @return String mot courant
+     */
+    private String token() {
+        return new String(text, tokenStart, tokenEnd - tokenStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Erreur de syntaxe à la ligne courante
+     * @param message description de l'erreur
+     * @return IllegalArgumentException exception à lancer
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Ligne " + line + " : " + message);
+    }
+
+    /**
+     * Hachage d'un mnémonique
+     * @param bytes texte
+     * @param start début du mot
+     * @param end fin du mot (exclue)
+     * @return int case de la table
+     */
+    private static int hash(byte[] bytes, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = h * 31 + bytes[i];
+        }
+        return (h ^ (h >>> 7)) & (TABLE_SIZE - 1);
+    }
+}
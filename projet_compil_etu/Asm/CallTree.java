@@ -0,0 +1,144 @@
+package Asm;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Arbre des contextes d'appel construit pendant l'exécution : un noeud par pile d'appels distincte
+ * (suite des fonctions appelées depuis la racine), avec les cycles passés dans ce contexte même
+ * (cycles exclusifs). Une fonction est identifiée par l'index de sa première instruction (cible du CALL).
+ *
+ * Les noeuds sont numérotés dans l'ordre de création : le parent d'un noeud a toujours un numéro plus petit.
+ */
+class CallTree {
+    static final int ROOT = 0;
+
+    private int size = 1;
+    private int[] parent = new int[64];
+    private int[] entry = new int[64];
+    private long[] cycles = new long[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    // Enfant d'un noeud pour une fonction : clé (noeud << 32 | fonction)
+    private final HashMap<Long, Integer> children = new HashMap<>();
+
+    /**
+     * Constructeur
+     * @param rootEntry index de la première instruction du programme
+     */
+    CallTree(int rootEntry) {
+        parent[ROOT] = -1;
+        entry[ROOT] = rootEntry;
+        firstChild[ROOT] = -1;
+        nextSibling[ROOT] = -1;
+    }
+
+    /**
+     * Contexte atteint par un appel
+     * @param node contexte de l'appelant
+     * @param target index de la première instruction de la fonction appelée
+     * @return int contexte de la fonction appelée
+     */
+    int enter(int node, int target) {
+        Long key = ((long) node << 32) | target;
+        Integer child = children.get(key);
+        if (child != null) {
+            return child;
+        }
+        if (size == parent.length) {
+            int capacity = size * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            entry = Arrays.copyOf(entry, capacity);
+            cycles = Arrays.copyOf(cycles, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+        }
+        int created = size++;
+        parent[created] = node;
+        entry[created] = target;
+        firstChild[created] = -1;
+        nextSibling[created] = -1;
+        // Les enfants sont chaînés dans l'ordre de création
+        if (firstChild[node] == -1) {
+            firstChild[node] = created;
+        } else {
+            int last = firstChild[node];
+            while (nextSibling[last] != -1) {
+                last = nextSibling[last];
+            }
+            nextSibling[last] = created;
+        }
+        children.put(key, created);
+        return created;
+    }
+
+    /**
+     * Contexte atteint par un retour
+     * @param node contexte de la fonction qui retourne
+     * @return int contexte de l'appelant (la racine reste la racine)
+     */
+    int leave(int node) {
+        return node == ROOT ? ROOT : parent[node];
+    }
+
+    /**
+     * Ajoute des cycles exclusifs à un contexte
+     * @param node contexte
+     * @param n nombre de cycles
+     */
+    void addCycles(int node, long n) {
+        cycles[node] += n;
+    }
+
+    /**
+     * Getter du nombre de contextes
+     * @return int nombre de noeuds
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Getter du contexte appelant
+     * @param node contexte
+     * @return int noeud parent, -1 pour la racine
+     */
+    int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Getter de la fonction d'un contexte
+     * @param node contexte
+     * @return int index de la première instruction de la fonction
+     */
+    int getEntry(int node) {
+        return entry[node];
+    }
+
+    /**
+     * Getter des cycles exclusifs d'un contexte
+     * @param node contexte
+     * @return long nombre de cycles passés dans ce contexte même
+     */
+    long getCycles(int node) {
+        return cycles[node];
+    }
+
+    /**
+     * Getter du premier contexte appelé depuis un contexte
+     * @param node contexte
+     * @return int premier enfant, -1 s'il n'y en a pas
+     */
+    int getFirstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * Getter du contexte suivant appelé depuis le même parent
+     * @param node contexte
+     * @return int enfant suivant du parent, -1 s'il n'y en a pas
+     */
+    int getNextSibling(int node) {
+        return nextSibling[node];
+    }
+}
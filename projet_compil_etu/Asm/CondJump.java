@@ -1,6 +1,7 @@
 package Asm;
 public class CondJump extends Instruction {
     public static enum Op { JINF, JEQU, JSUP, JNEQ, JIEQ, JSEQ };
+    private Op op;
     private int sr1;
     private int sr2;
     private String address;
@@ -69,6 +70,7 @@ public class CondJump extends Instruction {
      */
     public CondJump(String label, Op op, int sr1, int sr2, String address) {
         super(label,op.toString());
+        this.op = op;
         this.sr1 = sr1;
         this.sr2 = sr2;
         this.address = address;
@@ -83,12 +85,58 @@ public class CondJump extends Instruction {
      */
     public CondJump(Op op, int sr1, int sr2, String address) {
         super("",op.toString());
+        this.op = op;
         this.sr1 = sr1;
         this.sr2 = sr2;
         this.address = address;
     }
 
     
+    /**
+     * Getter de l'opération
+     * @return Op type d'opération
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Setter de l'opération
+     * @param op type d'opération
+     */
+    public void setOp(Op op) {
+        this.op = op;
+        this.name = op.toString();
+    }
+
+    /**
+     * Setter de l'opération à partir de son nom
+     * @param name nom de l'opération
+     */
+    @Override
+    public void setName(String name) {
+        setOp(Op.valueOf(name));
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.of(op);
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitCondJump(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
@@ -0,0 +1,563 @@
+package Asm;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Exécution d'un programme assembleur, avec la même sémantique que simcode.py :
+ * <ul>
+ *   <li>au moins 32 registres et 65536 mots de mémoire, initialisés aléatoirement (entre 0 et 1000) ;
+ *       la mémoire est allouée par pages au premier accès (voir PagedMemory) et peut être plus grande ;</li>
+ *   <li>DIV et MOD arrondis vers moins l'infini (comme // et % en Python) ;</li>
+ *   <li>CALL empile l'adresse de retour, RET la dépile ;</li>
+ *   <li>IN lit un octet (255 en fin de fichier), OUT écrit l'octet de poids faible,
+ *       READ lit un entier décimal, PRINT écrit la valeur en décimal ; les entrées et les sorties passent
+ *       par des tampons (voir ProgramInput et ProgramOutput) ;</li>
+ *   <li>STOP arrête l'exécution ; le nombre de cycles est le nombre d'instructions exécutées (STOP exclu).</li>
+ * </ul>
+ * Les valeurs sont des entiers 64 bits (au lieu des entiers non bornés de Python).
+ *
+ * Avec enableJit(), le programme est traduit en bytecode JVM (voir JitCompiler) :
+ * le code compilé exécute les calculs, les sauts et les appels, et rend la main à l'interpréteur
+ * pour les entrées-sorties, STOP et les erreurs. Si la traduction échoue, l'interpréteur exécute tout le programme.
+ *
+ * Avec enableProfiling(), l'interpréteur compte les exécutions de chaque instruction et suit les CALL et RET
+ * pour répartir les cycles par pile d'appels (voir Profile et CallTree) ;
+ * le profilage se fait toujours par l'interpréteur, même si le JIT est activé.
+ */
+public class Executor {
+    public static final int NB_REGISTERS = 32;
+    public static final int MEMORY_SIZE = 65536;
+
+    // Code pré-décodé : 4 entiers par instruction (opération, a, b, c), voir decode()
+    private static final int STRIDE = 4;
+    // Pseudo-opération placée après la dernière instruction : en sortir du programme est une erreur
+    private static final int END = -1;
+    // Valeur renvoyée par interpret() quand le programme s'est arrêté sur STOP
+    private static final int STOPPED = -1;
+
+    // Les cas du switch de run() sont les ordinaux de Opcode, vérifiés au chargement de la classe
+    static {
+        if (Opcode.ADD.ordinal() != 0 || Opcode.ADDi.ordinal() != 10 || Opcode.LD.ordinal() != 20 || Opcode.JINF.ordinal() != 22
+                || Opcode.JMP.ordinal() != 28 || Opcode.IN.ordinal() != 30 || Opcode.RET.ordinal() != 34 || Opcode.STOP.ordinal() != 35) {
+            throw new IllegalStateException("Les ordinaux de Opcode ne correspondent plus à Executor.run()");
+        }
+    }
+
+    private final ProgramBuffer buffer;
+    private final int[] code;
+    private final int nbInstructions;
+
+    private final long[] registers;
+    private final PagedMemory memory;
+    private int[] returnStack = new int[64];
+    private int stackPointer = 0;
+    private long cycles = 0;
+
+    // Méthode run du programme compilé (null : interpréteur seul)
+    private MethodHandle compiled = null;
+    // Nombre d'exécutions de chaque instruction (null : pas de profilage)
+    private long[] counts = null;
+    // Contextes d'appel et contexte courant (profilage)
+    private CallTree calls = null;
+    private int callNode = CallTree.ROOT;
+
+    /**
+     * Constructeur
+     * @param program programme à exécuter
+     * @throws IllegalArgumentException si le programme vise un label non défini ou utilise un registre négatif
+     */
+    public Executor(Program program) throws IllegalArgumentException {
+        this(program, new Random());
+    }
+
+    /**
+     * Constructeur avec le générateur des valeurs initiales des registres et de la mémoire
+     * @param program programme à exécuter
+     * @param random générateur des valeurs initiales
+     * @throws IllegalArgumentException si le programme vise un label non défini ou utilise un registre négatif
+     */
+    public Executor(Program program, Random random) throws IllegalArgumentException {
+        this(program, random, new PagedMemory(MEMORY_SIZE, random));
+    }
+
+    /**
+     * Constructeur avec la mémoire du programme
+     * @param program programme à exécuter
+     * @param random générateur des valeurs initiales des registres
+     * @param memory mémoire (taille et remplissage initial)
+     * @throws IllegalArgumentException si le programme vise un label non défini ou utilise un registre négatif
+     */
+    public Executor(Program program, Random random, PagedMemory memory) throws IllegalArgumentException {
+        ProgramBuffer buffer = ProgramBuffer.from(program);
+        this.buffer = buffer;
+        this.code = decode(buffer);
+        this.nbInstructions = buffer.size();
+
+        int maxRegister = NB_REGISTERS - 1;
+        for (int i = 0; i < buffer.size(); i++) {
+            maxRegister = Math.max(maxRegister, Math.max(buffer.getDest(i), Math.max(buffer.getSrc1(i), buffer.getSrc2(i))));
+        }
+
+        this.registers = new long[maxRegister + 1];
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = random.nextInt(1001);
+        }
+        this.memory = memory;
+    }
+
+    /**
+     * Décode le programme une fois pour toutes : les sauts visent directement l'index de l'instruction
+     * <pre>
+     *   UAL          a = dest, b = sr1, c = sr2
+     *   UALi         a = dest, b = sr,  c = constante
+     *   LD           a = dest, b = registre d'adresse
+     *   ST           a = registre stocké, b = registre d'adresse
+     *   CondJump     a = sr1,  b = sr2, c = index visé
+     *   JMP, CALL    c = index visé
+     *   IN, OUT...   a = registre
+     * </pre>
+     * @param buffer programme sous forme compacte
+     * @return int[] code décodé, terminé par la pseudo-opération END
+     * @throws IllegalArgumentException si un label visé n'est pas défini ou si un registre est négatif
+     */
+    private static int[] decode(ProgramBuffer buffer) throws IllegalArgumentException {
+        int[] labelIndex = new int[buffer.getNbLabels()];
+        Arrays.fill(labelIndex, ProgramBuffer.NONE);
+        for (int i = 0; i < buffer.size(); i++) {
+            if (buffer.getLabel(i) != ProgramBuffer.NONE) {
+                labelIndex[buffer.getLabel(i)] = i;
+            }
+        }
+
+        int[] code = new int[(buffer.size() + 1) * STRIDE];
+        for (int i = 0; i < buffer.size(); i++) {
+            Opcode op = buffer.getOpcode(i);
+            int p = i * STRIDE;
+            code[p] = op.ordinal();
+
+            switch (op.getFormat()) {
+                case UAL:
+                    code[p + 1] = checkRegister(buffer.getDest(i), i);
+                    code[p + 2] = checkRegister(buffer.getSrc1(i), i);
+                    code[p + 3] = checkRegister(buffer.getSrc2(i), i);
+                    break;
+                case UALI:
+                    code[p + 1] = checkRegister(buffer.getDest(i), i);
+                    code[p + 2] = checkRegister(buffer.getSrc1(i), i);
+                    code[p + 3] = buffer.getImm(i);
+                    break;
+                case MEM:
+                    code[p + 1] = checkRegister(op == Opcode.LD ? buffer.getDest(i) : buffer.getSrc1(i), i);
+                    code[p + 2] = checkRegister(op == Opcode.LD ? buffer.getSrc1(i) : buffer.getSrc2(i), i);
+                    break;
+                case COND_JUMP:
+                case JUMP_CALL:
+                    if (op.getFormat() == Opcode.Format.COND_JUMP) {
+                        code[p + 1] = checkRegister(buffer.getSrc1(i), i);
+                        code[p + 2] = checkRegister(buffer.getSrc2(i), i);
+                    }
+                    int target = labelIndex[buffer.getImm(i)];
+                    if (target == ProgramBuffer.NONE) {
+                        throw new IllegalArgumentException("Instruction " + i + " : label non défini : " + buffer.getLabelName(buffer.getImm(i)));
+                    }
+                    code[p + 3] = target;
+                    break;
+                case IO:
+                    code[p + 1] = checkRegister(op == Opcode.IN || op == Opcode.READ ? buffer.getDest(i) : buffer.getSrc1(i), i);
+                    break;
+                default:
+                    break;
+            }
+        }
+        code[buffer.size() * STRIDE] = END;
+        return code;
+    }
+
+    /**
+     * Vérifie un numéro de registre
+     * @param reg numéro du registre
+     * @param i index de l'instruction (pour les messages d'erreur)
+     * @return int numéro du registre
+     * @throws IllegalArgumentException si le numéro est négatif
+     */
+    private static int checkRegister(int reg, int i) throws IllegalArgumentException {
+        if (reg < 0) {
+            throw new IllegalArgumentException("Instruction " + i + " : registre invalide R" + reg);
+        }
+        return reg;
+    }
+
+    /**
+     * Active la traduction du programme en bytecode JVM
+     * @return boolean true si le programme a été compilé, false s'il sera interprété
+     */
+    public boolean enableJit() {
+        if (compiled == null) {
+            compiled = JitCompiler.compile(code, nbInstructions, STRIDE);
+        }
+        return compiled != null;
+    }
+
+    /**
+     * Active le comptage des exécutions de chaque instruction
+     */
+    public void enableProfiling() {
+        if (counts == null) {
+            counts = new long[nbInstructions + 1];
+            calls = new CallTree(0);
+        }
+    }
+
+    /**
+     * Getter du profil d'exécution
+     * @return Profile nombre d'exécutions de chaque instruction depuis enableProfiling()
+     * @throws IllegalStateException si le profilage n'est pas activé
+     */
+    public Profile getProfile() throws IllegalStateException {
+        if (counts == null) {
+            throw new IllegalStateException("Profilage non activé");
+        }
+        return new Profile(buffer, counts, calls);
+    }
+
+    /**
+     * Exécute le programme depuis sa première instruction jusqu'à STOP, avec des flux
+     * @param in entrée lue par IN et READ (lue par blocs : des octets peuvent être lus au-delà de ceux utilisés)
+     * @param out sortie écrite par OUT et PRINT (vidée à la fin, pas fermée)
+     * @return long nombre de cycles
+     * @throws IOException si une entrée-sortie échoue
+     * @throws RuntimeException en cas d'erreur d'exécution (adresse invalide, division par zéro, sortie du programme...)
+     */
+    public long run(InputStream in, OutputStream out) throws IOException, RuntimeException {
+        try {
+            return run(ProgramInput.of(in), ProgramOutput.of(out));
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Exécute le programme depuis sa première instruction jusqu'à STOP
+     * @param in entrée lue par IN et READ
+     * @param out sortie écrite par OUT et PRINT (vidée à la fin, pas fermée)
+     * @return long nombre de cycles
+     * @throws IOException si une entrée-sortie échoue
+     * @throws RuntimeException en cas d'erreur d'exécution (adresse invalide, division par zéro, sortie du programme...)
+     */
+    public long run(ProgramInput in, ProgramOutput out) throws IOException, RuntimeException {
+        try {
+            if (compiled == null || counts != null) {
+                interpret(in, out, 0, Long.MAX_VALUE);
+            } else {
+                // Le code compilé rend la main sur chaque instruction qu'il ne traite pas, exécutée par l'interpréteur
+                long[] counters = new long[2];
+                int co = 0;
+                while (co != STOPPED) {
+                    counters[0] = cycles;
+                    counters[1] = stackPointer;
+                    co = runCompiled(counters, co);
+                    cycles = counters[0];
+                    stackPointer = (int) counters[1];
+                    co = interpret(in, out, co, 1);
+                }
+            }
+        } finally {
+            out.flush();
+        }
+        return cycles;
+    }
+
+    /**
+     * Appelle le code compilé
+     * @param counters nombre de cycles et hauteur de la pile de retour, mis à jour au retour
+     * @param co index de la première instruction à exécuter
+     * @return int index de la prochaine instruction, à exécuter par l'interpréteur
+     */
+    private int runCompiled(long[] counters, int co) {
+        try {
+            return (int) compiled.invokeExact(registers, memory, returnStack, counters, co);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Interprète le programme à partir d'une instruction
+     * @param in entrée lue par IN et READ
+     * @param out sortie écrite par OUT et PRINT
+     * @param co index de la première instruction à exécuter
+     * @param limit nombre maximal d'instructions à exécuter
+     * @return int index de la prochaine instruction, STOPPED si le programme s'est arrêté sur STOP
+     * @throws IOException si une entrée-sortie échoue
+     * @throws RuntimeException en cas d'erreur d'exécution
+     */
+    private int interpret(ProgramInput in, ProgramOutput out, int co, long limit) throws IOException, RuntimeException {
+        // Boucle d'interprétation : uniquement des variables locales et des tableaux, aucune allocation
+        final int[] code = this.code;
+        final long[] reg = this.registers;
+        final PagedMemory mem = this.memory;
+        final long memorySize = mem.size();
+        int[] stack = this.returnStack;
+        final long[] counts = this.counts;
+        final CallTree calls = this.calls;
+        int node = this.callNode;
+        int sp = this.stackPointer;
+        long count = 0;
+        // Cycles déjà attribués au contexte d'appel courant (profilage : attribution à chaque CALL et RET)
+        long attributed = 0;
+
+        try {
+            while (count < limit) {
+                int p = co * STRIDE;
+                int op = code[p];
+                count++;
+                if (counts != null) {
+                    counts[co]++;
+                }
+                switch (op) {
+                    case 0:  /* ADD  */ reg[code[p + 1]] = reg[code[p + 2]] + reg[code[p + 3]]; co++; break;
+                    case 1:  /* SUB  */ reg[code[p + 1]] = reg[code[p + 2]] - reg[code[p + 3]]; co++; break;
+                    case 2:  /* MUL  */ reg[code[p + 1]] = reg[code[p + 2]] * reg[code[p + 3]]; co++; break;
+                    case 3:  /* DIV  */ reg[code[p + 1]] = Math.floorDiv(reg[code[p + 2]], divisor(reg[code[p + 3]], co)); co++; break;
+                    case 4:  /* MOD  */ reg[code[p + 1]] = Math.floorMod(reg[code[p + 2]], divisor(reg[code[p + 3]], co)); co++; break;
+                    case 5:  /* XOR  */ reg[code[p + 1]] = reg[code[p + 2]] ^ reg[code[p + 3]]; co++; break;
+                    case 6:  /* AND  */ reg[code[p + 1]] = reg[code[p + 2]] & reg[code[p + 3]]; co++; break;
+                    case 7:  /* OR   */ reg[code[p + 1]] = reg[code[p + 2]] | reg[code[p + 3]]; co++; break;
+                    case 8:  /* SL   */ reg[code[p + 1]] = reg[code[p + 2]] << reg[code[p + 3]]; co++; break;
+                    case 9:  /* SR   */ reg[code[p + 1]] = reg[code[p + 2]] >> reg[code[p + 3]]; co++; break;
+                    case 10: /* ADDi */ reg[code[p + 1]] = reg[code[p + 2]] + code[p + 3]; co++; break;
+                    case 11: /* SUBi */ reg[code[p + 1]] = reg[code[p + 2]] - code[p + 3]; co++; break;
+                    case 12: /* MULi */ reg[code[p + 1]] = reg[code[p + 2]] * code[p + 3]; co++; break;
+                    case 13: /* DIVi */ reg[code[p + 1]] = Math.floorDiv(reg[code[p + 2]], divisor(code[p + 3], co)); co++; break;
+                    case 14: /* MODi */ reg[code[p + 1]] = Math.floorMod(reg[code[p + 2]], divisor(code[p + 3], co)); co++; break;
+                    case 15: /* XORi */ reg[code[p + 1]] = reg[code[p + 2]] ^ code[p + 3]; co++; break;
+                    case 16: /* ANDi */ reg[code[p + 1]] = reg[code[p + 2]] & code[p + 3]; co++; break;
+                    case 17: /* ORi  */ reg[code[p + 1]] = reg[code[p + 2]] | code[p + 3]; co++; break;
+                    case 18: /* SLi  */ reg[code[p + 1]] = reg[code[p + 2]] << code[p + 3]; co++; break;
+                    case 19: /* SRi  */ reg[code[p + 1]] = reg[code[p + 2]] >> code[p + 3]; co++; break;
+                    case 20: /* LD   */ reg[code[p + 1]] = mem.load(address(reg[code[p + 2]], memorySize, co)); co++; break;
+                    case 21: /* ST   */ mem.store(address(reg[code[p + 2]], memorySize, co), reg[code[p + 1]]); co++; break;
+                    case 22: /* JINF */ co = reg[code[p + 1]] <  reg[code[p + 2]] ? code[p + 3] : co + 1; break;
+                    case 23: /* JEQU */ co = reg[code[p + 1]] == reg[code[p + 2]] ? code[p + 3] : co + 1; break;
+                    case 24: /* JSUP */ co = reg[code[p + 1]] >  reg[code[p + 2]] ? code[p + 3] : co + 1; break;
+                    case 25: /* JNEQ */ co = reg[code[p + 1]] != reg[code[p + 2]] ? code[p + 3] : co + 1; break;
+                    case 26: /* JIEQ */ co = reg[code[p + 1]] <= reg[code[p + 2]] ? code[p + 3] : co + 1; break;
+                    case 27: /* JSEQ */ co = reg[code[p + 1]] >= reg[code[p + 2]] ? code[p + 3] : co + 1; break;
+                    case 28: /* JMP  */ co = code[p + 3]; break;
+                    case 29: /* CALL */
+                        if (sp == stack.length) {
+                            stack = Arrays.copyOf(stack, sp * 2);
+                        }
+                        stack[sp++] = co + 1;
+                        co = code[p + 3];
+                        if (calls != null) {
+                            calls.addCycles(node, count - attributed);
+                            attributed = count;
+                            node = calls.enter(node, co);
+                        }
+                        break;
+                    case 30: /* IN    */ { int c = in.read(); reg[code[p + 1]] = c == -1 ? 255 : c; co++; break; }
+                    case 31: /* OUT   */ out.write((int) (reg[code[p + 1]] & 0xFF)); co++; break;
+                    case 32: /* READ  */ reg[code[p + 1]] = in.readInt(); co++; break;
+                    case 33: /* PRINT */ out.writeLong(reg[code[p + 1]]); co++; break;
+                    case 34: /* RET   */
+                        if (sp == 0) {
+                            throw new RuntimeException("ERROR: RET avec une pile de retour vide -- CO = " + co);
+                        }
+                        co = stack[--sp];
+                        if (calls != null) {
+                            calls.addCycles(node, count - attributed);
+                            attributed = count;
+                            node = calls.leave(node);
+                        }
+                        break;
+                    case 35: /* STOP  */ count--; return STOPPED;
+                    default: /* END   */
+                        throw new RuntimeException("ERROR: fin du programme atteinte sans STOP -- CO = " + co);
+                }
+            }
+        } finally {
+            this.returnStack = stack;
+            this.stackPointer = sp;
+            this.cycles += count;
+            if (calls != null) {
+                calls.addCycles(node, count - attributed);
+                this.callNode = node;
+            }
+        }
+        return co;
+    }
+
+    /**
+     * Vérifie un diviseur
+     * @param value diviseur
+     * @param co index de l'instruction (pour les messages d'erreur)
+     * @return long diviseur non nul
+     */
+    private static long divisor(long value, int co) {
+        if (value == 0) {
+            throw new RuntimeException("ERROR: division par zéro -- CO = " + co);
+        }
+        return value;
+    }
+
+    /**
+     * Vérifie une adresse mémoire
+     * @param address adresse
+     * @param size taille de la mémoire
+     * @param co index de l'instruction (pour les messages d'erreur)
+     * @return long adresse valide
+     */
+    private static long address(long address, long size, int co) {
+        if (address < 0 || address >= size) {
+            throw new RuntimeException("ERROR: memory address " + address + " hors de [0, " + size + "[ -- CO = " + co);
+        }
+        return address;
+    }
+
+    /**
+     * Getter du nombre de cycles exécutés
+     * @return long nombre de cycles
+     */
+    public long getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Getter de la valeur d'un registre (après exécution)
+     * @param reg numéro du registre
+     * @return long valeur
+     */
+    public long getRegister(int reg) {
+        return reg < registers.length ? registers[reg] : 0;
+    }
+
+    /**
+     * Getter de la mémoire
+     * @return PagedMemory mémoire du programme
+     */
+    public PagedMemory getMemory() {
+        return memory;
+    }
+
+    /**
+     * Exécute un fichier assembleur comme simcode.py
+     * Usage : java Asm.Executor [-jit | -bench] [-mem nbMots] [-seed graine | -fill valeur] [prog.asm | prog.obj] [entrees.txt] [sorties.txt]
+     * Un fichier d'extension .obj est lu comme un fichier objet écrit par ObjectWriter.
+     * Avec -bench, le programme est exécuté par l'interpréteur puis par le code compilé,
+     * avec les mêmes valeurs initiales, et les deux durées sont comparées.
+     * -mem fixe la taille de la mémoire (65536 mots par défaut), -seed rend les valeurs initiales
+     * reproductibles, -fill initialise toute la mémoire avec une valeur constante.
+     * @param args options, puis fichiers du programme, des entrées et des sorties
+     * @throws IOException si un fichier ne peut pas être lu ou écrit
+     */
+    public static void main(String[] args) throws IOException {
+        boolean jit = false;
+        boolean bench = false;
+        long memorySize = MEMORY_SIZE;
+        Long seed = null;
+        Long fill = null;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-jit" -> jit = true;
+                case "-bench" -> bench = true;
+                case "-mem" -> memorySize = Long.parseLong(args[++i]);
+                case "-seed" -> seed = Long.parseLong(args[++i]);
+                case "-fill" -> fill = Long.parseLong(args[++i]);
+                default -> files.add(args[i]);
+            }
+        }
+        Path asm = Paths.get(files.size() > 0 ? files.get(0) : "prog.asm");
+        Path input = Paths.get(files.size() > 1 ? files.get(1) : "entrees.txt");
+        Path output = Paths.get(files.size() > 2 ? files.get(2) : "sorties.txt");
+
+        Program program = asm.toString().endsWith(".obj") ? new ObjectReader(asm).readProgram() : AsmReader.read(asm);
+        long initialSeed = seed != null ? seed : System.nanoTime();
+        if (bench) {
+            benchmark(program, Files.readAllBytes(input), output, initialSeed, memorySize, fill);
+            return;
+        }
+        try (ProgramInput in = ProgramInput.map(input);
+             ProgramOutput out = ProgramOutput.of(output)) {
+            Executor executor = create(program, initialSeed, memorySize, fill);
+            if (jit && !executor.enableJit()) {
+                System.err.println("Compilation impossible, exécution par l'interpréteur");
+            }
+            long cycles = executor.run(in, out);
+            System.out.println("Execution : " + cycles + " cycles");
+        }
+    }
+
+    /**
+     * Crée un exécuteur selon les options de la ligne de commande
+     * @param program programme à exécuter
+     * @param seed graine des valeurs initiales
+     * @param memorySize taille de la mémoire
+     * @param fill valeur initiale de la mémoire, null pour des valeurs aléatoires
+     * @return Executor exécuteur
+     */
+    private static Executor create(Program program, long seed, long memorySize, Long fill) {
+        Random random = new Random(seed);
+        PagedMemory memory = fill == null ? new PagedMemory(memorySize, random) : new PagedMemory(memorySize, fill);
+        return new Executor(program, random, memory);
+    }
+
+    /**
+     * Compare l'interpréteur et le code compilé sur un programme
+     * @param program programme à exécuter
+     * @param input contenu du fichier des entrées
+     * @param output fichier des sorties (écrit par la seconde exécution)
+     * @param seed graine des valeurs initiales, commune aux deux exécutions
+     * @param memorySize taille de la mémoire
+     * @param fill valeur initiale de la mémoire, null pour des valeurs aléatoires
+     * @throws IOException si le fichier des sorties ne peut pas être écrit
+     */
+    private static void benchmark(Program program, byte[] input, Path output, long seed, long memorySize, Long fill) throws IOException {
+        Executor interpreter = create(program, seed, memorySize, fill);
+        ProgramOutput interpreted = ProgramOutput.memory();
+        long start = System.nanoTime();
+        interpreter.run(ProgramInput.of(input), interpreted);
+        long interpreterTime = System.nanoTime() - start;
+
+        Executor executor = create(program, seed, memorySize, fill);
+        ProgramOutput jitted = ProgramOutput.memory();
+        start = System.nanoTime();
+        boolean compiled = executor.enableJit();
+        executor.run(ProgramInput.of(input), jitted);
+        long jitTime = System.nanoTime() - start;
+        Files.write(output, jitted.toByteArray());
+
+        if (interpreter.getCycles() != executor.getCycles() || !Arrays.equals(interpreted.toByteArray(), jitted.toByteArray())) {
+            throw new RuntimeException("ERROR: l'interpréteur et le code compilé ne donnent pas le même résultat");
+        }
+        System.out.println("Execution : " + executor.getCycles() + " cycles");
+        System.out.printf("Interpréteur : %d ms (%.1f Mcycles/s)%n", interpreterTime / 1_000_000, rate(interpreter.getCycles(), interpreterTime));
+        if (!compiled) {
+            System.out.println("Compilation impossible, exécution par l'interpréteur");
+        }
+        System.out.printf("JIT          : %d ms (%.1f Mcycles/s, compilation comprise)%n", jitTime / 1_000_000, rate(executor.getCycles(), jitTime));
+        System.out.printf("Accélération : x%.2f%n", (double) interpreterTime / Math.max(1, jitTime));
+    }
+
+    /**
+     * Débit d'exécution
+     * @param cycles nombre de cycles
+     * @param nanos durée en nanosecondes
+     * @return double millions de cycles par seconde
+     */
+    private static double rate(long cycles, long nanos) {
+        return cycles * 1000.0 / Math.max(1, nanos);
+    }
+}
@@ -1,6 +1,7 @@
 package Asm;
 public class IO extends Instruction {
     public static enum Op { IN, OUT, READ, PRINT };
+    private Op op;
     private int reg;
 
     /**
@@ -27,6 +28,7 @@ public class IO extends Instruction {
      */
     public IO(String label, Op op, int reg) {
         super(label,op.toString());
+        this.op = op;
         this.reg = reg;
     }
 
@@ -37,9 +39,55 @@ public class IO extends Instruction {
      */
     public IO(Op op, int reg) {
         super("",op.toString());
+        this.op = op;
         this.reg = reg;
     }
 
+    /**
+     * Getter de l'opération
+     * @return Op type d'opération
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Setter de l'opération
+     * @param op type d'opération
+     */
+    public void setOp(Op op) {
+        this.op = op;
+        this.name = op.toString();
+    }
+
+    /**
+     * Setter de l'opération à partir de son nom
+     * @param name nom de l'opération
+     */
+    @Override
+    public void setName(String name) {
+        setOp(Op.valueOf(name));
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.of(op);
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitIO(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
@@ -2,6 +2,9 @@ package Asm;
 public abstract class Instruction {
     protected String label;
     protected String name;
+    protected int line = 0; // ligne du code source TCL (0 : inconnue)
+    protected boolean spill = false; // ajoutée par l'allocation des registres (débordement)
+    protected boolean callOverhead = false; // protocole d'appel (sauvegarde des registres, passage des arguments, retour)
 
     /** 
      * Constructeur
@@ -45,4 +48,66 @@ public abstract class Instruction {
     public void setName(String name) {
         this.name = name;
     }
+
+    /**
+     * Getter de la ligne du code source dont provient l'instruction
+     * @return int numéro de ligne, 0 si inconnue
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Setter de la ligne du code source dont provient l'instruction
+     * @param line numéro de ligne, 0 si inconnue
+     */
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    /**
+     * Indique si l'instruction a été ajoutée pour le débordement des registres (accès au Spill, cadre de pile)
+     * @return boolean true pour une instruction de débordement
+     */
+    public boolean isSpill() {
+        return spill;
+    }
+
+    /**
+     * Setter de l'indicateur de débordement
+     * @param spill true pour une instruction de débordement
+     */
+    public void setSpill(boolean spill) {
+        this.spill = spill;
+    }
+
+    /**
+     * Indique si l'instruction fait partie du protocole d'appel de fonction : sauvegarde et restauration
+     * des registres, passage des arguments et du résultat, CALL, RET, début de fonction
+     * @return boolean true pour une instruction du protocole d'appel
+     */
+    public boolean isCallOverhead() {
+        return callOverhead;
+    }
+
+    /**
+     * Setter de l'indicateur de protocole d'appel
+     * @param callOverhead true pour une instruction du protocole d'appel
+     */
+    public void setCallOverhead(boolean callOverhead) {
+        this.callOverhead = callOverhead;
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    public abstract Opcode getOpcode();
+
+    /**
+     * Double répartition vers la méthode du visiteur correspondant à la classe de l'instruction
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    public abstract <R> R accept(InstructionVisitor<R> visitor);
 }
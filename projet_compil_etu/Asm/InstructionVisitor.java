@@ -0,0 +1,16 @@
+package Asm;
+/**
+ * Visiteur d'instructions : Instruction.accept(visitor) appelle la méthode
+ * correspondant à la classe réelle de l'instruction, sans test instanceof.
+ * @param <R> type du résultat
+ */
+public interface InstructionVisitor<R> {
+    R visitUAL(UAL instruction);
+    R visitUALi(UALi instruction);
+    R visitMem(Mem instruction);
+    R visitCondJump(CondJump instruction);
+    R visitJumpCall(JumpCall instruction);
+    R visitIO(IO instruction);
+    R visitRet(Ret instruction);
+    R visitStop(Stop instruction);
+}
@@ -0,0 +1,923 @@
+package Asm;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Traduction d'un programme pré-décodé (voir Executor.decode) en bytecode JVM, chargé comme classe cachée :
+ * HotSpot compile alors le programme simulé en code natif.
+ *
+ * Le programme est découpé en régions d'instructions consécutives : une par fonction (cible d'un CALL),
+ * coupée en parts tant que son bytecode dépasse 8000 octets, taille au-delà de laquelle HotSpot ne compile pas
+ * une méthode (HugeMethodLimit). Chaque région devient une méthode statique privée, et la méthode d'entrée
+ * <pre>
+ *   static int run(long[] registres, PagedMemory mémoire, int[] pileRetour, long[] compteurs, int co)
+ * </pre>
+ * est un trampoline qui appelle la région contenant co, jusqu'à ce qu'une région rende la main à l'interpréteur.
+ * compteurs contient { nombre de cycles, hauteur de la pile de retour }.
+ * Dans une région, chaque bloc de base est traduit en code linéaire, et les sauts entre blocs sont des goto directs ;
+ * RET repasse par l'aiguillage (tableswitch) sur co de la région. Un saut vers une autre région renvoie
+ * sa cible (co >= 0) au trampoline.
+ *
+ * Le programme rend la main à l'interpréteur en renvoyant l'index d'une instruction qu'il ne traite pas
+ * (une région renvoie ~co, le trampoline le convertit) : entrées-sorties, STOP, et tous les cas d'erreur
+ * (adresse invalide, division par zéro, pile vide) ou de pile de retour pleine. L'interpréteur exécute
+ * cette instruction puis revient dans le code compilé. Il n'y revient en milieu de bloc qu'après une entrée-sortie :
+ * seules ces instructions ont une entrée dans l'aiguillage, les autres sont rendues à l'interpréteur.
+ *
+ * Le nombre de cycles est ajouté une fois par bloc, à son entrée, et corrigé aux sorties en milieu de bloc.
+ * Les sauts sont sur 16 bits, ou sur 32 bits (goto_w) si une méthode est trop grande pour des décalages sur 16 bits.
+ * Le fichier classe est écrit à la main (version 49, sans StackMapTable), l'API java.lang.classfile
+ * n'étant pas disponible en Java 21.
+ */
+class JitCompiler {
+    private static final String CLASS_NAME = "Asm/CompiledProgram";
+    private static final String METHOD_NAME = "run";
+    private static final MethodType METHOD_TYPE =
+            MethodType.methodType(int.class, long[].class, PagedMemory.class, int[].class, long[].class, int.class);
+    private static final String DESCRIPTOR = METHOD_TYPE.toMethodDescriptorString();
+
+    // HotSpot ne compile pas une méthode dont le bytecode dépasse 8000 octets (HugeMethodLimit)
+    private static final int METHOD_LIMIT = 8000;
+    // Taille maximale du code d'une méthode dans le format classe
+    private static final int CODE_LIMIT = 65535;
+    // Nombre maximal d'instructions d'un bloc de base : un bloc tient toujours dans une région
+    private static final int MAX_BLOCK = 32;
+    // Nombre maximal de régions aiguillées par une même méthode (au-delà, le trampoline passe par des groupes)
+    private static final int GROUP_SIZE = 64;
+
+    // Variables locales des méthodes générées
+    private static final int REG = 0, MEM = 1, STACK = 2, COUNTERS = 3, CO = 4, SP = 5, CYCLES = 6, ADDRESS = 8;
+    private static final int MAX_LOCALS = 10;
+    private static final int MAX_STACK = 10;
+
+    // Opcodes JVM utilisés
+    private static final int ICONST_0 = 0x03, LCONST_0 = 0x09, BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13;
+    private static final int ILOAD = 0x15, LLOAD = 0x16, ALOAD = 0x19, ISTORE = 0x36, LSTORE = 0x37;
+    private static final int IALOAD = 0x2e, LALOAD = 0x2f, IASTORE = 0x4f, LASTORE = 0x50;
+    private static final int LADD = 0x61, LSUB = 0x65, LMUL = 0x69, LSHL = 0x79, LSHR = 0x7b;
+    private static final int LAND = 0x7f, LOR = 0x81, IXOR = 0x82, LXOR = 0x83, IINC = 0x84, I2L = 0x85, L2I = 0x88, LCMP = 0x94;
+    private static final int IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e;
+    private static final int IF_ICMPGE = 0xa2, IF_ICMPLE = 0xa4, GOTO = 0xa7, TABLESWITCH = 0xaa, IRETURN = 0xac;
+    private static final int INVOKEVIRTUAL = 0xb6, INVOKESTATIC = 0xb8, ARRAYLENGTH = 0xbe, GOTO_W = 0xc8;
+    private static final String MEMORY_CLASS = "Asm/PagedMemory";
+
+    private final int[] code;
+    private final int nbInstructions;
+    private final int stride;
+
+    // Débuts des blocs de base, et fin (exclue) du bloc de chaque instruction
+    private final boolean[] leader;
+    // Instructions où l'interpréteur peut rendre la main en milieu de bloc : celles qui suivent une entrée-sortie
+    private final boolean[] resume;
+    private final int[] blockEnd;
+
+    // Pool de constantes, commun à toutes les méthodes
+    private final ByteBuffer pool = new ByteBuffer();
+    private final HashMap<String, Integer> poolEntries = new HashMap<>();
+    private int poolCount = 1;
+
+    // Méthodes générées : nom et code (run est publique, les régions et les groupes sont privés)
+    private final ArrayList<String> methodNames = new ArrayList<>();
+    private final ArrayList<byte[]> methodCodes = new ArrayList<>();
+
+    // Régions retenues : { première instruction, fin exclue }, dans l'ordre du programme
+    private final ArrayList<int[]> regions = new ArrayList<>();
+
+    // Méthode en cours : code, labels et sauts à corriger
+    private ByteBuffer out;
+    private int[] labels = new int[64];
+    private int nbLabels;
+    private final ArrayList<int[]> fixups = new ArrayList<>();
+    // Sauts sur 32 bits (goto_w), si les décalages ne tiennent pas sur 16 bits
+    private boolean wide;
+
+    // Région en cours : instructions, labels d'entrée des blocs (par index - regionStart) et sorties
+    private int regionStart;
+    private int regionEnd;
+    private int[] blockEntry;
+    // Sorties vers l'interpréteur à émettre après le code des blocs : { label, co, cycles à retirer }
+    private final ArrayList<int[]> exits = new ArrayList<>();
+    // Sauts vers une autre région : label du bloc qui renvoie la cible au trampoline, par cible
+    private final HashMap<Integer, Integer> transfers = new HashMap<>();
+
+    /**
+     * Constructeur
+     * @param code programme pré-décodé
+     * @param nbInstructions nombre d'instructions
+     * @param stride nombre d'entiers par instruction
+     */
+    private JitCompiler(int[] code, int nbInstructions, int stride) {
+        this.code = code;
+        this.nbInstructions = nbInstructions;
+        this.stride = stride;
+        this.leader = new boolean[nbInstructions + 1];
+        this.resume = new boolean[nbInstructions + 1];
+        this.blockEnd = new int[nbInstructions];
+    }
+
+    /**
+     * Compile un programme pré-décodé
+     * @param code programme pré-décodé
+     * @param nbInstructions nombre d'instructions
+     * @param stride nombre d'entiers par instruction
+     * @return MethodHandle méthode run du programme compilé, null si le programme ne peut pas être compilé
+     *         (méthode trop grande pour le format classe, ou classe refusée par la JVM)
+     */
+    static MethodHandle compile(int[] code, int nbInstructions, int stride) {
+        if (nbInstructions == 0) {
+            return null;
+        }
+        try {
+            byte[] classFile = new JitCompiler(code, nbInstructions, stride).generate();
+            if (classFile == null) {
+                return null;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            return lookup.findStatic(lookup.lookupClass(), METHOD_NAME, METHOD_TYPE);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Génère le fichier classe
+     * @return byte[] fichier classe, null si une méthode dépasse les limites du format
+     */
+    private byte[] generate() {
+        findBlocks();
+
+        // Régions initiales : les fonctions, qui commencent au début du programme et aux cibles des CALL
+        TreeSet<Integer> starts = new TreeSet<>();
+        starts.add(0);
+        for (int i = 0; i < nbInstructions; i++) {
+            if (Opcode.fromOrdinal(code[i * stride]) == Opcode.CALL && code[i * stride + 3] < nbInstructions) {
+                starts.add(code[i * stride + 3]);
+            }
+        }
+        starts.add(nbInstructions);
+        Integer previous = null;
+        for (int start : starts) {
+            if (previous != null && !compileRegion(previous, start)) {
+                return null;
+            }
+            previous = start;
+        }
+
+        // Trampoline, en passant par des groupes de régions s'il y en a trop pour un seul aiguillage
+        if (regions.size() <= GROUP_SIZE) {
+            if (!emitTrampoline(0, regions.size(), "r")) {
+                return null;
+            }
+        } else {
+            int nbGroups = (regions.size() + GROUP_SIZE - 1) / GROUP_SIZE;
+            for (int g = 0; g < nbGroups; g++) {
+                if (!emitGroup(g)) {
+                    return null;
+                }
+            }
+            if (!emitTrampoline(0, nbGroups, "g")) {
+                return null;
+            }
+        }
+        return classFile();
+    }
+
+    /**
+     * Calcule les débuts des blocs de base : première instruction, cibles de saut, instructions suivant un saut,
+     * RET ou STOP, et une instruction sur MAX_BLOCK dans les longues suites d'instructions sans saut
+     */
+    private void findBlocks() {
+        leader[0] = true;
+        leader[nbInstructions] = true;
+        for (int i = 0; i < nbInstructions; i++) {
+            Opcode op = Opcode.fromOrdinal(code[i * stride]);
+            Opcode.Format format = op.getFormat();
+            if (format == Opcode.Format.COND_JUMP || format == Opcode.Format.JUMP_CALL) {
+                leader[code[i * stride + 3]] = true;
+            }
+            if (format == Opcode.Format.COND_JUMP || format == Opcode.Format.JUMP_CALL || format == Opcode.Format.NONE) {
+                leader[i + 1] = true;
+            }
+            resume[i + 1] = format == Opcode.Format.IO;
+        }
+        for (int i = 0, size = 0; i < nbInstructions; i++, size++) {
+            if (leader[i]) {
+                size = 0;
+            } else if (size == MAX_BLOCK) {
+                leader[i] = true;
+                size = 0;
+            }
+        }
+        for (int i = nbInstructions - 1, end = nbInstructions; i >= 0; i--) {
+            blockEnd[i] = end;
+            if (leader[i]) {
+                end = i;
+            }
+        }
+    }
+
+    /**
+     * Compile les instructions de start à end exclu en une région. Si la méthode dépasse METHOD_LIMIT,
+     * la région est coupée, aux débuts de blocs les plus proches, en autant de parts égales que nécessaire
+     * d'après la taille obtenue, et chaque part est compilée de la même façon
+     * @param start première instruction (début de bloc)
+     * @param end fin exclue (début de bloc)
+     * @return boolean false si un seul bloc dépasse la taille maximale du format classe
+     */
+    private boolean compileRegion(int start, int end) {
+        byte[] region = emitRegion(start, end);
+        if (region.length > METHOD_LIMIT) {
+            // Parts visées aux trois quarts de la limite : la taille d'une part n'est pas proportionnelle à son nombre d'instructions
+            int nbParts = Math.max(2, (region.length + METHOD_LIMIT * 3 / 4 - 1) / (METHOD_LIMIT * 3 / 4));
+            int partStart = start;
+            for (int part = 1; part <= nbParts; part++) {
+                int split = part == nbParts ? end : nearestLeader(partStart, end, start + (int) ((long) (end - start) * part / nbParts));
+                if (split != -1 && split > partStart) {
+                    if (partStart == start && split == end) {
+                        break;
+                    }
+                    if (!compileRegion(partStart, split)) {
+                        return false;
+                    }
+                    partStart = split;
+                }
+            }
+            if (partStart == end) {
+                return true;
+            }
+            // Un seul bloc : il reste dans une méthode au-delà de METHOD_LIMIT
+        }
+        if (region.length > CODE_LIMIT) {
+            return false;
+        }
+        methodNames.add("r" + regions.size());
+        methodCodes.add(region);
+        regions.add(new int[] { start, end });
+        return true;
+    }
+
+    /**
+     * Cherche le début de bloc strictement entre from et to le plus proche d'une instruction
+     * @param from borne exclue
+     * @param to borne exclue
+     * @param target instruction visée
+     * @return int début de bloc, -1 s'il n'y en a pas
+     */
+    private int nearestLeader(int from, int to, int target) {
+        for (int distance = 0; target - distance > from || target + distance < to; distance++) {
+            if (target + distance < to && target + distance > from && leader[target + distance]) {
+                return target + distance;
+            }
+            if (target - distance > from && target - distance < to && leader[target - distance]) {
+                return target - distance;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Génère la méthode d'une région, avec des sauts sur 16 bits puis sur 32 bits s'ils ne suffisent pas
+     * @param start première instruction
+     * @param end fin exclue
+     * @return byte[] code de la méthode (il peut dépasser CODE_LIMIT)
+     */
+    private byte[] emitRegion(int start, int end) {
+        for (wide = false; ; wide = true) {
+            beginMethod();
+            regionStart = start;
+            regionEnd = end;
+            exits.clear();
+            transfers.clear();
+
+            int dispatch = newLabel();
+            int leave = newLabel();
+            int interpret = newLabel();
+            blockEntry = new int[end - start];
+            int[] instructionLabel = new int[end - start];
+            int[] entryStubs = new int[end - start];
+            for (int i = start; i < end; i++) {
+                blockEntry[i - start] = leader[i] ? newLabel() : -1;
+                if (leader[i]) {
+                    entryStubs[i - start] = blockEntry[i - start];
+                } else if (resume[i]) {
+                    instructionLabel[i - start] = newLabel();
+                    entryStubs[i - start] = newLabel();
+                } else {
+                    entryStubs[i - start] = interpret;
+                }
+            }
+
+            // Prologue : chargement des compteurs
+            aload(COUNTERS); op(ICONST_0); op(LALOAD); lstore(CYCLES);
+            aload(COUNTERS); pushInt(1); op(LALOAD); op(L2I); istore(SP);
+
+            // Aiguillage sur co (entrée dans la méthode et retour de fonction) ; hors de la région, co est renvoyé au trampoline
+            place(dispatch);
+            iload(CO);
+            int switchPosition = out.size();
+            op(TABLESWITCH);
+            while (out.size() % 4 != 0) {
+                out.u1(0);
+            }
+            fixup32(switchPosition, leave);
+            out.u4(start);
+            out.u4(end - 1);
+            for (int i = start; i < end; i++) {
+                fixup32(switchPosition, entryStubs[i - start]);
+            }
+
+            // Blocs de base
+            for (int i = start; i < end; i++) {
+                if (leader[i]) {
+                    place(blockEntry[i - start]);
+                    addCycles(blockEnd[i] - i);
+                }
+                if (!leader[i] && resume[i]) {
+                    place(instructionLabel[i - start]);
+                }
+                emitInstruction(i, blockEnd[i], dispatch);
+            }
+
+            // Entrées en milieu de bloc (après une entrée-sortie)
+            for (int i = start; i < end; i++) {
+                if (!leader[i] && resume[i]) {
+                    place(entryStubs[i - start]);
+                    addCycles(blockEnd[i] - i);
+                    jump(GOTO, instructionLabel[i - start]);
+                }
+            }
+
+            // Autres entrées en milieu de bloc : l'instruction est exécutée par l'interpréteur
+            place(interpret);
+            iload(CO); pushInt(-1); op(IXOR); istore(CO);
+            jump(GOTO, leave);
+
+            // Sorties vers l'interpréteur : ~co
+            for (int[] stub : exits) {
+                place(stub[0]);
+                pushInt(~stub[1]); istore(CO);
+                addCycles(-stub[2]);
+                jump(GOTO, leave);
+            }
+
+            // Sauts vers une autre région (ou après la fin du programme) : la cible est renvoyée au trampoline
+            for (Map.Entry<Integer, Integer> transfer : transfers.entrySet()) {
+                place(transfer.getValue());
+                pushInt(transfer.getKey()); istore(CO);
+                jump(GOTO, leave);
+            }
+
+            // Épilogue : sauvegarde des compteurs et renvoi de co
+            place(leave);
+            aload(COUNTERS); op(ICONST_0); lload(CYCLES); op(LASTORE);
+            aload(COUNTERS); pushInt(1); iload(SP); op(I2L); op(LASTORE);
+            iload(CO);
+            op(IRETURN);
+
+            // En mode wide, tous les décalages tiennent
+            if (resolveFixups() || wide) {
+                return out.toArray();
+            }
+        }
+    }
+
+    /**
+     * Génère la méthode run : appelle la méthode (région ou groupe) contenant co tant que co >= 0,
+     * puis renvoie ~co à l'interpréteur ; un co après la dernière instruction lui est renvoyé tel quel
+     * @param from première méthode aiguillée
+     * @param to fin exclue
+     * @param prefix préfixe des noms des méthodes aiguillées ("r" pour les régions, "g" pour les groupes)
+     * @return boolean false si la méthode dépasse CODE_LIMIT
+     */
+    private boolean emitTrampoline(int from, int to, String prefix) {
+        for (wide = false; ; wide = true) {
+            beginMethod();
+            int loop = newLabel();
+            int check = newLabel();
+            int end = newLabel();
+
+            place(loop);
+            iload(CO); pushInt(nbInstructions);
+            jump(IF_ICMPGE, end);
+            select(from, to - 1, prefix, check);
+
+            place(check);
+            iload(CO);
+            jump(IFGE, loop);
+            iload(CO); pushInt(-1); op(IXOR);
+            op(IRETURN);
+
+            place(end);
+            iload(CO);
+            op(IRETURN);
+
+            if (resolveFixups()) {
+                break;
+            }
+            if (wide) {
+                return false;
+            }
+        }
+        if (out.size() > CODE_LIMIT) {
+            return false;
+        }
+        methodNames.add(METHOD_NAME);
+        methodCodes.add(out.toArray());
+        return true;
+    }
+
+    /**
+     * Génère la méthode d'un groupe de GROUP_SIZE régions : appelle la région contenant co et renvoie son résultat
+     * @param group numéro du groupe
+     * @return boolean false si la méthode dépasse CODE_LIMIT
+     */
+    private boolean emitGroup(int group) {
+        int from = group * GROUP_SIZE;
+        int to = Math.min(regions.size(), from + GROUP_SIZE);
+        for (wide = false; ; wide = true) {
+            beginMethod();
+            int end = newLabel();
+            select(from, to - 1, "r", end);
+            place(end);
+            iload(CO);
+            op(IRETURN);
+
+            if (resolveFixups()) {
+                break;
+            }
+            if (wide) {
+                return false;
+            }
+        }
+        if (out.size() > CODE_LIMIT) {
+            return false;
+        }
+        methodNames.add("g" + group);
+        methodCodes.add(out.toArray());
+        return true;
+    }
+
+    /**
+     * Émet une recherche dichotomique de la méthode contenant co, puis son appel ; le résultat est rangé dans co
+     * @param low première méthode candidate
+     * @param high dernière méthode candidate
+     * @param prefix préfixe des noms des méthodes ("r" ou "g")
+     * @param next label où continuer après l'appel
+     */
+    private void select(int low, int high, String prefix, int next) {
+        if (low == high) {
+            aload(REG); aload(MEM); aload(STACK); aload(COUNTERS); iload(CO);
+            invoke(INVOKESTATIC, CLASS_NAME, prefix + low, DESCRIPTOR);
+            istore(CO);
+            jump(GOTO, next);
+            return;
+        }
+        int middle = (low + high + 1) >>> 1;
+        int right = newLabel();
+        int first = prefix.equals("g") ? regions.get(middle * GROUP_SIZE)[0] : regions.get(middle)[0];
+        iload(CO); pushInt(first);
+        jump(IF_ICMPGE, right);
+        select(low, middle - 1, prefix, next);
+        place(right);
+        select(middle, high, prefix, next);
+    }
+
+    /**
+     * Traduit une instruction
+     * @param i index de l'instruction
+     * @param end fin de son bloc (exclue)
+     * @param dispatch label de l'aiguillage
+     */
+    private void emitInstruction(int i, int end, int dispatch) {
+        int p = i * stride;
+        int a = code[p + 1], b = code[p + 2], c = code[p + 3];
+        Opcode op = Opcode.fromOrdinal(code[p]);
+        int remaining = end - i;
+
+        switch (op) {
+            case ADD: case SUB: case MUL: case XOR: case AND: case OR:
+                aload(REG); pushInt(a);
+                loadRegister(b); loadRegister(c);
+                op(longOperation(op));
+                op(LASTORE);
+                break;
+            case SL: case SR:
+                aload(REG); pushInt(a);
+                loadRegister(b); loadRegister(c); op(L2I);
+                op(op == Opcode.SL ? LSHL : LSHR);
+                op(LASTORE);
+                break;
+            case DIV: case MOD:
+                loadRegister(c); op(LCONST_0); op(LCMP);
+                jump(IFEQ, exitLabel(i, remaining));
+                aload(REG); pushInt(a);
+                loadRegister(b); loadRegister(c);
+                invoke(INVOKESTATIC, "java/lang/Math", op == Opcode.DIV ? "floorDiv" : "floorMod", "(JJ)J");
+                op(LASTORE);
+                break;
+            case ADDi: case SUBi: case MULi: case XORi: case ANDi: case ORi:
+                aload(REG); pushInt(a);
+                loadRegister(b); pushInt(c); op(I2L);
+                op(longOperation(op));
+                op(LASTORE);
+                break;
+            case SLi: case SRi:
+                aload(REG); pushInt(a);
+                loadRegister(b); pushInt(c);
+                op(op == Opcode.SLi ? LSHL : LSHR);
+                op(LASTORE);
+                break;
+            case DIVi: case MODi:
+                if (c == 0) {
+                    jump(GOTO, exitLabel(i, remaining));
+                    break;
+                }
+                aload(REG); pushInt(a);
+                loadRegister(b); pushInt(c); op(I2L);
+                invoke(INVOKESTATIC, "java/lang/Math", op == Opcode.DIVi ? "floorDiv" : "floorMod", "(JJ)J");
+                op(LASTORE);
+                break;
+            case LD:
+                checkAddress(b, i, remaining);
+                aload(REG); pushInt(a);
+                aload(MEM); lload(ADDRESS);
+                invoke(INVOKEVIRTUAL, MEMORY_CLASS, "load", "(J)J");
+                op(LASTORE);
+                break;
+            case ST:
+                checkAddress(b, i, remaining);
+                aload(MEM); lload(ADDRESS);
+                loadRegister(a);
+                invoke(INVOKEVIRTUAL, MEMORY_CLASS, "store", "(JJ)V");
+                break;
+            case JINF: case JEQU: case JSUP: case JNEQ: case JIEQ: case JSEQ:
+                loadRegister(a); loadRegister(b); op(LCMP);
+                jumpTo(conditionalJump(op), c);
+                jumpTo(GOTO, i + 1);
+                break;
+            case JMP:
+                jumpTo(GOTO, c);
+                break;
+            case CALL:
+                // Pile de retour pleine : l'interpréteur l'agrandit
+                iload(SP); aload(STACK); op(ARRAYLENGTH);
+                jump(IF_ICMPGE, exitLabel(i, remaining));
+                aload(STACK); iload(SP); pushInt(i + 1); op(IASTORE);
+                iinc(SP, 1);
+                jumpTo(GOTO, c);
+                break;
+            case RET:
+                iload(SP);
+                jump(IFLE, exitLabel(i, remaining));
+                iinc(SP, -1);
+                aload(STACK); iload(SP); op(IALOAD); istore(CO);
+                jump(GOTO, dispatch);
+                break;
+            default:
+                // Entrées-sorties et STOP : exécutés par l'interpréteur
+                jump(GOTO, exitLabel(i, remaining));
+                break;
+        }
+
+        // Fin de bloc sans saut : on passe au bloc suivant
+        if (i + 1 == end && op.getFormat() != Opcode.Format.COND_JUMP && op.getFormat() != Opcode.Format.JUMP_CALL
+                && op != Opcode.RET && op != Opcode.STOP) {
+            jumpTo(GOTO, end);
+        }
+    }
+
+    /**
+     * Charge l'adresse contenue dans un registre dans la variable ADDRESS, et sort vers l'interpréteur
+     * si elle est hors de la mémoire
+     * @param reg registre d'adresse
+     * @param i index de l'instruction
+     * @param remaining nombre d'instructions du bloc à partir de i
+     */
+    private void checkAddress(int reg, int i, int remaining) {
+        int error = exitLabel(i, remaining);
+        loadRegister(reg); lstore(ADDRESS);
+        lload(ADDRESS); op(LCONST_0); op(LCMP);
+        jump(IFLT, error);
+        lload(ADDRESS); aload(MEM); invoke(INVOKEVIRTUAL, MEMORY_CLASS, "size", "()J"); op(LCMP);
+        jump(IFGE, error);
+    }
+
+    /**
+     * Crée une sortie vers l'interpréteur pour l'instruction i
+     * @param i index de l'instruction (exécutée par l'interpréteur)
+     * @param remaining cycles comptés à l'entrée du bloc mais pas encore exécutés
+     * @return int label de la sortie
+     */
+    private int exitLabel(int i, int remaining) {
+        int label = newLabel();
+        exits.add(new int[] { label, i, remaining });
+        return label;
+    }
+
+    /**
+     * Saute au début d'un bloc : directement s'il est dans la région, sinon en renvoyant sa cible au trampoline
+     * @param opcode instruction de saut
+     * @param target index de la première instruction du bloc
+     */
+    private void jumpTo(int opcode, int target) {
+        if (target >= regionStart && target < regionEnd) {
+            jump(opcode, blockEntry[target - regionStart]);
+            return;
+        }
+        Integer label = transfers.get(target);
+        if (label == null) {
+            label = newLabel();
+            transfers.put(target, label);
+        }
+        jump(opcode, label);
+    }
+
+    private static int longOperation(Opcode op) {
+        switch (op) {
+            case ADD: case ADDi: return LADD;
+            case SUB: case SUBi: return LSUB;
+            case MUL: case MULi: return LMUL;
+            case XOR: case XORi: return LXOR;
+            case AND: case ANDi: return LAND;
+            default:             return LOR;
+        }
+    }
+
+    private static int conditionalJump(Opcode op) {
+        switch (op) {
+            case JINF: return IFLT;
+            case JEQU: return IFEQ;
+            case JSUP: return IFGT;
+            case JNEQ: return IFNE;
+            case JIEQ: return IFLE;
+            default:   return IFGE;
+        }
+    }
+
+    // ---- Émission du bytecode ----
+
+    private void op(int opcode) {
+        out.u1(opcode);
+    }
+
+    private void aload(int local) {
+        out.u1(ALOAD); out.u1(local);
+    }
+
+    private void iload(int local) {
+        out.u1(ILOAD); out.u1(local);
+    }
+
+    private void istore(int local) {
+        out.u1(ISTORE); out.u1(local);
+    }
+
+    private void lload(int local) {
+        out.u1(LLOAD); out.u1(local);
+    }
+
+    private void lstore(int local) {
+        out.u1(LSTORE); out.u1(local);
+    }
+
+    private void iinc(int local, int delta) {
+        out.u1(IINC); out.u1(local); out.u1(delta);
+    }
+
+    private void loadRegister(int reg) {
+        aload(REG); pushInt(reg); op(LALOAD);
+    }
+
+    private void addCycles(int n) {
+        if (n != 0) {
+            lload(CYCLES); pushInt(n); op(I2L); op(LADD); lstore(CYCLES);
+        }
+    }
+
+    private void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            out.u1(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            out.u1(BIPUSH); out.u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            out.u1(SIPUSH); out.u2(value);
+        } else {
+            out.u1(LDC_W); out.u2(integerConstant(value));
+        }
+    }
+
+    private void invoke(int opcode, String owner, String name, String descriptor) {
+        out.u1(opcode);
+        out.u2(methodConstant(owner, name, descriptor));
+    }
+
+    /**
+     * Commence une nouvelle méthode : code, labels et sauts à corriger vides
+     */
+    private void beginMethod() {
+        out = new ByteBuffer();
+        nbLabels = 0;
+        fixups.clear();
+    }
+
+    private int newLabel() {
+        if (nbLabels == labels.length) {
+            labels = Arrays.copyOf(labels, nbLabels * 2);
+        }
+        labels[nbLabels] = -1;
+        return nbLabels++;
+    }
+
+    private void place(int label) {
+        labels[label] = out.size();
+    }
+
+    /**
+     * Émet un saut vers un label (corrigé à la fin) : sur 16 bits, ou en mode wide un goto_w,
+     * précédé pour un saut conditionnel de la condition inverse qui passe par-dessus
+     * @param opcode instruction de saut
+     * @param label label visé
+     */
+    private void jump(int opcode, int label) {
+        if (wide) {
+            if (opcode != GOTO) {
+                // Les sauts conditionnels vont par paires (ifeq/ifne, iflt/ifge...) : l'inverse est le voisin de la paire
+                out.u1(((opcode - IFEQ) ^ 1) + IFEQ);
+                out.u2(3 + 5);
+            }
+            int position = out.size();
+            out.u1(GOTO_W);
+            fixup32(position, label);
+            return;
+        }
+        int position = out.size();
+        out.u1(opcode);
+        fixups.add(new int[] { position, out.size(), label, 2 });
+        out.u2(0);
+    }
+
+    /**
+     * Réserve un décalage sur 32 bits (tableswitch, goto_w), relatif à l'instruction en position origin
+     * @param origin position de l'instruction
+     * @param label label visé
+     */
+    private void fixup32(int origin, int label) {
+        fixups.add(new int[] { origin, out.size(), label, 4 });
+        out.u4(0);
+    }
+
+    /**
+     * Écrit les décalages des sauts une fois tous les labels placés
+     * @return boolean false si un décalage ne tient pas sur 16 bits (la méthode est à regénérer en mode wide)
+     */
+    private boolean resolveFixups() {
+        for (int[] fixup : fixups) {
+            int offset = labels[fixup[2]] - fixup[0];
+            if (fixup[3] == 2) {
+                if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                    return false;
+                }
+                out.set2(fixup[1], offset);
+            } else {
+                out.set4(fixup[1], offset);
+            }
+        }
+        return true;
+    }
+
+    // ---- Pool de constantes et fichier classe ----
+
+    private int utf8Constant(String value) {
+        return constant("U" + value, () -> {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            pool.u1(1); pool.u2(bytes.length); pool.bytes(bytes);
+        });
+    }
+
+    private int classConstant(String name) {
+        int nameIndex = utf8Constant(name);
+        return constant("C" + name, () -> { pool.u1(7); pool.u2(nameIndex); });
+    }
+
+    private int integerConstant(int value) {
+        return constant("I" + value, () -> { pool.u1(3); pool.u4(value); });
+    }
+
+    private int methodConstant(String owner, String name, String descriptor) {
+        int ownerIndex = classConstant(owner);
+        int nameIndex = utf8Constant(name);
+        int descriptorIndex = utf8Constant(descriptor);
+        int nameAndType = constant("N" + name + descriptor, () -> { pool.u1(12); pool.u2(nameIndex); pool.u2(descriptorIndex); });
+        return constant("M" + owner + "." + name + descriptor, () -> { pool.u1(10); pool.u2(ownerIndex); pool.u2(nameAndType); });
+    }
+
+    private int constant(String key, Runnable writer) {
+        Integer index = poolEntries.get(key);
+        if (index == null) {
+            writer.run();
+            index = poolCount++;
+            poolEntries.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Assemble le fichier classe : une classe finale avec la méthode publique run,
+     * et les méthodes privées des régions et des groupes
+     * @return byte[] fichier classe
+     */
+    private byte[] classFile() {
+        int thisClass = classConstant(CLASS_NAME);
+        int superClass = classConstant("java/lang/Object");
+        int descriptor = utf8Constant(DESCRIPTOR);
+        int codeAttribute = utf8Constant("Code");
+        int[] names = new int[methodNames.size()];
+        for (int m = 0; m < names.length; m++) {
+            names[m] = utf8Constant(methodNames.get(m));
+        }
+
+        ByteBuffer file = new ByteBuffer();
+        file.u4(0xCAFEBABE);
+        file.u2(0);
+        file.u2(49);
+        file.u2(poolCount);
+        file.bytes(pool.toArray());
+        file.u2(0x0031);            // public final super
+        file.u2(thisClass);
+        file.u2(superClass);
+        file.u2(0);                 // interfaces
+        file.u2(0);                 // champs
+        file.u2(names.length);      // méthodes
+        for (int m = 0; m < names.length; m++) {
+            byte[] body = methodCodes.get(m);
+            file.u2(methodNames.get(m).equals(METHOD_NAME) ? 0x0009 : 0x000A);   // public static, private static
+            file.u2(names[m]);
+            file.u2(descriptor);
+            file.u2(1);             // attributs de la méthode
+            file.u2(codeAttribute);
+            file.u4(12 + body.length);
+            file.u2(MAX_STACK);
+            file.u2(MAX_LOCALS);
+            file.u4(body.length);
+            file.bytes(body);
+            file.u2(0);             // exceptions
+            file.u2(0);             // attributs du code
+        }
+        file.u2(0);                 // attributs de la classe
+        return file.toArray();
+    }
+
+    /**
+     * Tableau d'octets extensible, écrit en big-endian
+     */
+    private static class ByteBuffer {
+        private byte[] data = new byte[1024];
+        private int size = 0;
+
+        int size() {
+            return size;
+        }
+
+        void u1(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = (byte) value;
+        }
+
+        void u2(int value) {
+            u1(value >> 8); u1(value);
+        }
+
+        void u4(int value) {
+            u2(value >> 16); u2(value);
+        }
+
+        void bytes(byte[] bytes) {
+            for (byte b : bytes) {
+                u1(b);
+            }
+        }
+
+        void set2(int position, int value) {
+            data[position] = (byte) (value >> 8);
+            data[position + 1] = (byte) value;
+        }
+
+        void set4(int position, int value) {
+            set2(position, value >> 16);
+            set2(position + 2, value);
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package Asm;
 public class JumpCall extends Instruction{
     public static enum Op { JMP, CALL };
+    private Op op;
     private String address;
 
     /**
@@ -27,6 +28,7 @@ public class JumpCall extends Instruction{
      */
     public JumpCall(String label, Op op, String address) {
         super(label,op.toString());
+        this.op = op;
         this.address = address;
     
     }
@@ -38,10 +40,56 @@ public class JumpCall extends Instruction{
      */
     public JumpCall(Op op, String address) {
         super("",op.toString());
+        this.op = op;
         this.address = address;
     
     }
 
+    /**
+     * Getter de l'opération
+     * @return Op type d'opération
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Setter de l'opération
+     * @param op type d'opération
+     */
+    public void setOp(Op op) {
+        this.op = op;
+        this.name = op.toString();
+    }
+
+    /**
+     * Setter de l'opération à partir de son nom
+     * @param name nom de l'opération
+     */
+    @Override
+    public void setName(String name) {
+        setOp(Op.valueOf(name));
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.of(op);
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitJumpCall(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
@@ -1,6 +1,7 @@
 package Asm;
 public class Mem extends Instruction{
     public static enum Op { LD, ST };
+    private Op op;
 
     private int dest;
     private int address;
@@ -46,6 +47,7 @@ public class Mem extends Instruction{
      */
     public Mem(String label, Op op, int dest, int address) {
         super(label,op.toString());
+        this.op = op;
         this.dest = dest;
         this.address = address;
     }
@@ -58,10 +60,56 @@ public class Mem extends Instruction{
      */
     public Mem(Op op, int dest, int address) {
         super("",op.toString());
+        this.op = op;
         this.dest = dest;
         this.address = address;
     }
 
+    /**
+     * Getter de l'opération
+     * @return Op type d'opération
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Setter de l'opération
+     * @param op type d'opération
+     */
+    public void setOp(Op op) {
+        this.op = op;
+        this.name = op.toString();
+    }
+
+    /**
+     * Setter de l'opération à partir de son nom
+     * @param name nom de l'opération
+     */
+    @Override
+    public void setName(String name) {
+        setOp(Op.valueOf(name));
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.of(op);
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitMem(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
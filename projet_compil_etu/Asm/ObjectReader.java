@@ -0,0 +1,274 @@
+package Asm;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecture d'un fichier objet produit par ObjectWriter.
+ *
+ * Le fichier est projeté en mémoire : seule la table des symboles est décodée à l'ouverture,
+ * les instructions sont lues à la demande, soit pour reconstruire un Program,
+ * soit instruction par instruction avec next() / getOpcode() / getOperand().
+ */
+public class ObjectReader {
+    private static final Opcode[] OPCODES = Opcode.values();
+    private static final UAL.Op[] UAL_OPS = UAL.Op.values();
+    private static final UALi.Op[] UALI_OPS = UALi.Op.values();
+    private static final Mem.Op[] MEM_OPS = Mem.Op.values();
+    private static final CondJump.Op[] COND_JUMP_OPS = CondJump.Op.values();
+    private static final JumpCall.Op[] JUMP_CALL_OPS = JumpCall.Op.values();
+    private static final IO.Op[] IO_OPS = IO.Op.values();
+
+    private final String[] symbols;
+    private final int[] symbolIndexes;
+    private final int[] labelAt;
+    private final int nbInstructions;
+    private final ByteBuffer code;
+
+    // Instruction courante
+    private int index = -1;
+    private Opcode opcode;
+    private final int[] operands = new int[3];
+
+    /**
+     * Constructeur : ouvre et projette le fichier objet
+     * @param path chemin du fichier objet
+     * @throws IOException si la lecture échoue ou si le fichier n'est pas un fichier objet valide
+     */
+    public ObjectReader(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < 20 || buffer.getInt() != ObjectWriter.MAGIC) {
+            throw new IOException("Fichier objet invalide : " + path);
+        }
+        int version = buffer.getInt();
+        if (version != ObjectWriter.VERSION) {
+            throw new IOException("Version de fichier objet non supportée : " + version);
+        }
+        int nbSymbols = buffer.getInt();
+        this.nbInstructions = buffer.getInt();
+        int codeBytes = buffer.getInt();
+
+        // Un symbole occupe au moins 2 octets et une instruction au moins 1 : borne les tableaux alloués
+        if (codeBytes < 0 || codeBytes > buffer.remaining()) {
+            throw new IOException("Fichier objet tronqué : " + path);
+        }
+        if (nbInstructions < 0 || nbInstructions > codeBytes) {
+            throw new IOException("Nombre d'instructions invalide : " + nbInstructions);
+        }
+        if (nbSymbols < 0 || nbSymbols > (buffer.remaining() - codeBytes) / 2) {
+            throw new IOException("Nombre de symboles invalide : " + nbSymbols);
+        }
+
+        this.symbols = new String[nbSymbols];
+        this.symbolIndexes = new int[nbSymbols];
+        this.labelAt = new int[nbInstructions];
+        Arrays.fill(labelAt, -1);
+
+        ByteBuffer table = buffer.slice(buffer.position(), buffer.remaining() - codeBytes);
+        for (int id = 0; id < nbSymbols; id++) {
+            symbolIndexes[id] = readVarint(table) - 1;
+            if (symbolIndexes[id] < -1 || symbolIndexes[id] >= nbInstructions) {
+                throw new IOException("Symbole " + id + " : instruction " + symbolIndexes[id] + " hors du programme");
+            }
+            int length = readVarint(table);
+            if (length < 0 || length > table.remaining()) {
+                throw new IOException("Fichier objet tronqué : " + path);
+            }
+            byte[] name = new byte[length];
+            table.get(name);
+            symbols[id] = new String(name, StandardCharsets.UTF_8);
+            if (symbolIndexes[id] >= 0) {
+                labelAt[symbolIndexes[id]] = id;
+            }
+        }
+        if (table.hasRemaining()) {
+            throw new IOException("Table des symboles invalide : " + path);
+        }
+
+        this.code = buffer.slice(buffer.limit() - codeBytes, codeBytes);
+    }
+
+    /**
+     * Lit un entier écrit par ObjectWriter.writeVarint
+     * @param buffer tampon source
+     * @return int entier lu
+     * @throws IOException si le tampon se termine avant l'entier ou si l'entier dépasse 32 bits
+     */
+    private static int readVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Fichier objet tronqué");
+            }
+            int b = buffer.get();
+            // Cinquième octet : seuls ses 4 bits de poids faible tiennent dans un int
+            if (shift == 28 && (b & 0x70) != 0) {
+                throw new IOException("Entier trop long dans le fichier objet");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entier trop long dans le fichier objet");
+    }
+
+    /**
+     * Getter du nombre d'instructions
+     * @return int nombre d'instructions
+     */
+    public int getNbInstructions() {
+        return nbInstructions;
+    }
+
+    /**
+     * Getter du nombre de symboles
+     * @return int nombre de symboles
+     */
+    public int getNbSymbols() {
+        return symbols.length;
+    }
+
+    /**
+     * Getter du nom d'un symbole
+     * @param id numéro du symbole
+     * @return String nom du symbole
+     */
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * Getter de l'instruction désignée par un symbole
+     * @param id numéro du symbole
+     * @return int index de l'instruction, -1 si le symbole n'est pas défini
+     */
+    public int getSymbolIndex(int id) {
+        return symbolIndexes[id];
+    }
+
+    /**
+     * Revient avant la première instruction
+     */
+    public void rewind() {
+        code.rewind();
+        index = -1;
+        opcode = null;
+    }
+
+    /**
+     * Décode l'instruction suivante
+     * @return boolean false s'il n'y a plus d'instruction
+     * @throws IOException si l'instruction est tronquée, si l'opcode est inconnu ou si un saut vise un symbole inexistant
+     */
+    public boolean next() throws IOException {
+        if (index + 1 >= nbInstructions) return false;
+        index++;
+
+        if (!code.hasRemaining()) {
+            throw new IOException("Instruction " + index + " : fichier objet tronqué");
+        }
+        int ordinal = code.get() & 0xFF;
+        if (ordinal >= OPCODES.length) {
+            throw new IOException("Instruction " + index + " : opération inconnue " + ordinal);
+        }
+        opcode = OPCODES[ordinal];
+        Opcode.Format format = opcode.getFormat();
+        for (int i = 0; i < format.getNbOperands(); i++) {
+            int zigzag = readVarint(code);
+            operands[i] = zigzag >>> 1 ^ -(zigzag & 1);
+        }
+
+        // Dernier opérande d'un saut : numéro de symbole
+        if (format == Opcode.Format.COND_JUMP || format == Opcode.Format.JUMP_CALL) {
+            int target = operands[format.getNbOperands() - 1];
+            if (target < 0 || target >= symbols.length) {
+                throw new IOException("Instruction " + index + " : symbole " + target + " inexistant");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter de l'index de l'instruction courante
+     * @return int index de l'instruction
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Getter de l'opération de l'instruction courante
+     * @return Opcode opération
+     */
+    public Opcode getOpcode() {
+        return opcode;
+    }
+
+    /**
+     * Getter d'un opérande de l'instruction courante, dans l'ordre du texte assembleur
+     * (les adresses de saut sont des numéros de symbole)
+     * @param i position de l'opérande
+     * @return int valeur de l'opérande
+     */
+    public int getOperand(int i) {
+        return operands[i];
+    }
+
+    /**
+     * Getter du label de l'instruction courante
+     * @return int numéro du symbole, -1 si l'instruction n'a pas de label
+     */
+    public int getLabel() {
+        return labelAt[index];
+    }
+
+    /**
+     * Reconstruit le programme complet
+     * @return Program programme lu
+     * @throws IOException si une instruction est invalide
+     */
+    public Program readProgram() throws IOException {
+        Program program = new Program();
+        rewind();
+        while (next()) {
+            program.addInstruction(toInstruction());
+        }
+        return program;
+    }
+
+    /**
+     * Construit l'objet Instruction correspondant à l'instruction courante
+     * @return Instruction instruction décodée
+     */
+    private Instruction toInstruction() {
+        String label = getLabel() >= 0 ? symbols[getLabel()] : "";
+        int ordinal = opcode.ordinal();
+
+        switch (opcode.getFormat()) {
+            case UAL:
+                return new UAL(label, UAL_OPS[ordinal - Opcode.ADD.ordinal()], operands[0], operands[1], operands[2]);
+            case UALI:
+                return new UALi(label, UALI_OPS[ordinal - Opcode.ADDi.ordinal()], operands[0], operands[1], operands[2]);
+            case MEM:
+                return new Mem(label, MEM_OPS[ordinal - Opcode.LD.ordinal()], operands[0], operands[1]);
+            case COND_JUMP:
+                return new CondJump(label, COND_JUMP_OPS[ordinal - Opcode.JINF.ordinal()], operands[0], operands[1], symbols[operands[2]]);
+            case JUMP_CALL:
+                return new JumpCall(label, JUMP_CALL_OPS[ordinal - Opcode.JMP.ordinal()], symbols[operands[0]]);
+            case IO:
+                return new IO(label, IO_OPS[ordinal - Opcode.IN.ordinal()], operands[0]);
+            default:
+                return opcode == Opcode.RET ? new Ret(label) : new Stop(label);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package Asm;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Écriture d'un programme au format objet binaire.
+ *
+ * Le fichier commence par cinq entiers 32 bits (big-endian), suivis de la table des symboles et du code,
+ * où chaque nombre est un entier à longueur variable (voir writeVarint) :
+ * <pre>
+ *   MAGIC VERSION nbSymboles nbInstructions nbOctetsCode
+ *   pour chaque symbole : indexInstruction + 1 (0 si non défini) nbOctets octetsUTF8
+ *   pour chaque instruction : un octet d'opcode, puis ses opérandes
+ * </pre>
+ * Les adresses de saut sont des numéros de symbole, les labels sont portés par la table des symboles.
+ * Les registres et les petites valeurs immédiates tiennent sur un octet : une instruction en occupe de 1 à 4
+ * la plupart du temps, contre 20 à 25 caractères dans le texte assembleur.
+ */
+public class ObjectWriter {
+    public static final int MAGIC = 0x54434C4F; // "TCLO"
+    public static final int VERSION = 2;
+
+    // Opérandes d'une instruction, dans l'ordre du texte assembleur
+    // (l'adresse de saut, dernier opérande, est remplacée par le numéro du label dans la table du programme)
+    private final InstructionVisitor<int[]> operandsVisitor = new InstructionVisitor<int[]>() {
+        public int[] visitUAL(UAL ual) {
+            return new int[] { ual.getDest(), ual.getSr1(), ual.getSr2() };
+        }
+        public int[] visitUALi(UALi uali) {
+            return new int[] { uali.getDest(), uali.getSr(), uali.getImm() };
+        }
+        public int[] visitMem(Mem mem) {
+            return new int[] { mem.getDest(), mem.getAddress() };
+        }
+        public int[] visitCondJump(CondJump condJump) {
+            return new int[] { condJump.getSr1(), condJump.getSr2(), SymbolTable.UNDEFINED };
+        }
+        public int[] visitJumpCall(JumpCall jumpCall) {
+            return new int[] { SymbolTable.UNDEFINED };
+        }
+        public int[] visitIO(IO io) {
+            return new int[] { io.getReg() };
+        }
+        public int[] visitRet(Ret ret) {
+            return new int[0];
+        }
+        public int[] visitStop(Stop stop) {
+            return new int[0];
+        }
+    };
+
+    /**
+     * Écrit le programme dans un fichier
+     * @param program programme à écrire
+     * @param path chemin du fichier objet
+     * @throws IOException si l'écriture échoue
+     */
+    public static void write(Program program, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(program, out);
+        }
+    }
+
+    /**
+     * Écrit le programme dans un flux
+     * @param program programme à écrire
+     * @param out flux de destination (n'est pas fermé)
+     * @throws IOException si l'écriture échoue
+     */
+    public static void write(Program program, OutputStream out) throws IOException {
+        new ObjectWriter().writeProgram(program, out);
+    }
+
+    private void writeProgram(Program program, OutputStream out) throws IOException {
+        ArrayList<Instruction> instructions = program.getInstructions();
+
+        // Code encodé d'abord : sa taille fait partie de l'en-tête
+        ByteArrayOutputStream code = new ByteArrayOutputStream(instructions.size() * 4);
+        for (int i = 0; i < instructions.size(); i++) {
+            writeInstruction(code, instructions.get(i), program.getTargetId(i));
+        }
+
+        // Table des symboles : celle du programme (labels définis et adresses de saut)
+        SymbolTable symbols = program.getSymbols();
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(symbols.size());
+        data.writeInt(instructions.size());
+        data.writeInt(code.size());
+
+        for (int id = 0; id < symbols.size(); id++) {
+            byte[] name = symbols.getName(id).getBytes(StandardCharsets.UTF_8);
+            writeVarint(data, symbols.getIndex(id) + 1);
+            writeVarint(data, name.length);
+            data.write(name);
+        }
+
+        code.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Écrit les octets d'une instruction
+     * @param code flux de destination
+     * @param instruction instruction à encoder
+     * @param target numéro du label visé, SymbolTable.UNDEFINED si ce n'est pas un saut
+     */
+    private void writeInstruction(OutputStream code, Instruction instruction, int target) {
+        Opcode op = instruction.getOpcode();
+        int[] operands = instruction.accept(operandsVisitor);
+        if (target != SymbolTable.UNDEFINED) {
+            operands[operands.length - 1] = target;
+        }
+
+        try {
+            code.write(op.ordinal());
+            for (int operand : operands) {
+                // Zigzag : les valeurs immédiates négatives restent courtes
+                writeVarint(code, operand << 1 ^ operand >> 31);
+            }
+        } catch (IOException e) {
+            // Écriture dans un ByteArrayOutputStream : n'échoue pas
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Écrit un entier non signé sur 1 à 5 octets, 7 bits par octet en commençant par les poids faibles ;
+     * le bit de poids fort d'un octet indique qu'un autre octet suit
+     * @param out flux de destination
+     * @param value entier (lu comme non signé)
+     * @throws IOException si l'écriture échoue
+     */
+    static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
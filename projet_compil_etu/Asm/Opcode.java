@@ -0,0 +1,120 @@
+package Asm;
+/**
+ * Liste à plat de toutes les opérations du langage assembleur.
+ * L'ordre des constantes est celui des enums Op de chaque classe d'instruction,
+ * ce qui permet de passer de l'un à l'autre par simple décalage d'ordinal.
+ */
+public enum Opcode {
+    ADD, SUB, MUL, DIV, MOD, XOR, AND, OR, SL, SR,
+    ADDi, SUBi, MULi, DIVi, MODi, XORi, ANDi, ORi, SLi, SRi,
+    LD, ST,
+    JINF, JEQU, JSUP, JNEQ, JIEQ, JSEQ,
+    JMP, CALL,
+    IN, OUT, READ, PRINT,
+    RET,
+    STOP;
+
+    /**
+     * Famille d'instruction, qui fixe le nombre et la nature des opérandes
+     */
+    public static enum Format {
+        UAL(3), UALI(3), MEM(2), COND_JUMP(3), JUMP_CALL(1), IO(1), NONE(0);
+
+        private final int nbOperands;
+
+        Format(int nbOperands) {
+            this.nbOperands = nbOperands;
+        }
+
+        /**
+         * Getter du nombre d'opérandes
+         * @return int nombre d'opérandes (registres, constante ou adresse de saut)
+         */
+        public int getNbOperands() {
+            return nbOperands;
+        }
+    }
+
+    private static final Opcode[] VALUES = values();
+
+    /**
+     * Getter de la famille de l'opération
+     * @return Format famille d'instruction
+     */
+    public Format getFormat() {
+        if (this.ordinal() <= SR.ordinal()) return Format.UAL;
+        if (this.ordinal() <= SRi.ordinal()) return Format.UALI;
+        if (this.ordinal() <= ST.ordinal()) return Format.MEM;
+        if (this.ordinal() <= JSEQ.ordinal()) return Format.COND_JUMP;
+        if (this.ordinal() <= CALL.ordinal()) return Format.JUMP_CALL;
+        if (this.ordinal() <= PRINT.ordinal()) return Format.IO;
+        return Format.NONE;
+    }
+
+    /**
+     * Opération correspondant à un ordinal
+     * @param ordinal ordinal de l'opération
+     * @return Opcode opération
+     * @throws IllegalArgumentException si l'ordinal ne correspond à aucune opération
+     */
+    public static Opcode fromOrdinal(int ordinal) throws IllegalArgumentException {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("Opération inconnue : " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Opération correspondant à une opération UAL
+     * @param op opération UAL
+     * @return Opcode opération
+     */
+    public static Opcode of(UAL.Op op) {
+        return VALUES[ADD.ordinal() + op.ordinal()];
+    }
+
+    /**
+     * Opération correspondant à une opération UAL immédiate
+     * @param op opération UAL immédiate
+     * @return Opcode opération
+     */
+    public static Opcode of(UALi.Op op) {
+        return VALUES[ADDi.ordinal() + op.ordinal()];
+    }
+
+    /**
+     * Opération correspondant à une opération mémoire
+     * @param op opération mémoire
+     * @return Opcode opération
+     */
+    public static Opcode of(Mem.Op op) {
+        return VALUES[LD.ordinal() + op.ordinal()];
+    }
+
+    /**
+     * Opération correspondant à un saut conditionnel
+     * @param op saut conditionnel
+     * @return Opcode opération
+     */
+    public static Opcode of(CondJump.Op op) {
+        return VALUES[JINF.ordinal() + op.ordinal()];
+    }
+
+    /**
+     * Opération correspondant à un saut simple ou un appel
+     * @param op saut ou appel
+     * @return Opcode opération
+     */
+    public static Opcode of(JumpCall.Op op) {
+        return VALUES[JMP.ordinal() + op.ordinal()];
+    }
+
+    /**
+     * Opération correspondant à une entrée-sortie
+     * @param op entrée-sortie
+     * @return Opcode opération
+     */
+    public static Opcode of(IO.Op op) {
+        return VALUES[IN.ordinal() + op.ordinal()];
+    }
+}
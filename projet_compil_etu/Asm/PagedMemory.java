@@ -0,0 +1,134 @@
+package Asm;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Mémoire de l'exécuteur, découpée en pages de PAGE_SIZE mots allouées au premier accès.
+ *
+ * Seules les pages touchées par le programme occupent de la mémoire : la création est immédiate
+ * quelle que soit la taille de l'espace d'adressage, qui peut dépasser les 65536 mots de simcode.py
+ * (grands tableaux sur le tas, zone de débordement des registres à partir de START_SPILL_ADDR...).
+ *
+ * Une page est remplie à sa création, soit avec des valeurs aléatoires entre 0 et 1000 comme simcode.py,
+ * soit avec une valeur constante. En mode aléatoire, le contenu d'une page ne dépend que de la graine
+ * et du numéro de la page, et pas de l'ordre dans lequel les pages sont touchées.
+ */
+public class PagedMemory {
+    public static final int PAGE_BITS = 12;
+    public static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Nombre maximal de pages (le répertoire des pages est un tableau)
+    public static final long MAX_SIZE = (long) (Integer.MAX_VALUE - 8) << PAGE_BITS;
+
+    private final long size;
+    private final boolean randomFill;
+    private final long fill;
+
+    // Répertoire des pages, agrandi jusqu'à la plus haute page touchée
+    private long[][] pages = new long[16][];
+    private int nbAllocatedPages = 0;
+
+    /**
+     * Constructeur d'une mémoire initialisée aléatoirement
+     * @param size nombre de mots adressables
+     * @param random générateur de la graine des pages
+     * @throws IllegalArgumentException si la taille est invalide
+     */
+    public PagedMemory(long size, Random random) throws IllegalArgumentException {
+        this(size, true, random.nextLong());
+    }
+
+    /**
+     * Constructeur d'une mémoire initialisée avec une valeur constante
+     * @param size nombre de mots adressables
+     * @param value valeur initiale de chaque mot
+     * @throws IllegalArgumentException si la taille est invalide
+     */
+    public PagedMemory(long size, long value) throws IllegalArgumentException {
+        this(size, false, value);
+    }
+
+    /**
+     * Constructeur
+     * @param size nombre de mots adressables
+     * @param randomFill true pour un remplissage aléatoire
+     * @param fill graine (remplissage aléatoire) ou valeur initiale
+     * @throws IllegalArgumentException si la taille est invalide
+     */
+    private PagedMemory(long size, boolean randomFill, long fill) throws IllegalArgumentException {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Taille mémoire invalide : " + size + " (maximum " + MAX_SIZE + ")");
+        }
+        this.size = size;
+        this.randomFill = randomFill;
+        this.fill = fill;
+    }
+
+    /**
+     * Getter du nombre de mots adressables
+     * @return long taille de l'espace d'adressage
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Getter du nombre de pages allouées
+     * @return int nombre de pages touchées par le programme
+     */
+    public int getNbAllocatedPages() {
+        return nbAllocatedPages;
+    }
+
+    /**
+     * Lit un mot (l'adresse doit être dans [0, size()[)
+     * @param address adresse
+     * @return long valeur du mot
+     */
+    public long load(long address) {
+        int index = (int) (address >>> PAGE_BITS);
+        long[] page = index < pages.length ? pages[index] : null;
+        if (page == null) {
+            page = allocate(index);
+        }
+        return page[(int) address & PAGE_MASK];
+    }
+
+    /**
+     * Écrit un mot (l'adresse doit être dans [0, size()[)
+     * @param address adresse
+     * @param value valeur écrite
+     */
+    public void store(long address, long value) {
+        int index = (int) (address >>> PAGE_BITS);
+        long[] page = index < pages.length ? pages[index] : null;
+        if (page == null) {
+            page = allocate(index);
+        }
+        page[(int) address & PAGE_MASK] = value;
+    }
+
+    /**
+     * Alloue et remplit une page au premier accès
+     * @param index numéro de la page
+     * @return long[] page allouée
+     */
+    private long[] allocate(int index) {
+        if (index >= pages.length) {
+            pages = Arrays.copyOf(pages, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * pages.length, index + 1L)));
+        }
+        long[] page = new long[PAGE_SIZE];
+        if (randomFill) {
+            SplittableRandom random = new SplittableRandom(fill ^ (index * 0x9E3779B97F4A7C15L));
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                page[i] = random.nextInt(1001);
+            }
+        } else if (fill != 0) {
+            Arrays.fill(page, fill);
+        }
+        pages[index] = page;
+        nbAllocatedPages++;
+        return page;
+    }
+}
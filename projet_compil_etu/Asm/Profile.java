@@ -0,0 +1,353 @@
+package Asm;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Profil d'une exécution : nombre d'exécutions de chaque instruction, regroupé par ligne du code source
+ * et par fonction pour trouver où le programme passe ses cycles.
+ *
+ * Une instruction exécutée compte pour un cycle (STOP n'en compte pas, comme dans simcode.py).
+ * Les instructions de débordement (accès au Spill et cadre de pile, voir Instruction.isSpill) sont comptées
+ * avec la ligne et la fonction qu'elles servent, et aussi à part.
+ * Une fonction est la suite d'instructions qui commence à un label visé par un CALL (ou au label main)
+ * et va jusqu'au début de la fonction suivante ; le code placé avant main est l'initialisation.
+ *
+ * Les piles d'appels suivies par l'exécuteur (CallTree) donnent les cycles inclusifs de chaque fonction
+ * (avec ses appels, une seule fois par pile pour une fonction récursive) et la sortie en piles repliées
+ * (« collapsed stacks ») lue par les outils de flame graph (flamegraph.pl, speedscope...).
+ * Le coût du protocole d'appel (voir Instruction.isCallOverhead) est compté à part.
+ */
+public class Profile {
+    private static final String INITIALISATION = "(initialisation)";
+
+    private final ProgramBuffer program;
+    private final long[] counts;
+    private final CallTree calls;
+
+    // Fonction de chaque instruction (index dans functionNames)
+    private final int[] function;
+    private final List<String> functionNames = new ArrayList<>();
+    private final List<Integer> functionStarts = new ArrayList<>();
+
+    /**
+     * Constructeur
+     * @param program programme exécuté
+     * @param counts nombre d'exécutions de chaque instruction
+     * @param calls contextes d'appel de l'exécution
+     */
+    Profile(ProgramBuffer program, long[] counts, CallTree calls) {
+        this.program = program;
+        this.counts = counts;
+        this.calls = calls;
+        this.function = new int[program.size()];
+
+        boolean[] entries = new boolean[program.getNbLabels()];
+        for (int i = 0; i < program.size(); i++) {
+            if (program.getOpcode(i) == Opcode.CALL) {
+                entries[program.getImm(i)] = true;
+            }
+        }
+
+        int current = -1;
+        for (int i = 0; i < program.size(); i++) {
+            int label = program.getLabel(i);
+            boolean entry = label != ProgramBuffer.NONE && (entries[label] || program.getLabelName(label).equals("main"));
+            if (entry || current == -1) {
+                functionNames.add(entry ? program.getLabelName(label) : INITIALISATION);
+                functionStarts.add(i);
+                current = functionNames.size() - 1;
+            }
+            function[i] = current;
+        }
+    }
+
+    /**
+     * Getter du nombre de cycles passés sur une instruction
+     * @param i index de l'instruction
+     * @return long nombre de cycles
+     */
+    public long getCycles(int i) {
+        return program.getOpcode(i) == Opcode.STOP ? 0 : counts[i];
+    }
+
+    /**
+     * Getter du nombre total de cycles
+     * @return long nombre de cycles
+     */
+    public long getTotalCycles() {
+        long total = 0;
+        for (int i = 0; i < program.size(); i++) {
+            total += getCycles(i);
+        }
+        return total;
+    }
+
+    /**
+     * Getter du nombre de cycles passés sur les instructions de débordement
+     * @return long nombre de cycles
+     */
+    public long getSpillCycles() {
+        long total = 0;
+        for (int i = 0; i < program.size(); i++) {
+            if (program.isSpill(i)) {
+                total += getCycles(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Getter du nombre de cycles passés sur le protocole d'appel
+     * @return long nombre de cycles
+     */
+    public long getCallOverheadCycles() {
+        long total = 0;
+        for (int i = 0; i < program.size(); i++) {
+            if (program.isCallOverhead(i)) {
+                total += getCycles(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Getter du nom de la fonction contenant une instruction
+     * @param i index de l'instruction
+     * @return String nom de la fonction
+     */
+    public String getFunction(int i) {
+        return functionNames.get(function[i]);
+    }
+
+    /**
+     * Écrit le rapport : cycles par fonction puis par ligne du code source, les plus coûteuses en premier
+     * @param out destination du rapport
+     * @param source texte du programme TCL (pour afficher les lignes), null s'il n'est pas connu
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeReport(Appendable out, String source) throws IOException {
+        long total = getTotalCycles();
+        out.append(String.format(Locale.ROOT, "=== PROFIL : %d cycles, dont %d de débordement (%s) et %d de protocole d'appel (%s) ===%n%n",
+                total, getSpillCycles(), percent(getSpillCycles(), total), getCallOverheadCycles(), percent(getCallOverheadCycles(), total)));
+
+        // Par fonction
+        int nbFunctions = functionNames.size();
+        long[] exclusive = new long[nbFunctions];
+        long[] inclusive = new long[nbFunctions];
+        computeFunctionCycles(exclusive, inclusive);
+
+        long[] callOverhead = new long[nbFunctions];
+        long[] functionSpill = new long[nbFunctions];
+        long[] nbCalls = new long[nbFunctions];
+        int[] functionOfLabel = new int[program.getNbLabels()];
+        Arrays.fill(functionOfLabel, -1);
+        for (int f = 0; f < nbFunctions; f++) {
+            int label = program.getLabel(functionStarts.get(f));
+            if (label != ProgramBuffer.NONE) {
+                functionOfLabel[label] = f;
+            }
+        }
+        for (int i = 0; i < program.size(); i++) {
+            if (program.isCallOverhead(i)) {
+                callOverhead[function[i]] += getCycles(i);
+            }
+            if (program.isSpill(i)) {
+                functionSpill[function[i]] += getCycles(i);
+            }
+            if (program.getOpcode(i) == Opcode.CALL && functionOfLabel[program.getImm(i)] != -1) {
+                nbCalls[functionOfLabel[program.getImm(i)]] += counts[i];
+            }
+        }
+        for (int f = 0; f < nbFunctions; f++) {
+            // Fonctions qui ne sont pas appelées (initialisation) : nombre de passages au début
+            if (nbCalls[f] == 0) {
+                nbCalls[f] = counts[functionStarts.get(f)];
+            }
+        }
+
+        out.append(String.format(Locale.ROOT, "%12s %8s %12s %12s %12s %8s  %s%n",
+                "inclusifs", "%", "exclusifs", "appel", "débordement", "appels", "fonction"));
+        for (int f : sortByCycles(inclusive)) {
+            out.append(String.format(Locale.ROOT, "%12d %8s %12d %12d %12d %8d  %s%n", inclusive[f], percent(inclusive[f], total),
+                    exclusive[f], callOverhead[f], functionSpill[f], nbCalls[f], functionNames.get(f)));
+        }
+        out.append(System.lineSeparator());
+
+        // Par ligne (la ligne 0 regroupe les instructions sans ligne)
+        int maxLine = 0;
+        for (int i = 0; i < program.size(); i++) {
+            maxLine = Math.max(maxLine, program.getLine(i));
+        }
+        long[] lineCycles = new long[maxLine + 1];
+        long[] lineSpill = new long[maxLine + 1];
+        long[] lineCallOverhead = new long[maxLine + 1];
+        for (int i = 0; i < program.size(); i++) {
+            lineCycles[program.getLine(i)] += getCycles(i);
+            if (program.isCallOverhead(i)) {
+                lineCallOverhead[program.getLine(i)] += getCycles(i);
+            }
+            if (program.isSpill(i)) {
+                lineSpill[program.getLine(i)] += getCycles(i);
+            }
+        }
+        String[] lines = source == null ? new String[0] : source.split("\n", -1);
+
+        out.append(String.format(Locale.ROOT, "%6s %12s %8s %12s %12s  %s%n", "ligne", "cycles", "%", "appel", "débordement", "source"));
+        for (int line : sortByCycles(lineCycles)) {
+            String text = line == 0 ? "(sans ligne)" : line <= lines.length ? lines[line - 1].strip() : "";
+            out.append(String.format(Locale.ROOT, "%6s %12d %8s %12d %12d  %s%n", line == 0 ? "-" : Integer.toString(line),
+                    lineCycles[line], percent(lineCycles[line], total), lineCallOverhead[line], lineSpill[line], text));
+        }
+    }
+
+    /**
+     * Écrit les piles repliées : une ligne « fonction;fonction;... cycles » par pile d'appels ayant des cycles
+     * exclusifs, la fonction appelée en dernier à droite
+     * @param out destination
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeCollapsedStacks(Appendable out) throws IOException {
+        // Parcours en profondeur avec le texte de la pile courante
+        StringBuilder stack = new StringBuilder();
+        int[] length = new int[calls.size()];
+        int node = CallTree.ROOT;
+        while (true) {
+            length[node] = stack.length();
+            if (node != CallTree.ROOT) {
+                stack.append(';');
+            }
+            stack.append(functionNames.get(function[calls.getEntry(node)]));
+            if (calls.getCycles(node) > 0) {
+                out.append(stack).append(' ').append(Long.toString(calls.getCycles(node))).append(System.lineSeparator());
+            }
+
+            int child = calls.getFirstChild(node);
+            if (child != -1) {
+                node = child;
+                continue;
+            }
+            while (true) {
+                stack.setLength(length[node]);
+                if (node == CallTree.ROOT) {
+                    return;
+                }
+                int sibling = calls.getNextSibling(node);
+                if (sibling != -1) {
+                    node = sibling;
+                    break;
+                }
+                node = calls.getParent(node);
+            }
+        }
+    }
+
+    /**
+     * Écrit le nombre d'exécutions de chaque bloc de base exécuté : une ligne « index nbExécutions », l'index étant
+     * celui de la première instruction du bloc. Un bloc commence au début du programme, après un saut ou un appel,
+     * ou sur une instruction étiquetée (même découpage que CodeOptimizer, qui relit ce fichier avec loadProfile)
+     * @param out destination
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeBlockCounts(Appendable out) throws IOException {
+        out.append("# index nbExécutions").append(System.lineSeparator());
+        for (int i = 0; i < program.size(); i++) {
+            boolean leader = i == 0 || program.getLabel(i) != ProgramBuffer.NONE;
+            if (!leader) {
+                Opcode.Format previous = program.getOpcode(i - 1).getFormat();
+                leader = previous == Opcode.Format.JUMP_CALL || previous == Opcode.Format.COND_JUMP;
+            }
+            if (leader && counts[i] > 0) {
+                out.append(Integer.toString(i)).append(' ').append(Long.toString(counts[i])).append(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Calcule les cycles exclusifs et inclusifs de chaque fonction à partir des contextes d'appel.
+     * Parcours en profondeur de l'arbre : une fonction reçoit les cycles du sous-arbre d'un contexte
+     * seulement si elle n'est pas déjà active plus haut dans la pile (récursion comptée une fois).
+     * @param exclusive cycles passés dans chaque fonction même (rempli)
+     * @param inclusive cycles passés dans chaque fonction et ses appels (rempli)
+     */
+    private void computeFunctionCycles(long[] exclusive, long[] inclusive) {
+        // Cycles de chaque sous-arbre : les enfants ont des numéros plus grands que leur parent
+        long[] subtree = new long[calls.size()];
+        for (int node = calls.size() - 1; node >= 0; node--) {
+            subtree[node] += calls.getCycles(node);
+            if (node != CallTree.ROOT) {
+                subtree[calls.getParent(node)] += subtree[node];
+            }
+        }
+
+        int[] active = new int[functionNames.size()];
+        int node = CallTree.ROOT;
+        enterNode(node, active, subtree, exclusive, inclusive);
+        while (true) {
+            int child = calls.getFirstChild(node);
+            if (child != -1) {
+                node = child;
+                enterNode(node, active, subtree, exclusive, inclusive);
+                continue;
+            }
+            // Plus d'enfant : on remonte jusqu'à un contexte qui a un frère
+            while (true) {
+                active[function[calls.getEntry(node)]]--;
+                if (node == CallTree.ROOT) {
+                    return;
+                }
+                int sibling = calls.getNextSibling(node);
+                if (sibling != -1) {
+                    node = sibling;
+                    enterNode(node, active, subtree, exclusive, inclusive);
+                    break;
+                }
+                node = calls.getParent(node);
+            }
+        }
+    }
+
+    /**
+     * Entrée dans un contexte pendant le parcours de computeFunctionCycles
+     * @param node contexte
+     * @param active nombre d'occurrences de chaque fonction dans la pile courante
+     * @param subtree cycles de chaque sous-arbre
+     * @param exclusive cycles exclusifs de chaque fonction
+     * @param inclusive cycles inclusifs de chaque fonction
+     */
+    private void enterNode(int node, int[] active, long[] subtree, long[] exclusive, long[] inclusive) {
+        int f = function[calls.getEntry(node)];
+        exclusive[f] += calls.getCycles(node);
+        if (active[f]++ == 0) {
+            inclusive[f] += subtree[node];
+        }
+    }
+
+    /**
+     * Indices des valeurs non nulles, par valeur décroissante (à valeur égale, par indice croissant)
+     * @param values valeurs
+     * @return List<Integer> indices triés
+     */
+    private static List<Integer> sortByCycles(long[] values) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > 0) {
+                indices.add(i);
+            }
+        }
+        indices.sort((a, b) -> values[a] != values[b] ? Long.compare(values[b], values[a]) : Integer.compare(a, b));
+        return indices;
+    }
+
+    /**
+     * Pourcentage formaté
+     * @param part partie
+     * @param total total
+     * @return String pourcentage avec une décimale
+     */
+    private static String percent(long part, long total) {
+        return String.format(Locale.ROOT, "%.1f %%", total == 0 ? 0.0 : 100.0 * part / total);
+    }
+}
@@ -1,48 +1,274 @@
 package Asm;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 /**
  * Ceci est une classe permettant de représenter un programme.
+ *
+ * Le programme tient à jour sa table des labels (SymbolTable) au fil des ajouts :
+ * pour chaque instruction, on retient le numéro de son label et celui du label visé s'il s'agit d'un saut.
+ * Les labels des instructions déjà ajoutées doivent donc être modifiés avec setLabel(index, label).
+ *
+ * addInstructions ne recopie pas le programme ajouté : il est gardé comme segment en attente,
+ * et l'ensemble n'est mis à plat (avec sa table des labels) qu'une seule fois, au premier accès aux instructions.
+ * Un programme ajouté avec addInstructions ne doit donc plus être modifié ensuite.
+ *
+ * Un programme peut porter une ligne du code source (setSourceLine) : à la mise à plat, chaque instruction
+ * sans ligne reçoit celle du segment le plus imbriqué qui en a une.
  */
 public class Program {
     private ArrayList<Instruction> instructions;
-  
-    /** 
+    private SymbolTable symbols;
+    private int[] labelIds;
+    private int[] targetIds;
+
+    // Segments ajoutés après instructions et pas encore mis à plat (null s'il n'y en a pas)
+    private ArrayList<Program> pending;
+    // Dernier segment en attente s'il appartient à this : les instructions ajoutées une à une y sont placées
+    private Program tail;
+    private int size;
+    // Ligne du code source du programme (0 : inconnue)
+    private int sourceLine = 0;
+
+    /**
      * Getter de la liste d'instructions
      * @return ArrayList<Instruction> contenant les instructions du programme
      */
     public ArrayList<Instruction> getInstructions() {
+        flatten();
         return instructions;
     }
-  
-    
-    /** 
+
+
+    /**
+     * Getter du nombre d'instructions
+     * @return int nombre d'instructions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter de la table des labels
+     * @return SymbolTable table des labels du programme
+     */
+    public SymbolTable getSymbols() {
+        flatten();
+        return symbols;
+    }
+
+    /**
+     * Getter du numéro du label d'une instruction
+     * @param index index de l'instruction
+     * @return int numéro du label, SymbolTable.UNDEFINED si l'instruction n'a pas de label
+     */
+    public int getLabelId(int index) {
+        flatten();
+        return labelIds[index];
+    }
+
+    /**
+     * Getter du numéro du label visé par une instruction
+     * @param index index de l'instruction
+     * @return int numéro du label, SymbolTable.UNDEFINED si ce n'est pas un saut
+     */
+    public int getTargetId(int index) {
+        flatten();
+        return targetIds[index];
+    }
+
+    /**
+     * Change le label d'une instruction du programme en gardant la table des labels à jour
+     * (une instruction d'un segment en attente est modifiée dans son segment, sans mise à plat)
+     * @param index index de l'instruction
+     * @param label nouveau label ("" pour l'enlever)
+     */
+    public void setLabel(int index, String label) {
+        if (index >= instructions.size() && pending != null) {
+            int offset = instructions.size();
+            for (Program part : pending) {
+                if (index < offset + part.size()) {
+                    part.setLabel(index - offset, label);
+                    return;
+                }
+                offset += part.size();
+            }
+        }
+
+        int oldId = labelIds[index];
+        if (oldId != SymbolTable.UNDEFINED && symbols.getIndex(oldId) == index) {
+            symbols.define(oldId, SymbolTable.UNDEFINED);
+        }
+        instructions.get(index).setLabel(label);
+        labelIds[index] = SymbolTable.UNDEFINED;
+        if (label != null && !label.isEmpty()) {
+            labelIds[index] = symbols.intern(label);
+            symbols.define(labelIds[index], index);
+        }
+    }
+
+    /**
+     * Attribue une ligne du code source au programme, si elle n'en a pas déjà une ;
+     * ses instructions et ses segments sans ligne la reçoivent
+     * @param line numéro de ligne
+     */
+    public void setSourceLine(int line) {
+        if (sourceLine != 0) {
+            return;
+        }
+        sourceLine = line;
+        for (Instruction instruction : instructions) {
+            if (instruction.getLine() == 0) {
+                instruction.setLine(line);
+            }
+        }
+    }
+
+    /**
      * Ajoute instruction à la fin de this.
      * @param instruction Instruction à ajouter
      */
     public void addInstruction(Instruction instruction) {
-        this.instructions.add(instruction);
+        if (pending != null) {
+            if (tail == null) {
+                tail = new Program();
+                pending.add(tail);
+            }
+            tail.addInstruction(instruction);
+        } else {
+            append(instruction);
+        }
+        size++;
     }
 
-    
-    /** 
-     * Ajoute toutes les instructions de program à la fin de this.
+
+    /**
+     * Ajoute toutes les instructions de program à la fin de this, sans les recopier.
      * @param program Programme contenant les instructions à ajouter
      */
     public void addInstructions(Program program) {
-        this.instructions.addAll(program.getInstructions());
+        if (program.size() == 0) {
+            return;
+        }
+        if (pending == null) {
+            pending = new ArrayList<Program>();
+        }
+        pending.add(program);
+        tail = null;
+        size += program.size();
+    }
+
+    /**
+     * Ajoute une instruction à la partie à plat du programme et met à jour la table des labels
+     * @param instruction Instruction à ajouter
+     */
+    private void append(Instruction instruction) {
+        int index = instructions.size();
+        ensureCapacity(index + 1);
+        this.instructions.add(instruction);
+
+        String label = instruction.getLabel();
+        labelIds[index] = SymbolTable.UNDEFINED;
+        if (label != null && !label.isEmpty()) {
+            labelIds[index] = symbols.intern(label);
+            symbols.define(labelIds[index], index);
+        }
+
+        String target = getTarget(instruction);
+        targetIds[index] = target == null ? SymbolTable.UNDEFINED : symbols.intern(target);
+    }
+
+    /**
+     * Met à plat les segments en attente, dans l'ordre, en un seul parcours
+     * (pile explicite : la profondeur d'imbrication des segments n'est pas limitée par la pile d'appels)
+     */
+    private void flatten() {
+        if (pending == null) {
+            return;
+        }
+        ArrayList<Program> parts = pending;
+        pending = null;
+        tail = null;
+        instructions.ensureCapacity(size);
+        ensureCapacity(size);
+
+        // Chaque niveau de la pile garde la ligne héritée de ses segments englobants
+        ArrayDeque<Iterator<Program>> stack = new ArrayDeque<>();
+        ArrayDeque<Integer> lines = new ArrayDeque<>();
+        stack.push(parts.iterator());
+        lines.push(sourceLine);
+        while (!stack.isEmpty()) {
+            Iterator<Program> iterator = stack.peek();
+            if (!iterator.hasNext()) {
+                stack.pop();
+                lines.pop();
+                continue;
+            }
+            Program part = iterator.next();
+            int line = part.sourceLine != 0 ? part.sourceLine : lines.peek();
+            for (Instruction instruction : part.instructions) {
+                if (instruction.getLine() == 0) {
+                    instruction.setLine(line);
+                }
+                append(instruction);
+            }
+            if (part.pending != null) {
+                stack.push(part.pending.iterator());
+                lines.push(line);
+            }
+        }
+    }
+
+    /**
+     * Agrandit les tableaux de numéros de labels si nécessaire
+     * @param capacity nombre d'instructions à pouvoir contenir
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > labelIds.length) {
+            int newCapacity = Math.max(capacity, labelIds.length * 2);
+            labelIds = Arrays.copyOf(labelIds, newCapacity);
+            targetIds = Arrays.copyOf(targetIds, newCapacity);
+        }
     }
 
-    
-    /** 
+    /**
+     * Adresse de saut d'une instruction
+     * @param instruction instruction
+     * @return String label visé, null si ce n'est pas un saut
+     */
+    static String getTarget(Instruction instruction) {
+        switch (instruction.getOpcode().getFormat()) {
+            case COND_JUMP: return ((CondJump) instruction).getAddress();
+            case JUMP_CALL: return ((JumpCall) instruction).getAddress();
+            default: return null;
+        }
+    }
+
+
+    /**
      * Convertit le programme en String pour l'affichage
      * @return String contenant les instructions du programme
      */
     public String toString() {
-        String result = "";
-        for (Instruction instr : instructions) {
-            result += instr.toString();
+        StringBuilder result = new StringBuilder();
+        for (Instruction instr : getInstructions()) {
+            result.append(instr.toString());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Écrit le programme instruction par instruction dans out, sans construire
+     * le texte complet en mémoire (prévoir un flux bufferisé pour les fichiers)
+     * @param out destination du texte (Writer, StringBuilder, PrintStream...)
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeTo(Appendable out) throws IOException {
+        for (Instruction instr : getInstructions()) {
+            out.append(instr.toString());
         }
-        return result;
     }
 
     /**
@@ -50,5 +276,8 @@ public class Program {
      */
     public Program() {
         this.instructions = new ArrayList<Instruction>();
-    }   
+        this.symbols = new SymbolTable();
+        this.labelIds = new int[8];
+        this.targetIds = new int[8];
+    }
 }
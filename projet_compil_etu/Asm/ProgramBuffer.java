@@ -0,0 +1,412 @@
+package Asm;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Représentation compacte d'un programme : une instruction est une ligne de tableaux
+ * parallèles d'entiers (opcode, dest, src1, src2, imm, label) au lieu d'un objet par instruction.
+ *
+ * Rôle des colonnes selon l'opération (NONE si la colonne n'est pas utilisée) :
+ * <pre>
+ *   UAL        dest = dest, src1 = sr1, src2 = sr2
+ *   UALi       dest = dest, src1 = sr,  imm = constante
+ *   LD         dest = dest, src1 = registre d'adresse
+ *   ST         src1 = registre stocké, src2 = registre d'adresse
+ *   CondJump   src1 = sr1, src2 = sr2, imm = numéro du label visé
+ *   JMP, CALL  imm = numéro du label visé
+ *   IN, READ   dest = registre lu
+ *   OUT, PRINT src1 = registre écrit
+ * </pre>
+ * Les numéros de label sont internés dans une table partagée entre les tampons créés par emptyCopy().
+ * Chaque instruction garde aussi sa ligne dans le code source (0 si inconnue), et si elle vient du débordement
+ * des registres ou du protocole d'appel (voir Instruction.getLine, isSpill et isCallOverhead).
+ */
+public class ProgramBuffer {
+    public static final int NONE = -1;
+
+    // Bits de la colonne flags
+    private static final byte SPILL = 1;
+    private static final byte CALL_OVERHEAD = 2;
+
+    private static final Opcode[] OPCODES = Opcode.values();
+    private static final UAL.Op[] UAL_OPS = UAL.Op.values();
+    private static final UALi.Op[] UALI_OPS = UALi.Op.values();
+    private static final CondJump.Op[] COND_JUMP_OPS = CondJump.Op.values();
+    private static final JumpCall.Op[] JUMP_CALL_OPS = JumpCall.Op.values();
+    private static final IO.Op[] IO_OPS = IO.Op.values();
+
+    private int size;
+    private byte[] opcode;
+    private int[] dest;
+    private int[] src1;
+    private int[] src2;
+    private int[] imm;
+    private int[] label;
+    private int[] line;
+    private byte[] flags;
+
+    private final SymbolTable labels;
+
+    /**
+     * Constructeur
+     */
+    public ProgramBuffer() {
+        this(16);
+    }
+
+    /**
+     * Constructeur avec capacité initiale
+     * @param capacity nombre d'instructions prévu
+     */
+    public ProgramBuffer(int capacity) {
+        this(capacity, new SymbolTable());
+    }
+
+    private ProgramBuffer(int capacity, SymbolTable labels) {
+        capacity = Math.max(1, capacity);
+        this.opcode = new byte[capacity];
+        this.dest = new int[capacity];
+        this.src1 = new int[capacity];
+        this.src2 = new int[capacity];
+        this.imm = new int[capacity];
+        this.label = new int[capacity];
+        this.line = new int[capacity];
+        this.flags = new byte[capacity];
+        this.labels = labels;
+    }
+
+    /**
+     * Crée un tampon vide partageant la table des labels de this
+     * (les numéros de label restent valides d'un tampon à l'autre)
+     * @param capacity nombre d'instructions prévu
+     * @return ProgramBuffer tampon vide
+     */
+    public ProgramBuffer emptyCopy(int capacity) {
+        return new ProgramBuffer(capacity, labels);
+    }
+
+    /**
+     * Getter du nombre d'instructions
+     * @return int nombre d'instructions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ajoute une instruction sans label à la fin du tampon
+     * @param op opération
+     * @param dest registre écrit (ou NONE)
+     * @param src1 premier registre lu (ou NONE)
+     * @param src2 second registre lu (ou NONE)
+     * @param imm constante ou numéro du label visé (ou NONE)
+     * @return int index de l'instruction ajoutée
+     */
+    public int add(Opcode op, int dest, int src1, int src2, int imm) {
+        if (size == opcode.length) {
+            grow();
+        }
+        this.opcode[size] = (byte) op.ordinal();
+        this.dest[size] = dest;
+        this.src1[size] = src1;
+        this.src2[size] = src2;
+        this.imm[size] = imm;
+        this.label[size] = NONE;
+        this.line[size] = 0;
+        this.flags[size] = 0;
+        return size++;
+    }
+
+    /**
+     * Recopie à la fin du tampon une instruction d'un tampon partageant la même table de labels
+     * @param other tampon source
+     * @param i index de l'instruction dans other
+     * @return int index de l'instruction ajoutée
+     */
+    public int addCopy(ProgramBuffer other, int i) {
+        int index = add(other.getOpcode(i), other.dest[i], other.src1[i], other.src2[i], other.imm[i]);
+        this.label[index] = other.label[i];
+        this.line[index] = other.line[i];
+        this.flags[index] = other.flags[i];
+        return index;
+    }
+
+    private void grow() {
+        int capacity = opcode.length * 2;
+        opcode = Arrays.copyOf(opcode, capacity);
+        dest = Arrays.copyOf(dest, capacity);
+        src1 = Arrays.copyOf(src1, capacity);
+        src2 = Arrays.copyOf(src2, capacity);
+        imm = Arrays.copyOf(imm, capacity);
+        label = Arrays.copyOf(label, capacity);
+        line = Arrays.copyOf(line, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    /**
+     * Getter de l'opération d'une instruction
+     * @param i index de l'instruction
+     * @return Opcode opération
+     */
+    public Opcode getOpcode(int i) {
+        return OPCODES[opcode[i]];
+    }
+
+    /**
+     * Getter du registre écrit par une instruction
+     * @param i index de l'instruction
+     * @return int numéro de registre, NONE s'il n'y en a pas
+     */
+    public int getDest(int i) {
+        return dest[i];
+    }
+
+    /**
+     * Getter du premier registre lu par une instruction
+     * @param i index de l'instruction
+     * @return int numéro de registre, NONE s'il n'y en a pas
+     */
+    public int getSrc1(int i) {
+        return src1[i];
+    }
+
+    /**
+     * Getter du second registre lu par une instruction
+     * @param i index de l'instruction
+     * @return int numéro de registre, NONE s'il n'y en a pas
+     */
+    public int getSrc2(int i) {
+        return src2[i];
+    }
+
+    /**
+     * Getter de la constante ou du label visé par une instruction
+     * @param i index de l'instruction
+     * @return int constante ou numéro de label, NONE s'il n'y en a pas
+     */
+    public int getImm(int i) {
+        return imm[i];
+    }
+
+    /**
+     * Getter du label d'une instruction
+     * @param i index de l'instruction
+     * @return int numéro du label, NONE si l'instruction n'a pas de label
+     */
+    public int getLabel(int i) {
+        return label[i];
+    }
+
+    /**
+     * Setter du label d'une instruction
+     * @param i index de l'instruction
+     * @param labelId numéro du label, NONE pour l'enlever
+     */
+    public void setLabel(int i, int labelId) {
+        label[i] = labelId;
+    }
+
+    /**
+     * Getter de la ligne du code source d'une instruction
+     * @param i index de l'instruction
+     * @return int numéro de ligne, 0 si inconnue
+     */
+    public int getLine(int i) {
+        return line[i];
+    }
+
+    /**
+     * Setter de la ligne du code source d'une instruction
+     * @param i index de l'instruction
+     * @param line numéro de ligne, 0 si inconnue
+     */
+    public void setLine(int i, int line) {
+        this.line[i] = line;
+    }
+
+    /**
+     * Indique si une instruction vient du débordement des registres
+     * @param i index de l'instruction
+     * @return boolean true pour une instruction de débordement
+     */
+    public boolean isSpill(int i) {
+        return (flags[i] & SPILL) != 0;
+    }
+
+    /**
+     * Setter de l'indicateur de débordement d'une instruction
+     * @param i index de l'instruction
+     * @param spill true pour une instruction de débordement
+     */
+    public void setSpill(int i, boolean spill) {
+        setFlag(i, SPILL, spill);
+    }
+
+    /**
+     * Indique si une instruction fait partie du protocole d'appel de fonction
+     * @param i index de l'instruction
+     * @return boolean true pour une instruction du protocole d'appel
+     */
+    public boolean isCallOverhead(int i) {
+        return (flags[i] & CALL_OVERHEAD) != 0;
+    }
+
+    /**
+     * Setter de l'indicateur de protocole d'appel d'une instruction
+     * @param i index de l'instruction
+     * @param callOverhead true pour une instruction du protocole d'appel
+     */
+    public void setCallOverhead(int i, boolean callOverhead) {
+        setFlag(i, CALL_OVERHEAD, callOverhead);
+    }
+
+    private void setFlag(int i, byte flag, boolean value) {
+        flags[i] = (byte) (value ? flags[i] | flag : flags[i] & ~flag);
+    }
+
+    /**
+     * Numéro d'un label, créé s'il n'existe pas encore
+     * @param name nom du label
+     * @return int numéro du label
+     */
+    public int labelId(String name) {
+        return labels.intern(name);
+    }
+
+    /**
+     * Getter du nom d'un label
+     * @param id numéro du label
+     * @return String nom du label
+     */
+    public String getLabelName(int id) {
+        return labels.getName(id);
+    }
+
+    /**
+     * Getter du nombre de labels de la table
+     * @return int nombre de labels
+     */
+    public int getNbLabels() {
+        return labels.size();
+    }
+
+    /**
+     * Conversion depuis un programme
+     * @param program programme à convertir
+     * @return ProgramBuffer tampon contenant les mêmes instructions
+     */
+    public static ProgramBuffer from(Program program) {
+        ArrayList<Instruction> instructions = program.getInstructions();
+        ProgramBuffer buffer = new ProgramBuffer(instructions.size());
+        InstructionVisitor<Integer> appender = buffer.new Appender();
+
+        // Les numéros de label du tampon sont ceux de la table des labels du programme
+        SymbolTable symbols = program.getSymbols();
+        for (int id = 0; id < symbols.size(); id++) {
+            buffer.labelId(symbols.getName(id));
+        }
+
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction instruction = instructions.get(i);
+            instruction.accept(appender);
+            buffer.label[i] = program.getLabelId(i);
+            buffer.line[i] = instruction.getLine();
+            buffer.setSpill(i, instruction.isSpill());
+            buffer.setCallOverhead(i, instruction.isCallOverhead());
+            if (program.getTargetId(i) != SymbolTable.UNDEFINED) {
+                buffer.imm[i] = program.getTargetId(i);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Conversion vers un programme
+     * @return Program programme contenant les mêmes instructions
+     */
+    public Program toProgram() {
+        Program program = new Program();
+        for (int i = 0; i < size; i++) {
+            program.addInstruction(toInstruction(i));
+        }
+        return program;
+    }
+
+    /**
+     * Construit l'objet Instruction d'une ligne du tampon
+     * @param i index de l'instruction
+     * @return Instruction instruction correspondante
+     */
+    public Instruction toInstruction(int i) {
+        Instruction instruction = createInstruction(i);
+        instruction.setLine(line[i]);
+        instruction.setSpill(isSpill(i));
+        instruction.setCallOverhead(isCallOverhead(i));
+        return instruction;
+    }
+
+    /**
+     * Construit l'instruction d'une ligne du tampon, sans sa ligne de code source
+     * @param i index de l'instruction
+     * @return Instruction instruction correspondante
+     */
+    private Instruction createInstruction(int i) {
+        Opcode op = getOpcode(i);
+        String name = label[i] == NONE ? "" : labels.getName(label[i]);
+        int ordinal = op.ordinal();
+
+        switch (op.getFormat()) {
+            case UAL:
+                return new UAL(name, UAL_OPS[ordinal - Opcode.ADD.ordinal()], dest[i], src1[i], src2[i]);
+            case UALI:
+                return new UALi(name, UALI_OPS[ordinal - Opcode.ADDi.ordinal()], dest[i], src1[i], imm[i]);
+            case MEM:
+                return op == Opcode.LD
+                        ? new Mem(name, Mem.Op.LD, dest[i], src1[i])
+                        : new Mem(name, Mem.Op.ST, src1[i], src2[i]);
+            case COND_JUMP:
+                return new CondJump(name, COND_JUMP_OPS[ordinal - Opcode.JINF.ordinal()], src1[i], src2[i], labels.getName(imm[i]));
+            case JUMP_CALL:
+                return new JumpCall(name, JUMP_CALL_OPS[ordinal - Opcode.JMP.ordinal()], labels.getName(imm[i]));
+            case IO:
+                int reg = (op == Opcode.IN || op == Opcode.READ) ? dest[i] : src1[i];
+                return new IO(name, IO_OPS[ordinal - Opcode.IN.ordinal()], reg);
+            default:
+                return op == Opcode.RET ? new Ret(name) : new Stop(name);
+        }
+    }
+
+    // Ajoute une instruction objet à la fin du tampon, renvoie son index (le label visé par un saut est renseigné par from())
+    private class Appender implements InstructionVisitor<Integer> {
+        public Integer visitUAL(UAL ual) {
+            return add(ual.getOpcode(), ual.getDest(), ual.getSr1(), ual.getSr2(), NONE);
+        }
+        public Integer visitUALi(UALi uali) {
+            return add(uali.getOpcode(), uali.getDest(), uali.getSr(), NONE, uali.getImm());
+        }
+        public Integer visitMem(Mem mem) {
+            if (mem.getOp() == Mem.Op.LD) {
+                return add(Opcode.LD, mem.getDest(), mem.getAddress(), NONE, NONE);
+            }
+            return add(Opcode.ST, NONE, mem.getDest(), mem.getAddress(), NONE);
+        }
+        public Integer visitCondJump(CondJump condJump) {
+            return add(condJump.getOpcode(), NONE, condJump.getSr1(), condJump.getSr2(), NONE);
+        }
+        public Integer visitJumpCall(JumpCall jumpCall) {
+            return add(jumpCall.getOpcode(), NONE, NONE, NONE, NONE);
+        }
+        public Integer visitIO(IO io) {
+            if (io.getOp() == IO.Op.IN || io.getOp() == IO.Op.READ) {
+                return add(io.getOpcode(), io.getReg(), NONE, NONE, NONE);
+            }
+            return add(io.getOpcode(), NONE, io.getReg(), NONE, NONE);
+        }
+        public Integer visitRet(Ret ret) {
+            return add(Opcode.RET, NONE, NONE, NONE, NONE);
+        }
+        public Integer visitStop(Stop stop) {
+            return add(Opcode.STOP, NONE, NONE, NONE, NONE);
+        }
+    }
+}
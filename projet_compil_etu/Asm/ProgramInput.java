@@ -0,0 +1,150 @@
+package Asm;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Entrée d'un programme exécuté, lue par IN et READ. Les octets sont lus dans un ByteBuffer :
+ * IN et READ ne font un appel système que lorsque le tampon est vide.
+ * <ul>
+ *   <li>of(byte[]) : entrée en mémoire (tests) ;</li>
+ *   <li>map(Path) : fichier projeté en mémoire, sans copie (grands jeux de données) ;</li>
+ *   <li>of(ReadableByteChannel), of(InputStream) : lecture par blocs de 64 Ko.</li>
+ * </ul>
+ */
+public final class ProgramInput implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Source des blocs suivants (null : tout le contenu est déjà dans le tampon)
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructeur
+     * @param channel source des blocs suivants, null si le tampon contient toute l'entrée
+     * @param buffer tampon, prêt à être lu
+     */
+    private ProgramInput(ReadableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Entrée en mémoire
+     * @param data contenu de l'entrée (non copié)
+     * @return ProgramInput entrée
+     */
+    public static ProgramInput of(byte[] data) {
+        return new ProgramInput(null, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Entrée vide : IN lit 255, READ lit 0
+     * @return ProgramInput entrée
+     */
+    public static ProgramInput empty() {
+        return of(new byte[0]);
+    }
+
+    /**
+     * Entrée lue par blocs depuis un canal
+     * @param channel canal (fermé par close())
+     * @return ProgramInput entrée
+     */
+    public static ProgramInput of(ReadableByteChannel channel) {
+        return new ProgramInput(channel, ByteBuffer.allocate(BUFFER_SIZE).flip());
+    }
+
+    /**
+     * Entrée lue par blocs depuis un flux
+     * @param in flux (fermé par close())
+     * @return ProgramInput entrée
+     */
+    public static ProgramInput of(InputStream in) {
+        return of(Channels.newChannel(in));
+    }
+
+    /**
+     * Entrée projetée en mémoire depuis un fichier ; un fichier de plus de 2 Go est lu par blocs
+     * @param file fichier des entrées
+     * @return ProgramInput entrée
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    public static ProgramInput map(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return of(channel);
+            }
+            // La projection reste valide après la fermeture du canal
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            channel.close();
+            return new ProgramInput(null, mapped);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lit un octet
+     * @return int octet lu (entre 0 et 255), -1 en fin d'entrée
+     * @throws IOException si la lecture échoue
+     */
+    public int read() throws IOException {
+        if (!buffer.hasRemaining() && !refill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Lit un entier décimal (les chiffres jusqu'au premier autre caractère, qui est consommé)
+     * @return long entier lu (0 s'il n'y a pas de chiffre)
+     * @throws IOException si la lecture échoue
+     */
+    public long readInt() throws IOException {
+        long result = 0;
+        int c = read();
+        while (c >= '0' && c <= '9') {
+            result = 10 * result + c - '0';
+            c = read();
+        }
+        return result;
+    }
+
+    /**
+     * Remplit le tampon avec le bloc suivant
+     * @return boolean false en fin d'entrée
+     * @throws IOException si la lecture échoue
+     */
+    private boolean refill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        buffer.flip();
+        return n > 0;
+    }
+
+    /**
+     * Ferme le canal de l'entrée
+     * @throws IOException si la fermeture échoue
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
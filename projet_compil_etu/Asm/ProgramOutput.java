@@ -0,0 +1,163 @@
+package Asm;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sortie d'un programme exécuté, écrite par OUT et PRINT. Les octets sont accumulés dans un ByteBuffer
+ * de 64 Ko et écrits par blocs : PRINT formate la valeur directement dans le tampon, sans créer de chaîne.
+ * <ul>
+ *   <li>memory() : sortie en mémoire (tests), lue avec toByteArray() ;</li>
+ *   <li>of(Path) : fichier écrit par un FileChannel ;</li>
+ *   <li>of(WritableByteChannel), of(OutputStream) : écriture par blocs.</li>
+ * </ul>
+ */
+public final class ProgramOutput implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Nombre maximal de caractères d'un long en décimal (signe compris)
+    private static final int MAX_DIGITS = 20;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    // Contenu de la sortie en mémoire (null : sortie vers un canal externe)
+    private final ByteArrayOutputStream memory;
+    private final byte[] digits = new byte[MAX_DIGITS];
+
+    /**
+     * Constructeur
+     * @param channel destination des blocs
+     * @param memory contenu si la destination est en mémoire, null sinon
+     */
+    private ProgramOutput(WritableByteChannel channel, ByteArrayOutputStream memory) {
+        this.channel = channel;
+        this.memory = memory;
+    }
+
+    /**
+     * Sortie en mémoire
+     * @return ProgramOutput sortie, dont le contenu est rendu par toByteArray()
+     */
+    public static ProgramOutput memory() {
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        return new ProgramOutput(Channels.newChannel(memory), memory);
+    }
+
+    /**
+     * Sortie écrite par blocs dans un canal
+     * @param channel canal (fermé par close())
+     * @return ProgramOutput sortie
+     */
+    public static ProgramOutput of(WritableByteChannel channel) {
+        return new ProgramOutput(channel, null);
+    }
+
+    /**
+     * Sortie écrite par blocs dans un flux
+     * @param out flux (fermé par close())
+     * @return ProgramOutput sortie
+     */
+    public static ProgramOutput of(OutputStream out) {
+        return of(Channels.newChannel(out));
+    }
+
+    /**
+     * Sortie écrite dans un fichier (créé ou remplacé)
+     * @param file fichier des sorties
+     * @return ProgramOutput sortie
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    public static ProgramOutput of(Path file) throws IOException {
+        return of(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Écrit un octet
+     * @param b octet (seuls les 8 bits de poids faible sont écrits)
+     * @throws IOException si l'écriture échoue
+     */
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    /**
+     * Écrit un entier en décimal
+     * @param value entier
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeLong(long value) throws IOException {
+        if (buffer.remaining() < MAX_DIGITS) {
+            drain();
+        }
+        // Chiffres écrits de droite à gauche, en négatif pour traiter Long.MIN_VALUE
+        int p = MAX_DIGITS;
+        long v = value < 0 ? value : -value;
+        do {
+            digits[--p] = (byte) ('0' - v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) {
+            digits[--p] = '-';
+        }
+        buffer.put(digits, p, MAX_DIGITS - p);
+    }
+
+    /**
+     * Écrit le contenu du tampon dans le canal
+     * @throws IOException si l'écriture échoue
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Contenu d'une sortie en mémoire
+     * @return byte[] octets écrits
+     * @throws IllegalStateException si la sortie n'est pas en mémoire
+     */
+    public byte[] toByteArray() throws IllegalStateException {
+        if (memory == null) {
+            throw new IllegalStateException("La sortie n'est pas en mémoire");
+        }
+        try {
+            drain();
+        } catch (IOException e) {
+            // Écriture dans un ByteArrayOutputStream : n'échoue pas
+            throw new IllegalStateException(e);
+        }
+        return memory.toByteArray();
+    }
+
+    /**
+     * Vide le tampon puis ferme le canal
+     * @throws IOException si l'écriture ou la fermeture échoue
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Écrit le contenu du tampon dans le canal et le vide
+     * @throws IOException si l'écriture échoue
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
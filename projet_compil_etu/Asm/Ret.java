@@ -14,6 +14,26 @@ public class Ret extends Instruction{
     public Ret() {
         super("","RET");
     }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.RET;
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitRet(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
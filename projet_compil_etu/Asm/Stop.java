@@ -17,6 +17,25 @@ public class Stop extends Instruction{
     
     }
 
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.STOP;
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitStop(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
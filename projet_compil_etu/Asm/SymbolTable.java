@@ -0,0 +1,81 @@
+package Asm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Table des labels d'un programme : chaque label (défini ou seulement visé par un saut)
+ * reçoit un numéro, et la table retient l'index de l'instruction qui le porte.
+ * Les numéros sont attribués dans l'ordre d'apparition et ne changent plus ensuite.
+ */
+public class SymbolTable {
+    public static final int UNDEFINED = -1;
+
+    private final ArrayList<String> names = new ArrayList<>();
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private int[] indexes = new int[8];
+
+    /**
+     * Getter du nombre de labels
+     * @return int nombre de labels
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Numéro d'un label, créé (non défini) s'il n'existe pas encore
+     * @param name nom du label
+     * @return int numéro du label
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            if (id == indexes.length) {
+                indexes = Arrays.copyOf(indexes, id * 2);
+            }
+            names.add(name);
+            ids.put(name, id);
+            indexes[id] = UNDEFINED;
+        }
+        return id;
+    }
+
+    /**
+     * Numéro d'un label existant
+     * @param name nom du label
+     * @return int numéro du label, UNDEFINED s'il n'est pas dans la table
+     */
+    public int getId(String name) {
+        Integer id = ids.get(name);
+        return id == null ? UNDEFINED : id;
+    }
+
+    /**
+     * Getter du nom d'un label
+     * @param id numéro du label
+     * @return String nom du label
+     */
+    public String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Getter de l'instruction portant un label
+     * @param id numéro du label
+     * @return int index de l'instruction, UNDEFINED si le label n'est porté par aucune instruction
+     */
+    public int getIndex(int id) {
+        return indexes[id];
+    }
+
+    /**
+     * Associe un label à l'instruction qui le porte (en cas de doublon, la dernière définition l'emporte)
+     * @param id numéro du label
+     * @param index index de l'instruction, UNDEFINED pour retirer la définition
+     */
+    public void define(int id, int index) {
+        indexes[id] = index;
+    }
+}
@@ -2,6 +2,7 @@ package Asm;
 public class UAL extends Instruction{
     
     public static enum Op { ADD, SUB, MUL, DIV, MOD, XOR, AND, OR, SL, SR };
+    private Op op;
     private int dest;
     private int sr1;
     private int sr2;
@@ -64,6 +65,7 @@ public class UAL extends Instruction{
      */
     public UAL(String label, Op op, int dest, int sr1, int sr2) {
         super(label,op.toString());
+        this.op = op;
         this.dest = dest;
         this.sr1 = sr1;
         this.sr2 = sr2;
@@ -78,11 +80,57 @@ public class UAL extends Instruction{
      */
     public UAL(Op op, int dest, int sr1, int sr2) {
         super("",op.toString());
+        this.op = op;
         this.dest = dest;
         this.sr1 = sr1;
         this.sr2 = sr2;
     }
 
+    /**
+     * Getter de l'opération
+     * @return Op type d'opération
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Setter de l'opération
+     * @param op type d'opération
+     */
+    public void setOp(Op op) {
+        this.op = op;
+        this.name = op.toString();
+    }
+
+    /**
+     * Setter de l'opération à partir de son nom
+     * @param name nom de l'opération
+     */
+    @Override
+    public void setName(String name) {
+        setOp(Op.valueOf(name));
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.of(op);
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitUAL(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
@@ -2,6 +2,7 @@ package Asm;
 public class UALi extends Instruction{
     
     public static enum Op { ADD, SUB, MUL, DIV, MOD, XOR, AND, OR, SL, SR };
+    private Op op;
     private int dest;
     private int sr;
     private int imm;
@@ -64,6 +65,7 @@ public class UALi extends Instruction{
      */
     public UALi(String label, Op op, int dest, int sr, int imm) {
         super(label,op.toString());
+        this.op = op;
         this.dest = dest;
         this.sr = sr;
         this.imm = imm;
@@ -77,11 +79,57 @@ public class UALi extends Instruction{
      */
     public UALi(Op op, int dest, int sr, int imm) {
         super("",op.toString());
+        this.op = op;
         this.dest = dest;
         this.sr = sr;
         this.imm = imm;
     }
 
+    /**
+     * Getter de l'opération
+     * @return Op type d'opération
+     */
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Setter de l'opération
+     * @param op type d'opération
+     */
+    public void setOp(Op op) {
+        this.op = op;
+        this.name = op.toString();
+    }
+
+    /**
+     * Setter de l'opération à partir de son nom
+     * @param name nom de l'opération
+     */
+    @Override
+    public void setName(String name) {
+        setOp(Op.valueOf(name));
+    }
+
+    /**
+     * Getter de l'opération typée
+     * @return Opcode opération de l'instruction
+     */
+    @Override
+    public Opcode getOpcode() {
+        return Opcode.of(op);
+    }
+
+    /**
+     * Double répartition vers le visiteur
+     * @param visitor visiteur
+     * @return R résultat du visiteur
+     */
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visitUALi(this);
+    }
+
     /** 
      * Conversion en String
      * @return String texte de l'instruction
@@ -0,0 +1,199 @@
+import Asm.ObjectWriter;
+import Asm.Program;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Compilation par lots : chaque fichier TCL passe par toute la chaîne
+ * (analyse, typage, génération de code, allocation des registres) sur un pool de threads de taille fixe,
+ * et produit son propre fichier de sortie.
+ *
+ * Usage : java Main [-j nbThreads] [-o dossierSortie] [-obj] [-r nbRegistres] [-pgo] fichiers|dossiers...
+ * Les dossiers sont parcourus récursivement : seuls les programmes TCL qu'ils contiennent sont compilés
+ * (voir TestRunner.isProgram), pas les sorties du compilateur, les entrées de test ni les scripts.
+ * Sans -o, la sortie est écrite à côté de l'entrée ; avec -o, l'arborescence des dossiers donnés est reproduite.
+ * Avec -pgo, l'allocation des registres d'un fichier est guidée par son profil d'entraînement fichier.prof
+ * quand il existe (voir Profiler, option -train).
+ * Pour un seul fichier, ce sont les fonctions du programme qui sont allouées en parallèle sur les nbThreads threads
+ * (voir CodeOptimizer.setParallel).
+ */
+public class BatchCompiler {
+    private int nbThreads = Runtime.getRuntime().availableProcessors();
+    private int nbRegisters = 32;
+    private Path outputDir = null;
+    private boolean objectFormat = false;
+    private boolean pgo = false;
+    // Pool de l'allocation des fonctions d'un fichier (null : allocation séquentielle)
+    private ForkJoinPool allocationPool = null;
+
+    // Couples (entrée, sortie), dans l'ordre des arguments
+    private final List<Path> inputs = new ArrayList<>();
+    private final List<Path> outputs = new ArrayList<>();
+
+    /**
+     * Point d'entrée de la compilation par lots
+     * @param args options puis fichiers ou dossiers à compiler
+     */
+    public static void main(String[] args) {
+        BatchCompiler batch = new BatchCompiler();
+        try {
+            batch.parseArguments(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : java Main [-j nbThreads] [-o dossierSortie] [-obj] [-r nbRegistres] [-pgo] fichiers|dossiers...");
+            System.exit(2);
+        }
+
+        int nbErrors = batch.compileAll();
+        System.out.println((batch.inputs.size() - nbErrors) + " fichier(s) compilé(s), " + nbErrors + " erreur(s)");
+        if (nbErrors > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lit les options et liste les fichiers à compiler
+     * @param args arguments de la ligne de commande
+     * @throws IllegalArgumentException si une option est invalide
+     * @throws IOException si un dossier ne peut pas être parcouru
+     */
+    private void parseArguments(String[] args) throws IllegalArgumentException, IOException {
+        List<Path> roots = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-j" -> nbThreads = Integer.parseInt(optionValue(args, ++i));
+                case "-r" -> nbRegisters = Integer.parseInt(optionValue(args, ++i));
+                case "-o" -> outputDir = Paths.get(optionValue(args, ++i));
+                case "-obj" -> objectFormat = true;
+                case "-pgo" -> pgo = true;
+                default -> roots.add(Paths.get(args[i]));
+            }
+        }
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("nombre de threads invalide : " + nbThreads);
+        }
+        if (roots.isEmpty()) {
+            throw new IllegalArgumentException("aucun fichier à compiler");
+        }
+
+        String extension = objectFormat ? ".obj" : ".asm";
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(root)) {
+                    files = walk.filter(Files::isRegularFile).filter(TestRunner::isProgram).sorted().toList();
+                }
+                for (Path file : files) {
+                    Path relative = root.relativize(file);
+                    Path base = outputDir == null ? file : outputDir.resolve(relative);
+                    inputs.add(file);
+                    outputs.add(base.resolveSibling(base.getFileName() + extension));
+                }
+            } else if (Files.isRegularFile(root)) {
+                Path base = outputDir == null ? root : outputDir.resolve(root.getFileName());
+                inputs.add(root);
+                outputs.add(base.resolveSibling(base.getFileName() + extension));
+            } else {
+                throw new IllegalArgumentException("fichier introuvable : " + root);
+            }
+        }
+    }
+
+    /**
+     * Valeur d'une option
+     * @param args arguments de la ligne de commande
+     * @param i position de la valeur
+     * @return String valeur de l'option
+     * @throws IllegalArgumentException s'il manque la valeur
+     */
+    private static String optionValue(String[] args, int i) throws IllegalArgumentException {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("valeur manquante pour " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Compile tous les fichiers sur le pool de threads, puis affiche les erreurs dans l'ordre des entrées
+     * @return int nombre de fichiers en erreur
+     */
+    public int compileAll() {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(nbThreads, Math.max(1, inputs.size())));
+        if (inputs.size() == 1 && nbThreads > 1) {
+            allocationPool = new ForkJoinPool(nbThreads);
+        }
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                Path input = inputs.get(i);
+                Path output = outputs.get(i);
+                results.add(executor.submit(() -> {
+                    compileFile(input, output);
+                    return null;
+                }));
+            }
+
+            int nbErrors = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    nbErrors++;
+                    Throwable cause = e.getCause();
+                    System.err.println(inputs.get(i) + " : " + cause.getClass().getSimpleName() + " : " + cause.getMessage());
+                }
+            }
+            return nbErrors;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inputs.size();
+        } finally {
+            executor.shutdownNow();
+            if (allocationPool != null) {
+                allocationPool.shutdownNow();
+                allocationPool = null;
+            }
+        }
+    }
+
+    /**
+     * Compile un fichier et écrit son code final
+     * @param input fichier TCL
+     * @param output fichier de sortie (.asm ou .obj)
+     * @throws IOException si la lecture ou l'écriture échoue
+     */
+    private void compileFile(Path input, Path output) throws IOException {
+        String source = Files.readString(input, StandardCharsets.UTF_8);
+        CodeOptimizer optimizer = new CodeOptimizer(nbRegisters);
+        optimizer.setParallel(allocationPool);
+        Path profile = Profiler.profilePath(input);
+        if (pgo && Files.isRegularFile(profile)) {
+            optimizer.loadProfile(profile);
+        }
+        Program program = optimizer.optimize(Main.generate(source));
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        if (objectFormat) {
+            ObjectWriter.write(program, output);
+        } else {
+            try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                program.writeTo(out);
+            }
+        }
+    }
+}
@@ -6,7 +6,9 @@ import java.util.Stack;
 
 import Asm.*;
 
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.AbstractParseTreeVisitor;
+import org.antlr.v4.runtime.tree.ParseTree;
 import Type.PrimitiveType;
 import Type.Type;
 import Type.UnknownType;
@@ -20,8 +22,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
     private Map<UnknownType,Type> types;
     private Map<String, Type> varTypeMap;
 
-    private int regCount; //compteur de registres
-    private int labelCount = 0; //compteur de label
+    private final CompilationContext context; // compteurs de registres et de labels
     private final int SP = 2; //  stackPointeur pile
     private final int TP = 1; // heap / tableaux
     private Stack<Map<String, Integer>> scopeStack = new Stack<>(); // une pile de dictionnaires
@@ -34,12 +35,48 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
      * @param types types de chaque variable du code source
      */
     public CodeGenerator(Map<UnknownType, Type> types, Map<String, Type> varTypeMap) {
+        this(types, varTypeMap, new CompilationContext());
+    }
+
+    /**
+     * Constructeur avec le contexte de la compilation
+     * @param types types de chaque variable du code source
+     * @param varTypeMap types des variables de l'environnement
+     * @param context contexte de la compilation (compteurs de registres et de labels)
+     */
+    public CodeGenerator(Map<UnknownType, Type> types, Map<String, Type> varTypeMap, CompilationContext context) {
         this.types = types;
         this.varTypeMap = varTypeMap;
-        this.regCount = 3;
+        this.context = context;
     }
 
 
+    /**
+     * Visite un noeud et attribue sa ligne (début du noeud dans le code source) aux instructions produites
+     * qui n'en ont pas encore : chaque instruction garde la ligne du noeud le plus imbriqué qui l'a produite.
+     * Le code ajouté autour du programme principal (initialisation des registres réservés) reste sans ligne.
+     * @param tree noeud de l'arbre syntaxique
+     * @return Program code du noeud
+     */
+    @Override
+    public Program visit(ParseTree tree) {
+        Program program = super.visit(tree);
+        if (program != null && tree instanceof ParserRuleContext ctx && !(tree instanceof grammarTCLParser.MainContext)) {
+            program.setSourceLine(ctx.start.getLine());
+        }
+        return program;
+    }
+
+    /**
+     * Marque une instruction comme faisant partie du protocole d'appel (voir Instruction.isCallOverhead)
+     * @param instruction instruction du protocole d'appel
+     * @return Instruction la même instruction
+     */
+    private Instruction callOverhead(Instruction instruction) {
+        instruction.setCallOverhead(true);
+        return instruction;
+    }
+
     /**
      * Entre dans un nouveau scope (bloc, fonction, boucle for)
      */
@@ -97,12 +134,11 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
 
     private String newLabel(String prefix) {
-        labelCount++;
-        return prefix + "_" + labelCount;
+        return context.newLabel(prefix);
     }
 
     public int newRegister() {
-        return regCount++;
+        return context.newRegister();
     }
 
 
@@ -121,7 +157,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         Program p = new Program();
         p.addInstructions(pExpr);
 
-        int exprReg = regCount - 1;
+        int exprReg = context.getRegisterCount() - 1;
 
         // Charger 0 dans un registre
         int rZero = newRegister();
@@ -144,7 +180,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         program.addInstructions(exprProgram);
 
         // Le registre contenant le résultat de l'expression
-        int exprReg = regCount - 1;
+        int exprReg = context.getRegisterCount() - 1;
 
         // Créer un nouveau registre pour le résultat de la négation
         int resultReg = newRegister();
@@ -167,12 +203,12 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         // ✓ Évaluer expr gauche AVANT de créer resultReg
         Program leftProg = visit(ctx.expr(0));
         program.addInstructions(leftProg);
-        int leftReg = regCount - 1;
+        int leftReg = context.getRegisterCount() - 1;
 
         // ✓ Évaluer expr droite
         Program rightProg = visit(ctx.expr(1));
         program.addInstructions(rightProg);
-        int rightReg = regCount - 1;
+        int rightReg = context.getRegisterCount() - 1;
 
         // ✓ Maintenant créer le registre résultat
         int resultReg = newRegister();
@@ -197,13 +233,13 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         Program trueProg = new Program();
         trueProg.addInstruction(new UAL(UAL.Op.XOR, resultReg, resultReg, resultReg));
         trueProg.addInstruction(new UALi(UALi.Op.ADD, resultReg, resultReg, 1));
-        trueProg.getInstructions().getFirst().setLabel(trueLabel);
+        trueProg.setLabel(0, trueLabel);
         program.addInstructions(trueProg);
 
         // Fin
         Program endProg = new Program();
         endProg.addInstruction(new UALi(UALi.Op.ADD, resultReg, resultReg, 0));
-        endProg.getInstructions().getFirst().setLabel(endLabel);
+        endProg.setLabel(0, endLabel);
         program.addInstructions(endProg);
 
         return program;
@@ -216,11 +252,11 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Évaluer l'expression gauche
         program.addInstructions(visit(ctx.expr(0)));
-        int leftReg = regCount - 1;
+        int leftReg = context.getRegisterCount() - 1;
 
         // Évaluer l'expression droite
         program.addInstructions(visit(ctx.expr(1)));
-        int rightReg = regCount - 1;
+        int rightReg = context.getRegisterCount() - 1;
 
         // Registre pour le résultat
         int resultReg = newRegister();
@@ -242,11 +278,11 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Évaluer l'expression gauche
         program.addInstructions(visit(ctx.expr(0)));
-        int leftReg = regCount - 1;
+        int leftReg = context.getRegisterCount() - 1;
 
         // Évaluer l'expression droite
         program.addInstructions(visit(ctx.expr(1)));
-        int rightReg = regCount - 1;
+        int rightReg = context.getRegisterCount() - 1;
 
         // Créer un registre pour le résultat
         int resultReg = newRegister();
@@ -268,12 +304,12 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         // Évaluer l'expression gauche
         Program leftExprProgram = visit(ctx.expr(0));
         program.addInstructions(leftExprProgram);
-        int leftReg = regCount - 1; // registre contenant le résultat de l'expression gauche
+        int leftReg = context.getRegisterCount() - 1; // registre contenant le résultat de l'expression gauche
 
         // Évaluer l'expression droite
         Program rightExprProgram = visit(ctx.expr(1));
         program.addInstructions(rightExprProgram);
-        int rightReg = regCount - 1; // registre contenant le résultat de l'expression droite
+        int rightReg = context.getRegisterCount() - 1; // registre contenant le résultat de l'expression droite
 
         // Créer un nouveau registre pour stocker le résultat
         int resultReg = newRegister();
@@ -298,10 +334,10 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Évaluer les deux expressions
         program.addInstructions(visit(ctx.expr(0)));
-        int leftReg = regCount - 1;
+        int leftReg = context.getRegisterCount() - 1;
 
         program.addInstructions(visit(ctx.expr(1)));
-        int rightReg = regCount - 1;
+        int rightReg = context.getRegisterCount() - 1;
 
         int resultReg = newRegister();
 
@@ -323,13 +359,13 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Cas VRAI
         program.addInstruction(new UAL(UAL.Op.XOR, resultReg, resultReg, resultReg));
-        program.getInstructions().getLast().setLabel(trueLabel);
+        program.setLabel(program.size() - 1, trueLabel);
 
         program.addInstruction(new UALi(UALi.Op.ADD, resultReg, resultReg, 1));
 
         // FIN
         program.addInstruction(new UALi(UALi.Op.ADD, resultReg, resultReg, 0));
-        program.getInstructions().getLast().setLabel(endLabel);
+        program.setLabel(program.size() - 1, endLabel);
 
         return program;
     }
@@ -341,11 +377,11 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Évaluer l'expression gauche
         program.addInstructions(visit(ctx.expr(0)));
-        int leftReg = regCount - 1;
+        int leftReg = context.getRegisterCount() - 1;
 
         // Évaluer l'expression droite
         program.addInstructions(visit(ctx.expr(1)));
-        int rightReg = regCount - 1;
+        int rightReg = context.getRegisterCount() - 1;
 
         // Registre destination
         int resultReg = newRegister();
@@ -466,7 +502,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Début de la boucle
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(loopLabel);
+        program.setLabel(program.size() - 1, loopLabel);
 
         // Condition : i >= totalLength ?
         program.addInstruction(new CondJump(CondJump.Op.JSEQ, iReg, totalLengthReg, loopEndLabel));
@@ -491,7 +527,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Label : rester dans le même bloc
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(sameBlockLabel);
+        program.setLabel(program.size() - 1, sameBlockLabel);
 
         // Lire la valeur : addr = currentBlock + 1 + posInBlock
         int addrReg = newRegister();
@@ -518,7 +554,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Fin de la boucle
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(loopEndLabel);
+        program.setLabel(program.size() - 1, loopEndLabel);
 
         return program;
     }
@@ -531,7 +567,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         if (ctx.expr() != null) {
             // Cas : déclaration + initialisation
             program.addInstructions(visit(ctx.expr()));      // évaluer l'expression
-            int exprReg = regCount - 1;                     // le résultat est dans le dernier registre
+            int exprReg = context.getRegisterCount() - 1;                     // le résultat est dans le dernier registre
             declareVar(varName, exprReg);                  // associer la variable au registre
         } else {
             // Cas : déclaration sans initialisation
@@ -544,7 +580,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
             if (varType != null && isArrayType(varType)) {
                 // allouer un bloc de tableau vide (longueur 0)
                 program.addInstructions(allocateBlock());
-                int resultReg = regCount - 1;             // le dernier registre alloué est celui qui contient l'adresse du bloc
+                int resultReg = context.getRegisterCount() - 1;             // le dernier registre alloué est celui qui contient l'adresse du bloc
                 declareVar(varName, resultReg);           // associe la variable au registre contenant l'adresse
             }
         }
@@ -562,7 +598,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         // Récupérer la valeur à assigner (toujours la dernière expression)
         int valueExprIndex = ctx.expr().size() - 1;
         program.addInstructions(visit(ctx.expr(valueExprIndex)));
-        int valueReg = regCount - 1;
+        int valueReg = context.getRegisterCount() - 1;
 
         // Cas 1 : Variable simple (pas de crochet)
         if (ctx.expr().size() == 1) { // pas d'indice
@@ -572,7 +608,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         else if (ctx.expr().size() == 2) {
             // Évaluer l'indice
             program.addInstructions(visit(ctx.expr(0)));
-            int indexReg = regCount - 1;
+            int indexReg = context.getRegisterCount() - 1;
 
             // Agrandir le tableau si nécessaire
             program.addInstructions(resizeArrayIfNeeded(varReg, indexReg));
@@ -640,7 +676,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         String findBlockEnd = newLabel("find_block_end");
 
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(findBlockLoop);
+        program.setLabel(program.size() - 1, findBlockLoop);
 
         program.addInstruction(
                 new CondJump(CondJump.Op.JSEQ, blockCounterReg, blocksReg, findBlockEnd));
@@ -660,7 +696,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         program.addInstruction(new JumpCall(JumpCall.Op.JMP, findBlockLoop));
 
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(findBlockEnd);
+        program.setLabel(program.size() - 1, findBlockEnd);
 
         // posInBlock = length % 10
         int posInBlockReg = newRegister();
@@ -668,7 +704,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Boucle d’agrandissement
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(resizeLoopLabel);
+        program.setLabel(program.size() - 1, resizeLoopLabel);
 
         program.addInstruction(
                 new CondJump(CondJump.Op.JSEQ, lengthReg, targetLengthReg, resizeEndLabel)
@@ -692,7 +728,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         // --- Nouveau bloc ---
         Program allocProg = allocateBlock();
         program.addInstructions(allocProg);
-        int newBlockReg = regCount - 1;
+        int newBlockReg = context.getRegisterCount() - 1;
 
         // mem[currentBlock + 11] = newBlock
         int linkAddrReg = newRegister();
@@ -707,7 +743,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // --- Même bloc ---
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(sameBlockLabel);
+        program.setLabel(program.size() - 1, sameBlockLabel);
 
         // mem[currentBlock + 1 + posInBlock] = 0
         int zeroReg = newRegister();
@@ -727,13 +763,13 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Mise à jour de la longueur totale
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(resizeEndLabel);
+        program.setLabel(program.size() - 1, resizeEndLabel);
 
         program.addInstruction(new Mem(Mem.Op.ST, targetLengthReg, tabReg));
 
         // Pas de resize
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(noResizeLabel);
+        program.setLabel(program.size() - 1, noResizeLabel);
 
         return program;
     }
@@ -744,7 +780,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Évaluer la condition
         program.addInstructions(visit(ctx.expr()));
-        int condReg = regCount - 1;
+        int condReg = context.getRegisterCount() - 1;
 
         // Labels
         String labelElse = newLabel("Else_");
@@ -763,18 +799,18 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
             // BLOC ELSE
             program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-            program.getInstructions().getLast().setLabel(labelElse);
+            program.setLabel(program.size() - 1, labelElse);
 
             program.addInstructions(visit(ctx.instr(1)));
 
             //  FIN DU IF
             program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-            program.getInstructions().getLast().setLabel(labelEnd);
+            program.setLabel(program.size() - 1, labelEnd);
 
         } else {
             // Pas de else
             program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-            program.getInstructions().getLast().setLabel(labelEnd);
+            program.setLabel(program.size() - 1, labelEnd);
         }
 
         return program;
@@ -795,13 +831,13 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         for (Instruction instr : conditionProgram.getInstructions()) {
             program.addInstruction(instr);
             if (!labelPlaced) {
-                program.getInstructions().getLast().setLabel(startLabel);  // ✓ Label sur première instr
+                program.setLabel(program.size() - 1, startLabel);  // ✓ Label sur première instr
                 labelPlaced = true;
             }
         }
 
         // Registre contenant le résultat
-        int condReg = regCount - 1;
+        int condReg = context.getRegisterCount() - 1;
 
         // Sauter à la fin si faux
         program.addInstruction(new CondJump(CondJump.Op.JEQU, condReg, 0, endLabel));
@@ -814,7 +850,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Fin
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(endLabel);
+        program.setLabel(program.size() - 1, endLabel);
 
         return program;
     }
@@ -838,12 +874,12 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         for (Instruction instr : condProgram.getInstructions()) {
             program.addInstruction(instr);
             if (!labelPlaced) {
-                program.getInstructions().getLast().setLabel(startLabel);  // ✓ Label ici
+                program.setLabel(program.size() - 1, startLabel);  // ✓ Label ici
                 labelPlaced = true;
             }
         }
 
-        int condReg = regCount - 1;
+        int condReg = context.getRegisterCount() - 1;
 
         // Test condition
         program.addInstruction(new CondJump(CondJump.Op.JEQU, condReg, 0, endLabel));
@@ -859,7 +895,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Fin
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(endLabel);
+        program.setLabel(program.size() - 1, endLabel);
 
         exitScope();
 
@@ -892,7 +928,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Allouer le premier bloc
         program.addInstructions(allocateBlock());
-        int firstBlockReg = regCount - 1; // contient l'adresse du premier bloc
+        int firstBlockReg = context.getRegisterCount() - 1; // contient l'adresse du premier bloc
         int currentBlockReg = firstBlockReg;   // registre pour remplir les blocs
 
         // Stocker la longueur totale dans le premier bloc (case 0)
@@ -911,7 +947,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
             for (int i = 0; i < len; i++, exprIndex++) {
                 // Évaluer l'expression
                 program.addInstructions(visit(ctx.expr(exprIndex)));
-                int valueReg = regCount - 1;
+                int valueReg = context.getRegisterCount() - 1;
 
                 // Calculer l'adresse : currentBlockReg + i + 1
                 int addrReg = newRegister();
@@ -927,7 +963,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
             // Si des éléments restent, allouer un nouveau bloc et mettre next (case 11)
             if (elementsRemaining > 0) {
                 program.addInstructions(allocateBlock());
-                int nextBlockReg = regCount - 1; // contient l'adresse du premier bloc
+                int nextBlockReg = context.getRegisterCount() - 1; // contient l'adresse du premier bloc
 
                 // Stocker l'adresse du nouveau bloc dans la case 11 (next)
                 int nextAddrReg = newRegister();
@@ -994,12 +1030,12 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         // Récupérer le registre du tableau
         Program tabProg = visit(ctx.expr(0)); // expression t
         program.addInstructions(tabProg);
-        int firstBlockReg = regCount - 1; // contient l'adresse du premier bloc
+        int firstBlockReg = context.getRegisterCount() - 1; // contient l'adresse du premier bloc
 
         // Récupérer l'indice
         Program indexProg = visit(ctx.expr(1)); // expression i
         program.addInstructions(indexProg);
-        int indexReg = regCount - 1; // indice global
+        int indexReg = context.getRegisterCount() - 1; // indice global
 
         // Charger la longueur totale du tableau
         int totalLengthReg = newRegister();
@@ -1014,7 +1050,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         program.addInstruction(new Stop());
 
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(inBoundsLabel);
+        program.setLabel(program.size() - 1, inBoundsLabel);
 
         // Trouver le bloc contenant l'élément
         int currentBlockReg = newRegister();
@@ -1031,7 +1067,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Boucle blocklooplabel : index >= 10 ? aller au bloc suivant
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(blockLoopLabel);
+        program.setLabel(program.size() - 1, blockLoopLabel);
 
         program.addInstruction(new CondJump(CondJump.Op.JINF, indexReg, tenReg, blockLoopEndLabel));
         // si index < 10 -> fin boucle
@@ -1049,7 +1085,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Fin de la boucle
         program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(blockLoopEndLabel);
+        program.setLabel(program.size() - 1, blockLoopEndLabel);
 
         // Calculer l'adresse finale de l'élément dans le bloc
         int elementAddrReg = newRegister();
@@ -1098,41 +1134,41 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         ArrayList<Integer> argRegisters = new ArrayList<>();
         for (int i = 0; i < nbArgs; i++) {
             program.addInstructions(visit(ctx.expr(i)));
-            argRegisters.add(regCount - 1);
+            argRegisters.add(context.getRegisterCount() - 1);
         }
 
         //  Déterminer le dernier registre utilisé APRÈS évaluation des arguments
-        int lastUsedRegister = regCount - 1;
+        int lastUsedRegister = context.getRegisterCount() - 1;
 
         //   sauvegarder TOUS les registres actifs
         //    (sauf le registre de retour qui sera écrasé)
         for (int i = this.startReg; i <= lastUsedRegister; i++) {
-            program.addInstruction(new Mem(Mem.Op.ST, i, SP));
-            program.addInstruction(new UALi(UALi.Op.ADD, SP, SP, 1));
+            program.addInstruction(callOverhead(new Mem(Mem.Op.ST, i, SP)));
+            program.addInstruction(callOverhead(new UALi(UALi.Op.ADD, SP, SP, 1)));
         }
 
         // Empiler les arguments (UNE SEULE FOIS)
         for (int reg : argRegisters) {
-            program.addInstruction(new Mem(Mem.Op.ST, reg, SP));
-            program.addInstruction(new UALi(UALi.Op.ADD, SP, SP, 1));
+            program.addInstruction(callOverhead(new Mem(Mem.Op.ST, reg, SP)));
+            program.addInstruction(callOverhead(new UALi(UALi.Op.ADD, SP, SP, 1)));
         }
 
         // Appel de la fonction
-        program.addInstruction(new JumpCall(JumpCall.Op.CALL, functionName));
+        program.addInstruction(callOverhead(new JumpCall(JumpCall.Op.CALL, functionName)));
 
         //  Récupérer le résultat dans un NOUVEAU registre
         int resultReg = newRegister();
-        program.addInstruction(new Mem(Mem.Op.LD, resultReg, SP));
+        program.addInstruction(callOverhead(new Mem(Mem.Op.LD, resultReg, SP)));
 
         //  Dépiler les arguments
         if (nbArgs > 0) {
-            program.addInstruction(new UALi(UALi.Op.SUB, SP, SP, nbArgs));
+            program.addInstruction(callOverhead(new UALi(UALi.Op.SUB, SP, SP, nbArgs)));
         }
 
         //  restaurer les registres dans l'ordre INVERSE
         for (int i = lastUsedRegister; i >= this.startReg; i--) {
-            program.addInstruction(new UALi(UALi.Op.SUB, SP, SP, 1));
-            program.addInstruction(new Mem(Mem.Op.LD, i, SP));
+            program.addInstruction(callOverhead(new UALi(UALi.Op.SUB, SP, SP, 1)));
+            program.addInstruction(callOverhead(new Mem(Mem.Op.LD, i, SP)));
         }
 
         return program;
@@ -1145,13 +1181,13 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         String functionName = ctx.VAR(0).getText();
 
         // Label de la fonction
-        program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-        program.getInstructions().getLast().setLabel(functionName);
+        program.addInstruction(callOverhead(new UALi(UALi.Op.ADD, 0, 0, 0)));
+        program.setLabel(program.size() - 1, functionName);
 
         enterScope();
 
         int oldStart = this.startReg;
-        this.startReg = regCount;
+        this.startReg = context.getRegisterCount();
 
         int nbArgs = ctx.VAR().size() - 1;
 
@@ -1164,18 +1200,18 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
             // Créer un registre temporaire pour l'adresse
             int addrReg = newRegister();
-            program.addInstruction(new UALi(UALi.Op.SUB, addrReg, SP, offset));
+            program.addInstruction(callOverhead(new UALi(UALi.Op.SUB, addrReg, SP, offset)));
 
             // Charger l'argument dans un nouveau registre
             int argReg = newRegister();
-            program.addInstruction(new Mem(Mem.Op.LD, argReg, addrReg));
+            program.addInstruction(callOverhead(new Mem(Mem.Op.LD, argReg, addrReg)));
 
             // Associer la variable au registre
             declareVar(argName, argReg);
         }
 
         // Corps de la fonction
-        program.addInstructions(visitCore_fct(ctx.core_fct()));
+        program.addInstructions(visit(ctx.core_fct()));
 
         exitScope();
         this.startReg = oldStart;
@@ -1189,13 +1225,13 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // Évaluer l'expression retournée
         program.addInstructions(visit(ctx.expr()));
-        int resultReg = regCount - 1;
+        int resultReg = context.getRegisterCount() - 1;
 
         // Stocker le résultat dans le registre de retour
-        program.addInstruction(new Mem(Mem.Op.ST, resultReg, SP));
+        program.addInstruction(callOverhead(new Mem(Mem.Op.ST, resultReg, SP)));
 
         // Retour
-        program.addInstruction(new Ret());
+        program.addInstruction(callOverhead(new Ret()));
 
         return program;
     }
@@ -1211,13 +1247,16 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // S'il y a un return expr implicite à la fin
         if (ctx.expr() != null) {
-            program.addInstructions(visit(ctx.expr()));
-            int resultReg = regCount - 1;
+            Program returnProgram = new Program();
+            returnProgram.addInstructions(visit(ctx.expr()));
+            int resultReg = context.getRegisterCount() - 1;
 
             // Stocker le résultat dans le registre de retour
-            program.addInstruction(new Mem(Mem.Op.ST, resultReg, SP));
+            returnProgram.addInstruction(callOverhead(new Mem(Mem.Op.ST, resultReg, SP)));
 
-            program.addInstruction(new Ret());
+            returnProgram.addInstruction(callOverhead(new Ret()));
+            returnProgram.setSourceLine(ctx.expr().start.getLine());
+            program.addInstructions(returnProgram);
         }
 
         return program;
@@ -1234,25 +1273,25 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
         program.addInstruction(new UALi(UALi.Op.ADD, 1, 0, 1));
         program.addInstruction(new UAL(UAL.Op.XOR, 2, 2, 2));
 
-        regCount = 3;
+        context.resetRegisters();
 
         //  APPEL À MAIN
-        program.addInstruction(new JumpCall(JumpCall.Op.CALL, "main"));
+        program.addInstruction(callOverhead(new JumpCall(JumpCall.Op.CALL, "main")));
         program.addInstruction(new Stop());
 
         enterScope();
-        this.startReg = regCount;
+        this.startReg = context.getRegisterCount();
 
         // Générer le corps de main
-        Program mainBody = visitCore_fct(ctx.core_fct());
+        Program mainBody = visit(ctx.core_fct());
 
         // Attacher le label "main" à la première instruction du corps
-        if (!mainBody.getInstructions().isEmpty()) {
-            mainBody.getInstructions().getFirst().setLabel("main");
+        if (mainBody.size() > 0) {
+            mainBody.setLabel(0, "main");
         } else {
             // Cas edge : corps vide, créer une NOp
             program.addInstruction(new UALi(UALi.Op.ADD, 0, 0, 0));
-            program.getInstructions().getLast().setLabel("main");
+            program.setLabel(program.size() - 1, "main");
         }
 
         program.addInstructions(mainBody);
@@ -1261,7 +1300,7 @@ public class CodeGenerator  extends AbstractParseTreeVisitor<Program> implements
 
         // GÉNÉRER LES AUTRES FONCTIONS
         for (grammarTCLParser.Decl_fctContext decl : ctx.decl_fct()) {
-            program.addInstructions(visitDecl_fct(decl));
+            program.addInstructions(visit(decl));
         }
 
         exitScope(); // Fin scope global
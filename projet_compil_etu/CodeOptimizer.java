@@ -1,8 +1,17 @@
 import Asm.*;
+import Graph.DataflowSolver;
+import Graph.InterferenceGraph;
 import Graph.OrientedGraph;
-import Graph.UnorientedGraph;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 // Classe publique de l'optimiseur de code assembleur pour ne pas dépasser le nombre de registres de la machine
 public class CodeOptimizer {
@@ -23,47 +32,57 @@ public class CodeOptimizer {
     // Adresse mémoire de départ pour le Spill
     private static final int START_SPILL_ADDR = 50000;
 
-    private List<InstructionBlock> blocks;
+    // Fonctions du programme, dans l'ordre du programme (la première est la région d'initialisation)
+    private List<FunctionAllocation> functions;
 
-    private OrientedGraph<InstructionBlock> controlGraph;
-    private UnorientedGraph<Integer> conflictGraph;
+    // Instruction de chaque label du programme linéaire (ProgramBuffer.NONE s'il n'est placé nulle part)
+    private int[] labelTarget;
 
-    private int colorSize;
+    // Nombre d'exécutions de chaque bloc, par index de sa première instruction (null : pas de profil)
+    private Map<Integer, Long> blockCounts = null;
 
-    private Program program;
+    private ProgramBuffer program;
+
+    // Pool pour l'allocation des fonctions en parallèle (null : allocation séquentielle)
+    private ForkJoinPool pool = null;
 
     // Classe privée pour chaque bloc d'instructions
     private static class InstructionBlock{
-        private static int nbBlocks = 0;
         private final int id;
 
-        private final ArrayList<Instruction> instructions = new ArrayList<>();
+        // Le bloc contient les instructions d'index start (inclus) à end (exclu) du programme
+        private final int start;
+        private int end;
 
-        private final Set<Integer> gen = new HashSet<>();
-        private final Set<Integer> kill = new HashSet<>();
-        private final Set<Integer> lvEntry = new HashSet<>();
-        private final Set<Integer> lvExit = new HashSet<>();
+        // Ensembles de registres sous forme de bitsets, indexés par la numérotation compacte (voir numberRegisters)
+        private long[] gen;
+        private long[] kill;
+        private long[] lvEntry;
+        private long[] lvExit;
 
         /**
          * Constructeur du bloc d'instructions
          *
+         * @param id        Numéro du bloc (sa position dans la liste des blocs)
+         * @param start     Index de la première instruction du bloc
          */
-        public InstructionBlock(){
-            this.id = nbBlocks;
-            nbBlocks += 1;
+        public InstructionBlock(int id, int start){
+            this.id = id;
+            this.start = start;
+            this.end = start;
         }
 
         /**
          * Ajoute une instruction au bloc
          *
-         * @param instruction               Instruction à ajouter
-         * @throws NullPointerException     Si l'instruction est null
+         * @param index                         Index de l'instruction à ajouter
+         * @throws IllegalArgumentException     Si l'instruction ne suit pas la dernière instruction du bloc
          */
-        public void addInstruction(Instruction instruction) throws NullPointerException{
-            if(instruction != null){
-                instructions.add(instruction);
+        public void addInstruction(int index) throws IllegalArgumentException{
+            if(index == end){
+                end++;
             } else{
-                throw new NullPointerException();
+                throw new IllegalArgumentException("L'instruction " + index + " ne suit pas le bloc " + id);
             }
         }
     }
@@ -82,8 +101,64 @@ public class CodeOptimizer {
         this.TMP_REG_2 = nRegs - 2;
 
         this.REG_SPILL_PTR = nRegs - 3;
+    }
 
-        this.conflictGraph = new UnorientedGraph<Integer>();
+    /**
+     * Charge le profil d'une exécution d'entraînement du programme linéaire (voir Asm.Profile.writeBlockCounts) :
+     * les couleurs les plus utilisées dans les blocs les plus exécutés reçoivent les registres physiques,
+     * et ce sont les valeurs des chemins peu exécutés qui vont dans le Spill
+     *
+     * @param file                          Fichier du profil : une ligne « index nbExécutions » par bloc, # pour les commentaires
+     * @throws IOException                  Si le fichier ne peut pas être lu
+     * @throws IllegalArgumentException     Si une ligne est invalide
+     */
+    public void loadProfile(Path file) throws IOException, IllegalArgumentException{
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            loadProfile(reader);
+        }
+    }
+
+    /**
+     * Charge le profil d'une exécution d'entraînement depuis un flux (voir loadProfile(Path))
+     *
+     * @param source                        Profil : une ligne « index nbExécutions » par bloc, # pour les commentaires
+     * @throws IOException                  Si le flux ne peut pas être lu
+     * @throws IllegalArgumentException     Si une ligne est invalide
+     */
+    public void loadProfile(Reader source) throws IOException, IllegalArgumentException{
+        Map<Integer, Long> counts = new HashMap<>();
+        // Le flux n'est pas fermé : il appartient à l'appelant
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while((line = reader.readLine()) != null){
+            lineNumber++;
+            line = line.strip();
+            if(line.isEmpty() || line.startsWith("#")){
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            try{
+                if(words.length != 2){
+                    throw new NumberFormatException();
+                }
+                counts.put(Integer.parseInt(words[0]), Long.parseLong(words[1]));
+            } catch(NumberFormatException e){
+                throw new IllegalArgumentException("Ligne " + lineNumber + " : profil invalide : " + line);
+            }
+        }
+        this.blockCounts = counts;
+    }
+
+    /**
+     * Active l'allocation des fonctions en parallèle. Chaque fonction n'écrit que dans sa propre allocation
+     * et le programme final est toujours assemblé dans l'ordre du programme : le résultat est identique
+     * à celui de l'allocation séquentielle.
+     *
+     * @param pool          Pool sur lequel allouer les fonctions, null pour une allocation séquentielle
+     */
+    public void setParallel(ForkJoinPool pool){
+        this.pool = pool;
     }
 
     /**
@@ -93,582 +168,698 @@ public class CodeOptimizer {
      * @return              Programme optimisé
      */
     public Program optimize(Program program){
-        this.program = program;
-
-        // Construction du graphe de contrôle
-        buildControlGraph();
-
-        // Calcul des LVentry et des LVexit
-        computeLiveness();
-
-        // Construction du graphe de conflit
-        buildConflictGraph();
-
-        // Coloration du graphe de conflit
-        this.colorSize = conflictGraph.color();
-
-        return applyAllocation();
+        return optimize(ProgramBuffer.from(program)).toProgram();
     }
 
     /**
-     * Construis le graphe de contrôle
+     * Optimise le code du programme fourni, sous sa forme compacte, pour n'utiliser qu'un nombre maximal de registres.
+     * Chaque fonction a son propre graphe de contrôle, son propre graphe de conflit et son propre cadre de Spill :
+     * les registres virtuels de CodeGenerator ne sont jamais partagés entre fonctions, et les registres vivants
+     * au moment d'un CALL sont sauvegardés sur la pile par le code linéaire lui-même.
      *
+     * @param program       Programme à optimiser
+     * @return              Programme optimisé (partageant la table des labels de program)
      */
-    private void buildControlGraph(){
-        this.controlGraph = new OrientedGraph<InstructionBlock>();
+    public ProgramBuffer optimize(ProgramBuffer program){
+        this.program = program;
 
-        // On crée des blocs d'instructions
-        createBlocks();
+        // Découpage du programme en fonctions
+        splitFunctions();
 
-        // On ajoute chaque bloc en tant que sommet du graphe de contrôle
-        for (InstructionBlock block : blocks) {
-            controlGraph.addVertex(block);
+        if(pool != null && functions.size() > 1){
+            pool.invoke(new AllocationTask(0, functions.size()));
+        } else{
+            for(FunctionAllocation function : functions){
+                function.allocate();
+            }
         }
 
-        // On ajoute les arêtes du graphe de contrôle
-        linkBlocks();
+        return applyAllocation();
     }
 
     /**
-     * Créer les blocs d'instructions du programme assembleur
+     * Découpe le programme en fonctions : une fonction commence à la cible d'un CALL et s'arrête au début
+     * de la fonction suivante. Les instructions avant la première fonction (initialisation) forment une région
+     * à part, sans cadre de Spill.
      *
      */
-    private void createBlocks(){
-        InstructionBlock.nbBlocks = 0;
-        this.blocks = new ArrayList<>();
-
-        ArrayList<Instruction> instructions = program.getInstructions();
-
-        InstructionBlock block = new InstructionBlock();
-        block.addInstruction(instructions.getFirst());
-        for(int i = 1; i < instructions.size(); i++){
-            if(instructions.get(i-1) instanceof JumpCall || instructions.get(i-1) instanceof CondJump || !instructions.get(i).getLabel().isEmpty()){
-                blocks.add(block);
-                block = new InstructionBlock();
-                block.addInstruction(instructions.get(i));
+    private void splitFunctions(){
+        this.labelTarget = new int[program.getNbLabels()];
+        Arrays.fill(labelTarget, ProgramBuffer.NONE);
+        boolean[] functionLabels = new boolean[program.getNbLabels()];
+
+        // On parcourt tout le programme pour trouver les labels des fonctions (des CALL) et l'instruction de chaque label
+        for(int i = 0; i < program.size(); i++){
+            if(program.getLabel(i) != ProgramBuffer.NONE){
+                labelTarget[program.getLabel(i)] = i;
             }
-            else{
-                block.addInstruction(instructions.get(i));
+            if(program.getOpcode(i) == Opcode.CALL){
+                functionLabels[program.getImm(i)] = true;
+            }
+        }
+
+        this.functions = new ArrayList<>();
+        int start = 0;
+        boolean isFunction = false;
+        for(int i = 1; i <= program.size(); i++){
+            boolean functionStart = i < program.size() && program.getLabel(i) != ProgramBuffer.NONE && functionLabels[program.getLabel(i)];
+            if(functionStart || i == program.size()){
+                functions.add(new FunctionAllocation(start, i, isFunction));
+                start = i;
+                isFunction = true;
             }
         }
-        blocks.add(block);
     }
 
     /**
-     * Ajoute les arêtes liant les blocs se succédant entre eux au graphe de contrôle
+     * Permet de récupérer les registres utilisés dans une instruction
      *
+     * @param i                     L'index de l'instruction dans laquelle chercher les registres
+     * @param reads                 Tableau (de taille 2) rempli avec les registres utilisés
+     * @return                      Le nombre de registres utilisés
      */
-    private void linkBlocks(){
-        Map<String, InstructionBlock> labelToBlock = new HashMap<>();
-
-        // ÉTAPE 1 : On associe chaque bloc au label de la première instruction s'il en a un
-        for(InstructionBlock block : blocks){
-            if(!block.instructions.isEmpty()){
-                String label = block.instructions.getFirst().getLabel();
-                if(label != null && !label.isEmpty()){
-                    labelToBlock.put(label, block);
-                }
-            }
-        }
-
-        // ÉTAPE 2 : On analyse la dernière instruction de chaque bloc afin de déterminer quelles peuvent être les instructions suivantes
-        for(int i = 0; i < blocks.size(); i++){
-            InstructionBlock block = blocks.get(i);
-            Instruction lastInstruction = block.instructions.getLast();
-
-            // Cas 1 : C'est un saut simple
-            if(lastInstruction instanceof JumpCall && labelToBlock.containsKey(((JumpCall) lastInstruction).getAddress())){
-
-                // Sous-cas 1 : L'instruction est un CALL, on ajoute alors l'instruction suivante
-                if(lastInstruction.getName().equals(JumpCall.Op.CALL.toString())){
-                    if(i < blocks.size() - 1){
-                        controlGraph.addEdge(block, blocks.get(block.id + 1));
-                    }
-                }
-
-                // Sous-cas 2 : L'instruction est un JMP, on ajoute alors l'instruction correspondant au label fourni
-                else {
-                    controlGraph.addEdge(block, labelToBlock.get(((JumpCall) lastInstruction).getAddress()));
-                }
-            }
-
-            // Cas 2 : C'est un saut conditionnel
-            else if(lastInstruction instanceof CondJump && labelToBlock.containsKey(((CondJump) lastInstruction).getAddress())){
-                controlGraph.addEdge(block, labelToBlock.get(((CondJump) lastInstruction).getAddress()));
-
-                if(i < blocks.size() - 1){
-                    controlGraph.addEdge(block, blocks.get(block.id + 1));
-                }
-            }
+    private int getReadRegisters(int i, int[] reads){
+        int sr1 = program.getSrc1(i);
+        int sr2 = program.getSrc2(i);
 
-            // Cas 3 : Ce n'est pas une instruction de saut
-            else if(!(lastInstruction instanceof Ret) && !(lastInstruction instanceof Stop)){
-                if(i < blocks.size() - 1){
-                    controlGraph.addEdge(block, blocks.get(block.id + 1));
-                }
-            }
+        // L'opération XOR entre deux mêmes registres renvoie toujours 0 : c'est ce qui permet l'initialisation d'une variable, qui n'était donc pas vivante avant
+        if(program.getOpcode(i) == Opcode.XOR && sr1 == sr2){
+            return 0;
+        }
 
-            // Cas 4 : C'est une instruction d'arrêt (ne rien faire)
+        // Les colonnes src1 et src2 contiennent les registres lus quelle que soit l'opération
+        // On ne prend pas en compte les registres réservés (ni les colonnes inutilisées)
+        int nbReads = 0;
+        if(sr1 >= START_REG){
+            reads[nbReads++] = sr1;
         }
+        if(sr2 >= START_REG){
+            reads[nbReads++] = sr2;
+        }
+        return nbReads;
     }
 
     /**
-     * Calcule les LVentry et les LVexit de chaque bloc
+     * Permet de récupérer le registre écrasé dans une instruction
      *
+     * @param i                     L'index de l'instruction dans laquelle chercher le registre
+     * @return                      Le registre écrasé, ProgramBuffer.NONE s'il n'y en a pas
      */
-    private void computeLiveness(){
-        computeGenKill();
-
-        boolean changed = true;
-        while(changed){
-            changed = false;
-
-            // Parcours à l'envers pour optimiser le nombre d'itérations
-            for(int i = blocks.size() - 1; i >= 0; i--){
-                InstructionBlock block = blocks.get(i);
-
-                List<InstructionBlock> neighbors = controlGraph.getOutNeighbors(block);
-
-                // Calcul du LVexit avec la formule : LVexit(n) = Union(LVentry(s)) pour tous les successeurs s de n
-                Set<Integer> lvExit = new HashSet<>();
-                for(InstructionBlock neighbor : neighbors){
-                    lvExit.addAll(neighbor.lvEntry);
-                }
+    private int getWrittenRegister(int i){
+        int write = program.getDest(i);
 
-                // Calcul du LVentry avec la formule : LVentry(n) = Gen(n) U (LVexit(n) - Kill(n))
-                Set<Integer> lvEntry = new HashSet<>(block.gen);
-                for(Integer exit : lvExit){
-                    if(!block.kill.contains(exit)){
-                        lvEntry.add(exit);
-                    }
-                }
-
-                // Vérifie si le bloc a été modifié (si c'est le cas pour un bloc, on recalculera pour chaque bloc)
-                if(!block.lvExit.equals(lvExit) || !block.lvEntry.equals(lvEntry)){
-                    block.lvExit.addAll(lvExit);
-                    block.lvEntry.addAll(lvEntry);
-                    changed = true;
-                }
-            }
+        // On ne prend pas en compte les registres réservés
+        if(write < START_REG){
+            return ProgramBuffer.NONE;
         }
+        return write;
     }
 
     /**
-     * Calcule les variables générées et tuées de chaque bloc
+     * Teste si un index est dans un bitset
      *
+     * @param set           Bitset
+     * @param index         Index
+     * @return              true si le bit de l'index est à 1
      */
-    private void computeGenKill(){
-        for(InstructionBlock block : blocks){
-            for(Instruction  instruction : block.instructions){
-                List<Integer> reads = getReadRegisters(instruction);
-                Integer write = getWrittenRegister(instruction);
-
-                for(Integer reg : reads){
-                    if(!block.kill.contains(reg)){
-                        block.gen.add(reg);
-                    }
-                }
-
-                if(write != null){
-                    block.kill.add(write);
-                }
-            }
-        }
+    private static boolean contains(long[] set, int index){
+        return (set[index >>> 6] & (1L << index)) != 0;
     }
 
     /**
-     * Permet de récupérer les registres utilisés dans une instruction
+     * Ajoute un index à un bitset
      *
-     * @param instruction           L'instruction dans laquelle chercher les registres
-     * @return                      Les registres utilisés
+     * @param set           Bitset
+     * @param index         Index
      */
-    private List<Integer> getReadRegisters(Instruction instruction){
-        List<Integer> readRegisters = new ArrayList<>();
+    private static void add(long[] set, int index){
+        set[index >>> 6] |= 1L << index;
+    }
 
-        // Cas 1 : L'instruction est une instruction UAL
-        if(instruction instanceof UAL ual){
+    /**
+     * Enlève un index d'un bitset
+     *
+     * @param set           Bitset
+     * @param index         Index
+     */
+    private static void remove(long[] set, int index){
+        set[index >>> 6] &= ~(1L << index);
+    }
 
-            // L'opération XOR entre deux mêmes registres renvoie toujours 0 : c'est ce qui permet l'initialisation d'une variable, qui n'était donc pas vivante avant
-            if(!instruction.getName().equals(UAL.Op.XOR.toString()) || ual.getSr1() != ual.getSr2()){
-                readRegisters.add(ual.getSr1());
-                readRegisters.add(ual.getSr2());
-            }
+    // Tâche d'allocation des fonctions d'index from inclus à to exclu, coupée en deux tant qu'elle en contient plusieurs
+    private class AllocationTask extends RecursiveAction{
+        private static final long serialVersionUID = 1L;
 
-        }
+        private final int from;
+        private final int to;
 
-        // Cas 2 : L'instruction est une instruction UAL immédiate
-        else if(instruction instanceof UALi uali){
-            readRegisters.add(uali.getSr());
+        /**
+         * Constructeur de la tâche
+         *
+         * @param from          Index de la première fonction
+         * @param to            Index après la dernière fonction
+         */
+        public AllocationTask(int from, int to){
+            this.from = from;
+            this.to = to;
         }
 
-        // Cas 3 : L'instruction est un saut conditionnel
-        else if(instruction instanceof CondJump condJump){
-            readRegisters.add(condJump.getSr1());
-            readRegisters.add(condJump.getSr2());
+        @Override
+        protected void compute(){
+            if(to - from == 1){
+                functions.get(from).allocate();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new AllocationTask(from, middle), new AllocationTask(middle, to));
         }
+    }
 
-        // Cas 4 : L'instruction est une instruction mémoire
-        else if(instruction instanceof Mem mem){
+    // Classe privée pour l'allocation des registres d'une fonction (instructions d'index start inclus à end exclu)
+    private class FunctionAllocation{
+        private final int start;
+        private final int end;
 
-            // Sous-cas 1 : L'instruction est un LD
-            if(mem.getName().equals(Mem.Op.LD.toString())){
-                readRegisters.add(mem.getAddress());
-            }
+        // false pour la région d'initialisation, qui n'a pas de cadre de Spill
+        private final boolean isFunction;
 
-            // Sous-cas 2 : L'instruction est un ST
-            else{
-                readRegisters.add(mem.getDest());
-                readRegisters.add(mem.getAddress());
-            }
-        }
+        private List<InstructionBlock> blocks;
 
-        // Cas 5 : L'instruction est une instruction d'entrée-sortie
-        else if(instruction instanceof IO io){
+        private OrientedGraph<InstructionBlock> controlGraph;
 
-            // Sous-cas 1 : L'instruction est un OUT ou un PRINT
-            if(io.getName().equals(IO.Op.OUT.toString()) || io.getName().equals(IO.Op.PRINT.toString())){
-                readRegisters.add(io.getReg());
-            }
+        // Successeurs de chaque bloc dans le graphe de contrôle, par numéro de bloc
+        private InstructionBlock[][] successors;
+        // Graphe de conflit, dont les sommets sont les index compacts des registres
+        private InterferenceGraph conflictGraph;
 
-            // Sous-cas 2 : L'instruction est un IN ou un READ (ne rien faire)
-        }
+        private int colorSize;
 
-        // On ne prend pas en compte les registres réservés
-        readRegisters.removeIf(reg -> reg < START_REG);
+        // Rang de chaque couleur : les NB_REG_MAX premiers rangs reçoivent un registre physique, les suivants vont dans le Spill
+        private int[] colorRank;
 
-        return readRegisters;
-    }
+        // Numérotation compacte des registres virtuels de la fonction, dans l'ordre de première apparition :
+        // index de chaque registre (registerIndex[r - registerBase], -1 s'il n'apparaît pas) et registre de chaque index
+        private int registerBase;
+        private int[] registerIndex;
+        private int[] indexRegister;
+        private int nbRegisters;
 
-    /**
-     * Permet de récupérer le registre écrasé dans une instruction
-     *
-     * @param instruction           L'instruction dans laquelle chercher le registre
-     * @return                      Le registre écrasé
-     */
-    private Integer getWrittenRegister(Instruction instruction){
-        Integer write = null;
+        // Nombre de mots de 64 bits des bitsets de registres
+        private int nbWords;
 
-        // Cas 1 : L'instruction est une instruction UAL
-        if(instruction instanceof UAL ual){
-            write = ual.getDest();
+        /**
+         * Constructeur de l'allocation d'une fonction
+         *
+         * @param start         Index de la première instruction de la fonction
+         * @param end           Index de la première instruction après la fonction
+         * @param isFunction    false pour la région d'initialisation
+         */
+        public FunctionAllocation(int start, int end, boolean isFunction){
+            this.start = start;
+            this.end = end;
+            this.isFunction = isFunction;
         }
 
-        // Cas 2 : L'instruction est une instruction UAL immédiate
-        else if(instruction instanceof UALi uali){
-            write = uali.getDest();
-        }
+        /**
+         * Alloue les registres de la fonction : graphe de contrôle, vivacité, graphe de conflit, coloration
+         *
+         */
+        public void allocate(){
+            // Construction du graphe de contrôle
+            buildControlGraph();
 
-        // Cas 3 : L'instruction est une instruction mémoire
-        else if(instruction instanceof Mem mem){
+            // Calcul des LVentry et des LVexit
+            computeLiveness();
 
-            // Sous-cas 1 : L'instruction est un LD
-            if(mem.getName().equals(Mem.Op.LD.toString())){
-                write = mem.getDest();
-            }
+            // Construction du graphe de conflit
+            buildConflictGraph();
 
-            // Sous-cas 2 : L'instruction est un ST (ne rien faire)
+            // Coloration du graphe de conflit
+            this.colorSize = conflictGraph.color();
+
+            // Choix des couleurs qui vont dans le Spill
+            this.colorRank = rankColors();
+        }
+
+        /**
+         * Taille du cadre de Spill de la fonction
+         *
+         * @return              Nombre de registres virtuels de la fonction qui n'ont pas de registre physique
+         */
+        public int getSpillSize(){
+            return Math.max(0, colorSize - NB_REG_MAX);
         }
 
-        // Cas 4 : L'instruction est une instruction d'entrée-sortie
-        else if(instruction instanceof IO io){
+        /**
+         * Construis le graphe de contrôle
+         *
+         */
+        private void buildControlGraph(){
+            this.controlGraph = new OrientedGraph<InstructionBlock>();
+
+            // On crée des blocs d'instructions
+            createBlocks();
 
-            // Sous-cas 1 : L'instruction est un IN ou un READ
-            if(io.getName().equals(IO.Op.IN.toString()) || io.getName().equals(IO.Op.READ.toString())){
-                write = io.getReg();
+            // On ajoute chaque bloc en tant que sommet du graphe de contrôle
+            for (InstructionBlock block : blocks) {
+                controlGraph.addVertex(block);
             }
 
-            // Sous-cas 2 : L'instruction est un OUT ou un PRINT (ne rien faire)
+            // On ajoute les arêtes du graphe de contrôle
+            linkBlocks();
         }
 
-        // On ne prend pas en compte les registres réservés
-        if(write != null && write < START_REG){
-            return null;
+        /**
+         * Créer les blocs d'instructions de la fonction
+         *
+         */
+        private void createBlocks(){
+            this.blocks = new ArrayList<>();
+
+            InstructionBlock block = new InstructionBlock(0, start);
+            block.addInstruction(start);
+            for(int i = start + 1; i < end; i++){
+                Opcode.Format previous = program.getOpcode(i-1).getFormat();
+                if(previous == Opcode.Format.JUMP_CALL || previous == Opcode.Format.COND_JUMP || program.getLabel(i) != ProgramBuffer.NONE){
+                    blocks.add(block);
+                    block = new InstructionBlock(blocks.size(), i);
+                }
+                block.addInstruction(i);
+            }
+            blocks.add(block);
         }
-        return write;
-    }
 
-    /**
-     * Construis le graphe de conflit des registres utilisés
-     *
-     */
-    private void buildConflictGraph(){
-        this.conflictGraph = new UnorientedGraph<Integer>();
-
-        // Étape 1 : Initialisation des sommets du graphe
-        for(InstructionBlock block : blocks){
-            for(Instruction instruction : block.instructions){
-                Integer write = getWrittenRegister(instruction);
-                if(write != null && write >= START_REG){
-                    conflictGraph.addVertex(write);
-                }
+        /**
+         * Bloc de la fonction commençant à l'instruction d'un label
+         *
+         * @param label         Label visé par un saut
+         * @return              Le bloc, null si le label n'est pas dans la fonction
+         */
+        private InstructionBlock getBlockOfLabel(int label){
+            int target = labelTarget[label];
+            if(target < start || target >= end){
+                return null;
+            }
 
-                for(Integer read : getReadRegisters(instruction)){
-                    if(read >= START_REG){
-                        conflictGraph.addVertex(read);
-                    }
+            // Recherche dichotomique parmi les débuts de blocs (un label commence toujours un bloc)
+            int low = 0;
+            int high = blocks.size() - 1;
+            while(low <= high){
+                int middle = (low + high) >>> 1;
+                int blockStart = blocks.get(middle).start;
+                if(blockStart == target){
+                    return blocks.get(middle);
+                } else if(blockStart < target){
+                    low = middle + 1;
+                } else{
+                    high = middle - 1;
                 }
             }
+            return null;
         }
 
-        // Étape 2 : Construction des arêtes du graphe
-        for(InstructionBlock block : blocks) {
-            Set<Integer> currentlyLive = new HashSet<>(block.lvExit);
-
-            // On lit les instructions à l'envers
-            for(int i = block.instructions.size() - 1; i >= 0; i--){
-                Instruction instruction = block.instructions.get(i);
-
-                Integer write = getWrittenRegister(instruction);
-                List<Integer> reads = getReadRegisters(instruction);
-
-                if(write != null && write >= START_REG){
+        /**
+         * Ajoute les arêtes liant les blocs se succédant entre eux au graphe de contrôle
+         *
+         */
+        private void linkBlocks(){
+            // On analyse la dernière instruction de chaque bloc afin de déterminer quelles peuvent être les instructions suivantes
+            for(int i = 0; i < blocks.size(); i++){
+                InstructionBlock block = blocks.get(i);
+                int last = block.end - 1;
+                boolean hasNext = i < blocks.size() - 1;
+
+                switch(program.getOpcode(last)){
+
+                    // Cas 1 : C'est un saut simple, on ajoute alors l'instruction correspondant au label fourni
+                    case JMP -> {
+                        InstructionBlock target = getBlockOfLabel(program.getImm(last));
+                        if(target != null){
+                            controlGraph.addEdge(block, target);
+                        } else if(hasNext){
+                            controlGraph.addEdge(block, blocks.get(block.id + 1));
+                        }
+                    }
 
-                    // On relie les registres en conflit
-                    for(Integer liveReg : currentlyLive){
-                        if(!liveReg.equals(write)){
-                            conflictGraph.addEdge(write, liveReg);
+                    // Cas 2 : C'est un saut conditionnel
+                    case JINF, JEQU, JSUP, JNEQ, JIEQ, JSEQ -> {
+                        InstructionBlock target = getBlockOfLabel(program.getImm(last));
+                        if(target != null){
+                            controlGraph.addEdge(block, target);
+                        }
+                        if(hasNext){
+                            controlGraph.addEdge(block, blocks.get(block.id + 1));
                         }
                     }
 
-                    // Puisque l'on lit à l'envers, le registre n'était pas vivant avant : on l'enlève
-                    currentlyLive.remove(write);
-                }
+                    // Cas 3 : C'est une instruction d'arrêt (ne rien faire)
+                    case RET, STOP -> {}
 
-                // Les instructions utilisées étaient vivantes avant cette instruction : on les ajoute
-                for(Integer read : reads){
-                    if(read >= START_REG){
-                        currentlyLive.add(read);
+                    // Cas 4 : Ce n'est pas une instruction de saut, ou c'est un CALL : on ajoute alors l'instruction suivante
+                    default -> {
+                        if(hasNext){
+                            controlGraph.addEdge(block, blocks.get(block.id + 1));
+                        }
                     }
                 }
             }
         }
-    }
 
-    /**
-     * Permet de récupérer le programme après l'échange des anciens registres par les nouveaux
-     *
-     * @return                                  Le programme final
-     * @throws IllegalArgumentException         Si une opération n'est pas reconnue dans le langage assembleur
-     */
-    private Program applyAllocation() throws IllegalArgumentException {
-        Program newProgram = new Program();
+        /**
+         * Calcule les LVentry et les LVexit de chaque bloc, par liste de travail (voir Graph.DataflowSolver) :
+         * un bloc n'est recalculé que si le LVentry d'un de ses successeurs a changé
+         *
+         */
+        private void computeLiveness(){
+            numberRegisters();
+            computeGenKill();
+
+            // Successeurs de chaque bloc, lus une seule fois dans le graphe de contrôle
+            this.successors = new InstructionBlock[blocks.size()][];
+            for(InstructionBlock block : blocks){
+                successors[block.id] = controlGraph.getOutNeighbors(block).toArray(new InstructionBlock[0]);
+            }
 
-        newProgram.addInstruction(new UAL(UAL.Op.XOR, REG_SPILL_PTR, REG_SPILL_PTR, REG_SPILL_PTR));
-        newProgram.addInstruction(new UALi(UALi.Op.ADD, REG_SPILL_PTR, REG_SPILL_PTR, START_SPILL_ADDR));
+            new DataflowSolver<InstructionBlock>(controlGraph, DataflowSolver.Direction.BACKWARD).solve(this::updateLiveness);
+        }
 
-        Set<String> functionLabels = new HashSet<>();
+        /**
+         * Recalcule le LVexit et le LVentry d'un bloc à partir des LVentry de ses successeurs
+         *
+         * @param block         Bloc à recalculer
+         * @return              true si le LVentry du bloc a changé (ses prédécesseurs sont alors à recalculer)
+         */
+        private boolean updateLiveness(InstructionBlock block){
+            InstructionBlock[] next = successors[block.id];
+            boolean changed = false;
+
+            // Les ensembles ne font que grandir : ils sont mis à jour sur place, mot par mot
+            for(int w = 0; w < nbWords; w++){
+
+                // Calcul du LVexit avec la formule : LVexit(n) = Union(LVentry(s)) pour tous les successeurs s de n
+                long exit = 0;
+                for(InstructionBlock neighbor : next){
+                    exit |= neighbor.lvEntry[w];
+                }
+                block.lvExit[w] = exit;
 
-        // On parcourt tout le programme pour trouver les labels des fonctions (des CALL)
-        for (Instruction instr : this.program.getInstructions()) {
-            if (instr instanceof JumpCall && instr.getName().equals(JumpCall.Op.CALL.toString())) {
-                functionLabels.add(((JumpCall) instr).getAddress());
+                // Calcul du LVentry avec la formule : LVentry(n) = Gen(n) U (LVexit(n) - Kill(n))
+                long entry = block.gen[w] | (exit & ~block.kill[w]);
+                if(entry != block.lvEntry[w]){
+                    block.lvEntry[w] = entry;
+                    changed = true;
+                }
             }
+            return changed;
         }
 
-        // On récupère la taille du Spill
-        int spillSize = Math.max(0, colorSize - NB_REG_MAX);
+        /**
+         * Numérote les registres virtuels de la fonction de 0 à nbRegisters - 1, dans l'ordre de leur première apparition
+         * (pour chaque instruction, le registre écrit puis les registres lus) : les numéros de registres
+         * de CodeGenerator ne sont jamais réutilisés, les bitsets sont donc indexés par cette numérotation compacte
+         *
+         */
+        private void numberRegisters(){
+            int[] reads = new int[2];
+
+            // Les registres d'une fonction forment un intervalle presque plein : la table est limitée à cet intervalle
+            int minRegister = Integer.MAX_VALUE;
+            int maxRegister = START_REG;
+            for(int i = start; i < end; i++){
+                int write = getWrittenRegister(i);
+                if(write != ProgramBuffer.NONE){
+                    minRegister = Math.min(minRegister, write);
+                    maxRegister = Math.max(maxRegister, write);
+                }
+                int nbReads = getReadRegisters(i, reads);
+                for(int r = 0; r < nbReads; r++){
+                    minRegister = Math.min(minRegister, reads[r]);
+                    maxRegister = Math.max(maxRegister, reads[r]);
+                }
+            }
+            this.registerBase = Math.min(minRegister, maxRegister);
 
-        for (Instruction instruction : this.program.getInstructions()) {
+            this.registerIndex = new int[maxRegister - registerBase + 1];
+            Arrays.fill(registerIndex, -1);
+            this.indexRegister = new int[16];
+            this.nbRegisters = 0;
 
-            // Gestion de la pile
-            String label = instruction.getLabel();
-            if(label != null && functionLabels.contains(label) && spillSize > 0){
+            for(int i = start; i < end; i++){
+                int write = getWrittenRegister(i);
+                if(write != ProgramBuffer.NONE){
+                    addRegister(write);
+                }
+                int nbReads = getReadRegisters(i, reads);
+                for(int r = 0; r < nbReads; r++){
+                    addRegister(reads[r]);
+                }
+            }
+            this.nbWords = (nbRegisters + 63) >>> 6;
+        }
 
-                // La nouvelle instruction devient celle avec le label de la fonction
-                Instruction allocInstruction = new UALi(label, UALi.Op.ADD, REG_SPILL_PTR, REG_SPILL_PTR, spillSize);
-                instruction.setLabel("");
-                newProgram.addInstruction(allocInstruction);
+        /**
+         * Donne un index au registre s'il n'en a pas encore
+         *
+         * @param register      Registre virtuel
+         */
+        private void addRegister(int register){
+            if(registerIndex[register - registerBase] != -1){
+                return;
             }
-            if(instruction instanceof Ret && spillSize > 0){
-                newProgram.addInstruction(new UALi(UALi.Op.SUB, REG_SPILL_PTR, REG_SPILL_PTR, spillSize));
+            if(nbRegisters == indexRegister.length){
+                indexRegister = Arrays.copyOf(indexRegister, nbRegisters * 2);
             }
+            registerIndex[register - registerBase] = nbRegisters;
+            indexRegister[nbRegisters++] = register;
+        }
 
-            // Cas 1 : Instruction UAL
-            if (instruction instanceof UAL ual) {
+        /**
+         * Index compact d'un registre virtuel de la fonction
+         *
+         * @param register      Registre virtuel
+         * @return              Son index dans les bitsets
+         */
+        private int indexOf(int register){
+            return registerIndex[register - registerBase];
+        }
 
-                // Registre Destination
-                int dest = getPhysicalRegister(ual.getDest());
-                dest = dest == -1 ? TMP_REG_1 : dest;
+        /**
+         * Calcule les variables générées et tuées de chaque bloc
+         *
+         */
+        private void computeGenKill(){
+            int[] reads = new int[2];
+
+            for(InstructionBlock block : blocks){
+                block.gen = new long[nbWords];
+                block.kill = new long[nbWords];
+                block.lvEntry = new long[nbWords];
+                block.lvExit = new long[nbWords];
+
+                for(int i = block.start; i < block.end; i++){
+                    int nbReads = getReadRegisters(i, reads);
+                    int write = getWrittenRegister(i);
+
+                    for(int r = 0; r < nbReads; r++){
+                        int index = indexOf(reads[r]);
+                        if(!contains(block.kill, index)){
+                            add(block.gen, index);
+                        }
+                    }
 
-                // Registre Source 1
-                int sr1 = getPhysicalRegister(ual.getSr1());
-                if(sr1 == -1){
-                    newProgram.addInstructions(loadSpill(ual.getSr1(), TMP_REG_1));
-                    sr1 = TMP_REG_1;
+                    if(write != ProgramBuffer.NONE){
+                        add(block.kill, indexOf(write));
+                    }
                 }
+            }
+        }
 
-                // Registre source 2
-                int sr2 = getPhysicalRegister(ual.getSr2());
-                if(sr2 == -1){
-                    newProgram.addInstructions(loadSpill(ual.getSr2(), TMP_REG_2));
-                    sr2 = TMP_REG_2;
-                }
+        /**
+         * Construis le graphe de conflit des registres utilisés
+         *
+         */
+        private void buildConflictGraph(){
+            // Étape 1 : Un sommet par registre, dans l'ordre de première apparition (ordre de la numérotation compacte)
+            this.conflictGraph = new InterferenceGraph(nbRegisters);
+            int[] reads = new int[2];
+
+            // Étape 2 : Construction des arêtes du graphe
+            long[] currentlyLive = new long[nbWords];
+            for(InstructionBlock block : blocks) {
+                System.arraycopy(block.lvExit, 0, currentlyLive, 0, nbWords);
+
+                // On lit les instructions à l'envers
+                for(int i = block.end - 1; i >= block.start; i--){
+                    int write = getWrittenRegister(i);
+                    int nbReads = getReadRegisters(i, reads);
+
+                    if(write != ProgramBuffer.NONE){
+                        int writeIndex = indexOf(write);
+
+                        // On relie les registres en conflit (parcours des bits à 1 de chaque mot)
+                        for(int w = 0; w < nbWords; w++){
+                            long bits = currentlyLive[w];
+                            while(bits != 0){
+                                int liveIndex = (w << 6) + Long.numberOfTrailingZeros(bits);
+                                bits &= bits - 1;
+                                conflictGraph.addEdge(writeIndex, liveIndex);
+                            }
+                        }
 
-                // Instruction modifiée
-                newProgram.addInstruction(new UAL(
-                        ual.getLabel(),
-                        UAL.Op.valueOf(ual.getName()),
-                        dest,
-                        sr1,
-                        sr2
-                ));
+                        // Puisque l'on lit à l'envers, le registre n'était pas vivant avant : on l'enlève
+                        remove(currentlyLive, writeIndex);
+                    }
 
-                // Si dest était dans le Spill, on remet le résultat en mémoire
-                if(dest == TMP_REG_1){
-                    newProgram.addInstructions(storeSpill(ual.getDest(), TMP_REG_2, dest));
+                    // Les instructions utilisées étaient vivantes avant cette instruction : on les ajoute
+                    for(int r = 0; r < nbReads; r++){
+                        add(currentlyLive, indexOf(reads[r]));
+                    }
                 }
             }
+        }
 
-            // Cas 2 : Instruction UAL immédiate
-            else if(instruction instanceof UALi uali){
-
-                // Registre Destination
-                int dest = getPhysicalRegister(uali.getDest());
-                dest = dest == -1 ? TMP_REG_1 : dest;
+        /**
+         * Ordonne les couleurs du graphe de conflit. Deux registres de même couleur ne sont jamais vivants en même temps :
+         * on peut donc échanger les couleurs entre elles, et choisir celles qui reçoivent un registre physique.
+         * Sans profil, l'ordre de la coloration est gardé ; avec un profil, chaque couleur est pondérée par les lectures
+         * et écritures de ses registres, chacune comptée autant de fois que son bloc a été exécuté.
+         *
+         * @return                  Rang de chaque couleur
+         */
+        private int[] rankColors(){
+            int[] rank = new int[colorSize];
+            for(int c = 0; c < colorSize; c++){
+                rank[c] = c;
+            }
+            if(blockCounts == null || colorSize <= NB_REG_MAX){
+                return rank;
+            }
 
-                // Registre Source
-                int sr = getPhysicalRegister(uali.getSr());
-                if(sr == -1){
-                    newProgram.addInstructions(loadSpill(uali.getSr(), TMP_REG_1));
-                    sr = TMP_REG_1;
+            long[] weight = new long[colorSize];
+            int[] reads = new int[2];
+            for(InstructionBlock block : blocks){
+                long frequency = blockCounts.getOrDefault(block.start, 0L);
+                if(frequency == 0){
+                    continue;
                 }
-
-                // Instruction modifiée
-                newProgram.addInstruction(new UALi(
-                        uali.getLabel(),
-                        UALi.Op.valueOf(uali.getName()),
-                        dest,
-                        sr,
-                        uali.getImm()
-                ));
-
-                // Si dest était dans le Spill, on remet le résultat en mémoire
-                if(dest == TMP_REG_1){
-                    newProgram.addInstructions(storeSpill(uali.getDest(), TMP_REG_2, dest));
+                for(int i = block.start; i < block.end; i++){
+                    int nbReads = getReadRegisters(i, reads);
+                    for(int r = 0; r < nbReads; r++){
+                        weight[conflictGraph.getColor(indexOf(reads[r]))] += frequency;
+                    }
+                    int write = getWrittenRegister(i);
+                    if(write != ProgramBuffer.NONE){
+                        weight[conflictGraph.getColor(indexOf(write))] += frequency;
+                    }
                 }
             }
 
-            // Cas 3 : Instruction de saut conditionnel
-            else if(instruction instanceof CondJump condJump){
+            // Tri stable par poids décroissant : à poids égal, l'ordre de la coloration est gardé
+            Integer[] colors = new Integer[colorSize];
+            for(int c = 0; c < colorSize; c++){
+                colors[c] = c;
+            }
+            Arrays.sort(colors, (a, b) -> Long.compare(weight[b], weight[a]));
+            for(int k = 0; k < colorSize; k++){
+                rank[colors[k]] = k;
+            }
+            return rank;
+        }
 
-                // Registre Source 1
-                int sr1 = getPhysicalRegister(condJump.getSr1());
-                if(sr1 == -1){
-                    newProgram.addInstructions(loadSpill(condJump.getSr1(), TMP_REG_1));
-                    sr1 = TMP_REG_1;
-                }
+        /**
+         * Couleur finale d'un registre virtuel, après le choix des couleurs qui vont dans le Spill
+         *
+         * @param virtualRegister   Registre virtuel
+         * @return                  Rang de sa couleur (voir rankColors), -1 s'il n'est pas coloré
+         */
+        public int getAllocatedColor(int virtualRegister){
+            int offset = virtualRegister - registerBase;
+            if(offset < 0 || offset >= registerIndex.length || registerIndex[offset] == -1){
+                return -1;
+            }
+            return colorRank[conflictGraph.getColor(registerIndex[offset])];
+        }
+    }
 
-                // Registre source 2
-                int sr2 = getPhysicalRegister(condJump.getSr2());
-                if(sr2 == -1){
-                    newProgram.addInstructions(loadSpill(condJump.getSr2(), TMP_REG_2));
-                    sr2 = TMP_REG_2;
-                }
+    /**
+     * Permet de récupérer le programme après l'échange des anciens registres par les nouveaux
+     *
+     * @return                                  Le programme final
+     */
+    private ProgramBuffer applyAllocation(){
+        ProgramBuffer newProgram = program.emptyCopy(program.size() + program.size() / 4 + 2);
 
-                // Instruction modifiée
-                newProgram.addInstruction(new CondJump(
-                        condJump.getLabel(),
-                        CondJump.Op.valueOf(condJump.getName()),
-                        sr1,
-                        sr2,
-                        condJump.getAddress()
-                ));
-            }
+        newProgram.setSpill(newProgram.add(Opcode.XOR, REG_SPILL_PTR, REG_SPILL_PTR, REG_SPILL_PTR, ProgramBuffer.NONE), true);
+        newProgram.setSpill(newProgram.add(Opcode.ADDi, REG_SPILL_PTR, REG_SPILL_PTR, ProgramBuffer.NONE, START_SPILL_ADDR), true);
+
+        for (FunctionAllocation function : functions) {
 
-            // Cas 4 : Instruction mémoire : LD
-            else if(instruction instanceof Mem mem && instruction.getName().equals(Mem.Op.LD.toString())){
+            // Chaque fonction réserve son propre cadre de Spill à son entrée et le libère avant chaque RET
+            int spillSize = function.isFunction ? function.getSpillSize() : 0;
 
-                // Registre Destination
-                int dest = getPhysicalRegister(mem.getDest());
-                dest = dest == -1 ? TMP_REG_1 : dest;
+            for (int i = function.start; i < function.end; i++) {
+                Opcode op = program.getOpcode(i);
+                // Les instructions ajoutées pour l'instruction i gardent sa ligne et son rôle dans le protocole d'appel,
+                // et sont marquées comme débordement
+                int firstAdded = newProgram.size();
 
-                // Registre Adresse
-                int addr = getPhysicalRegister(mem.getAddress());
-                if(addr == -1){
-                    newProgram.addInstructions(loadSpill(mem.getAddress(), TMP_REG_2));
-                    addr = TMP_REG_2;
+                // Gestion de la pile
+                if(i == function.start && spillSize > 0){
+                    newProgram.add(Opcode.ADDi, REG_SPILL_PTR, REG_SPILL_PTR, ProgramBuffer.NONE, spillSize);
+                }
+                if(op == Opcode.RET && spillSize > 0){
+                    newProgram.add(Opcode.SUBi, REG_SPILL_PTR, REG_SPILL_PTR, ProgramBuffer.NONE, spillSize);
                 }
 
-                // Instruction modifiée
-                newProgram.addInstruction(new Mem(
-                        mem.getLabel(),
-                        Mem.Op.valueOf(mem.getName()),
-                        dest,
-                        addr
-                ));
+                int dest = program.getDest(i);
+                int sr1 = program.getSrc1(i);
+                int sr2 = program.getSrc2(i);
 
-                // Si dest était dans le Spill, on remet le résultat en mémoire
-                if(dest == TMP_REG_1){
-                    newProgram.addInstructions(storeSpill(mem.getDest(), TMP_REG_2, dest));
+                // Registre source 1 (pour un LD, le registre d'adresse passe par TMP_REG_2 : TMP_REG_1 est réservé à la destination)
+                if(sr1 != ProgramBuffer.NONE){
+                    int physicalSr1 = getPhysicalRegister(function, sr1);
+                    if(physicalSr1 == -1){
+                        physicalSr1 = op == Opcode.LD ? TMP_REG_2 : TMP_REG_1;
+                        loadSpill(newProgram, function, sr1, physicalSr1);
+                    }
+                    sr1 = physicalSr1;
                 }
-            }
 
-            // Cas 5 : Instruction mémoire : ST
-            else if(instruction instanceof Mem mem && instruction.getName().equals(Mem.Op.ST.toString())){
-
-                // Registre Destination
-                int val = getPhysicalRegister(mem.getDest());
-                if(val == -1){
-                    newProgram.addInstructions(loadSpill(mem.getDest(), TMP_REG_1));
-                    val = TMP_REG_1;
+                // Registre source 2
+                if(sr2 != ProgramBuffer.NONE){
+                    int physicalSr2 = getPhysicalRegister(function, sr2);
+                    if(physicalSr2 == -1){
+                        physicalSr2 = TMP_REG_2;
+                        loadSpill(newProgram, function, sr2, physicalSr2);
+                    }
+                    sr2 = physicalSr2;
                 }
 
-                // Registre Adresse
-                int addr = getPhysicalRegister(mem.getAddress());
-                if(addr == -1){
-                    newProgram.addInstructions(loadSpill(mem.getAddress(), TMP_REG_2));
-                    addr = TMP_REG_2;
+                // Registre destination
+                int physicalDest = dest;
+                if(dest != ProgramBuffer.NONE){
+                    physicalDest = getPhysicalRegister(function, dest);
+                    physicalDest = physicalDest == -1 ? TMP_REG_1 : physicalDest;
                 }
 
-                // Instruction modifiée
-                newProgram.addInstruction(new Mem(
-                        mem.getLabel(),
-                        Mem.Op.valueOf(mem.getName()),
-                        val,
-                        addr
-                ));
-            }
+                // Instruction modifiée (les instructions sans registres sont recopiées telles quelles)
+                int newInstruction = newProgram.add(op, physicalDest, sr1, sr2, program.getImm(i));
 
-            // Cas 6 : Instruction IO
-            else if(instruction instanceof IO io){
-                int reg = getPhysicalRegister(io.getReg());
-                String op = instruction.getName();
+                // Le label va sur la première instruction ajoutée : un saut vers ce label exécute aussi
+                // l'allocation du cadre et les chargements depuis le Spill
+                newProgram.setLabel(firstAdded, program.getLabel(i));
 
-                // Sous-cas 1 : Instructions OUT ou PRINT
-                if(op.equals(IO.Op.OUT.toString()) || op.equals(IO.Op.PRINT.toString())){
-                    if(reg == -1){
-                        newProgram.addInstructions(loadSpill(io.getReg(), TMP_REG_1));
-                        reg = TMP_REG_1;
-                    }
-                    newProgram.addInstruction(new IO(
-                            io.getLabel(),
-                            IO.Op.valueOf(io.getName()),
-                            reg
-                    ));
+                // Si dest était dans le Spill, on remet le résultat en mémoire
+                if(dest != ProgramBuffer.NONE && physicalDest == TMP_REG_1){
+                    storeSpill(newProgram, function, dest, TMP_REG_2, physicalDest);
                 }
 
-                // Sous-cas 2 : Instructions IN ou READ
-                if(op.equals(IO.Op.IN.toString()) || op.equals(IO.Op.READ.toString())){
-                    if(reg == -1){
-                        reg = TMP_REG_1;
-                    }
-                    newProgram.addInstruction(new IO(
-                            io.getLabel(),
-                            IO.Op.valueOf(io.getName()),
-                            reg
-                    ));
-
-                    // Si reg était dans le Spill, on remet le résultat en mémoire
-                    if(reg == TMP_REG_1){
-                        newProgram.addInstructions(storeSpill(io.getReg(), TMP_REG_2, reg));
-                    }
+                for (int j = firstAdded; j < newProgram.size(); j++) {
+                    newProgram.setLine(j, program.getLine(i));
+                    newProgram.setSpill(j, j != newInstruction || program.isSpill(i));
+                    newProgram.setCallOverhead(j, program.isCallOverhead(i));
                 }
             }
-
-            // Cas 7 : Instructions sans registres
-            else{
-                newProgram.addInstruction(instruction);
-            }
         }
 
         return newProgram;
@@ -677,15 +868,16 @@ public class CodeOptimizer {
     /**
      * Permet de récupérer le registre physique associé à un registre virtuel
      *
+     * @param function                  Fonction contenant l'instruction
      * @param virtualRegister           Registre virtuel correspondant à l'ancien registre du programme linéaire
      * @return                          Registre physique correspondant au nouveau registre après coloration, -1 s'il dépasse le nombre de registres disponibles
      */
-    private int getPhysicalRegister(int virtualRegister){
+    private int getPhysicalRegister(FunctionAllocation function, int virtualRegister){
         if(virtualRegister < START_REG){
             return virtualRegister;
         }
 
-        int physicalRegister = conflictGraph.getColor(virtualRegister);
+        int physicalRegister = function.getAllocatedColor(virtualRegister);
         if(physicalRegister >= 0){
             if(physicalRegister < NB_REG_MAX) {
                 return physicalRegister + START_REG;
@@ -700,41 +892,35 @@ public class CodeOptimizer {
     /**
      * Génère le code assembleur pour STORE un registre physique dans le Spill
      *
+     * @param newProgram                Le programme auquel ajouter le code
+     * @param function                  Fonction contenant l'instruction (son cadre de Spill)
      * @param virtualRegister           Le registre virtuel à STORE
      * @param regAddr                   Le registre dans lequel on souhaite stocker l'adresse
      * @param regVal                    Le registre contenant la valeur à STORE
-     * @return                          Le programme qui permet de STORE le registre physique dans le Spill
      */
-    private Program storeSpill(int virtualRegister, int regAddr, int regVal){
-        Program newProgram = new Program();
-
-        int color = conflictGraph.getColor(virtualRegister);
+    private void storeSpill(ProgramBuffer newProgram, FunctionAllocation function, int virtualRegister, int regAddr, int regVal){
+        int color = function.getAllocatedColor(virtualRegister);
         int offset = color - NB_REG_MAX + 1;
 
-        newProgram.addInstruction(new UALi(UALi.Op.SUB, regAddr, REG_SPILL_PTR, offset));
-
-        newProgram.addInstruction(new Mem(Mem.Op.ST, regVal, regAddr));
+        newProgram.add(Opcode.SUBi, regAddr, REG_SPILL_PTR, ProgramBuffer.NONE, offset);
 
-        return newProgram;
+        newProgram.add(Opcode.ST, ProgramBuffer.NONE, regVal, regAddr, ProgramBuffer.NONE);
     }
 
     /**
      * Génère le code assembleur pour LOAD un registre physique du Spill
      *
+     * @param newProgram                Le programme auquel ajouter le code
+     * @param function                  Fonction contenant l'instruction (son cadre de Spill)
      * @param virtualRegister           Le registre virtuel à LOAD
      * @param regAddr                   Le registre dans lequel on souhaite stocker l'adresse
-     * @return                          Le programme qui permet de LOAD le registre physique dans le Spill
      */
-    private Program loadSpill(int virtualRegister, int regAddr){
-        Program newProgram = new Program();
-
-        int color = conflictGraph.getColor(virtualRegister);
+    private void loadSpill(ProgramBuffer newProgram, FunctionAllocation function, int virtualRegister, int regAddr){
+        int color = function.getAllocatedColor(virtualRegister);
         int offset = color - NB_REG_MAX + 1;
 
-        newProgram.addInstruction(new UALi(UALi.Op.SUB, regAddr, REG_SPILL_PTR, offset));
+        newProgram.add(Opcode.SUBi, regAddr, REG_SPILL_PTR, ProgramBuffer.NONE, offset);
 
-        newProgram.addInstruction(new Mem(Mem.Op.LD, regAddr, regAddr));
-
-        return newProgram;
+        newProgram.add(Opcode.LD, regAddr, regAddr, ProgramBuffer.NONE, ProgramBuffer.NONE);
     }
 }
@@ -1,12 +1,31 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 public class CodeOptimizerTest {
+    // Programmes du dossier Test vérifiés ci-dessous
+    private static final List<String> PROGRAMS = List.of("test_facto", "test_fibo", "test_tab", "test_spill");
+    private static Map<String, TestRunner.Result> results = null;
+
     public static void main(String[] args) throws Exception {
 
+        // Test de l'allocation en parallèle : le code doit être identique à celui de l'allocation séquentielle
+        // (vérifié en premier : il ne dépend pas des résultats des programmes testés ensuite)
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for(String name : PROGRAMS) {
+                if(!allocate(name, null).equals(allocate(name, pool))) throw new Exception("L'allocation en parallèle de " + name + " diffère de l'allocation séquentielle.");
+            }
+        } finally {
+            pool.shutdown();
+        }
+
         // Test fonction facto
         ArrayList<ArrayList<Integer>> factoResult = testCode("test_facto");
 
@@ -42,57 +61,49 @@ public class CodeOptimizerTest {
         if(spillResult == null || spillResult.getFirst().getFirst() != 496) throw new Exception("Le résultat du Spill devrait être 496.");
     }
 
-    private static ArrayList<ArrayList<Integer>> testCode(String path) throws IOException, InterruptedException {
+    private static String allocate(String name, ForkJoinPool pool) throws Exception {
+        String source = Files.readString(Paths.get("projet_compil_etu", "Test", name));
 
-        // Récupère la gestion de la commande Python
-        ProcessBuilder processBuilder = new ProcessBuilder("python", "projet_compil_etu\\Test\\simcode_test.py"); // Fichier test : le même que le simcode classique, mais avec les chemins modifiés
-        processBuilder.redirectErrorStream(true);
+        // Peu de registres : les fonctions ont chacune leur Spill
+        CodeOptimizer optimizer = new CodeOptimizer(8);
+        optimizer.setParallel(pool);
 
-        // Permet de rediriger la sortie et les erreurs du programme Python vers la console Java
-        processBuilder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
-        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        StringWriter code = new StringWriter();
+        optimizer.optimize(Main.generate(source)).writeTo(code);
+        return code.toString();
+    }
 
-        // On récupère le code écrit dans le fichier test
-        StringBuilder code = new StringBuilder();
-        try (BufferedReader br = new BufferedReader(new FileReader("projet_compil_etu\\Test\\" + path))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                code.append(line);
-            }
-        } catch (IOException e) {
-            System.out.println("Erreur lecture fichier : " + e.getMessage());
-        }
+    private static ArrayList<ArrayList<Integer>> testCode(String path) {
 
-        // On écrit le code dans le fichier input
-        try (FileWriter fw = new FileWriter("projet_compil_etu\\input")) {
-            fw.write(code.toString());
-        } catch (IOException e) {
-            System.out.println("Erreur écriture fichier : " + e.getMessage());
+        // Les programmes sont compilés et exécutés dans le processus, tous en parallèle au premier appel (voir TestRunner)
+        if(results == null) {
+            results = new HashMap<>();
+            List<Path> files = new ArrayList<>();
+            for(String name : PROGRAMS) {
+                files.add(Paths.get("projet_compil_etu", "Test", name));
+            }
+            List<TestRunner.Result> runs = TestRunner.runAll(files, 32);
+            for(int i = 0; i < PROGRAMS.size(); i++) {
+                results.put(PROGRAMS.get(i), runs.get(i));
+            }
         }
 
-        Main.main(null);
-
-        // Exécute la commande Python et attend que le programme Python se termine
-        Process process = processBuilder.start();
-        int exitCode = process.waitFor();
-
-        if(exitCode != 0) {
-            System.err.println("Erreur : Le script Python a échoué.");
+        TestRunner.Result run = results.get(path);
+        if(run == null || !run.isSuccess()) {
+            System.err.println("Erreur : " + (run == null ? "programme inconnu " + path : run.error().getMessage()));
             return null;
         }
 
-        // On récupère le résultat dans le fichier sorties.txt
+        // On récupère le résultat dans les sorties du programme
         ArrayList<ArrayList<Integer>> result = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader("projet_compil_etu\\sorties.txt"))) {
-            String line;
-            while((line = br.readLine()) != null){
-                result.add(new ArrayList<>());
-                for(String n : line.split(" ")) {
-                    result.getLast().add(Integer.valueOf(n));
-                }
+        for(String line : run.output().split("\n")) {
+            if(line.isEmpty()) {
+                continue;
+            }
+            result.add(new ArrayList<>());
+            for(String n : line.split(" ")) {
+                result.getLast().add(Integer.valueOf(n));
             }
-        } catch (IOException e) {
-            System.out.println("Erreur lecture fichier : " + e.getMessage());
         }
 
         for (ArrayList<Integer> integers : result) {
@@ -0,0 +1,58 @@
+import Type.UnknownType;
+
+/**
+ * État propre à une compilation : compteurs de variables de type, de labels et de registres virtuels.
+ *
+ * Chaque compilation crée son propre contexte et le partage entre TyperVisitor et CodeGenerator ;
+ * aucun état n'est partagé entre deux compilations, qui peuvent donc s'exécuter sur des threads différents.
+ * Un contexte n'est utilisé que par un seul thread à la fois.
+ */
+public class CompilationContext {
+    // Registres 0 (zéro), 1 (tas) et 2 (pile) réservés
+    public static final int FIRST_REGISTER = 3;
+
+    private int typeVariableCounter = 0;
+    private int labelCounter = 0;
+    private int registerCounter = FIRST_REGISTER;
+
+    /**
+     * Crée une nouvelle variable de type (sans nom dans le code source)
+     * @return UnknownType variable de type fraîche
+     */
+    public UnknownType newTypeVariable() {
+        return new UnknownType("#", typeVariableCounter++);
+    }
+
+    /**
+     * Crée un nouveau label, unique dans le programme compilé
+     * @param prefix préfixe du label
+     * @return String label
+     */
+    public String newLabel(String prefix) {
+        labelCounter++;
+        return prefix + "_" + labelCounter;
+    }
+
+    /**
+     * Réserve un nouveau registre virtuel
+     * @return int numéro du registre
+     */
+    public int newRegister() {
+        return registerCounter++;
+    }
+
+    /**
+     * Getter du prochain registre virtuel libre (le dernier réservé est getRegisterCount() - 1)
+     * @return int numéro du prochain registre
+     */
+    public int getRegisterCount() {
+        return registerCounter;
+    }
+
+    /**
+     * Recommence la numérotation des registres virtuels au premier registre non réservé
+     */
+    public void resetRegisters() {
+        registerCounter = FIRST_REGISTER;
+    }
+}
@@ -0,0 +1,258 @@
+import Asm.ObjectWriter;
+import Asm.Program;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serveur de compilation : la JVM reste lancée entre deux compilations, ce qui évite à chaque fichier
+ * le démarrage, le chargement des classes et la désérialisation des automates ANTLR
+ * (les caches DFA du lexer et du parser sont statiques et partagés par toutes les requêtes).
+ *
+ * Usage : java Main -server [-r nbRegistres] [port]
+ * Sans port, les requêtes sont lues sur l'entrée standard et les réponses écrites sur la sortie standard ;
+ * avec un port, le serveur écoute en local (127.0.0.1) et traite chaque connexion sur son propre thread.
+ *
+ * Protocole (une requête après l'autre sur le même flux) :
+ * <pre>
+ *   requête  : COMPILE format nbOctets\n puis nbOctets octets de source TCL (UTF-8), au plus MAX_SOURCE octets
+ *              format : asm (code final), lin (code linéaire) ou obj (format objet binaire)
+ *              PING\n, QUIT\n
+ *              (une ligne d'en-tête dépassant MAX_HEADER octets est refusée)
+ *   réponse  : OK nbOctets\n puis le résultat, ou ERR nbOctets\n puis le message d'erreur (UTF-8)
+ *              PONG\n en réponse à PING
+ * </pre>
+ */
+public class CompileServer {
+    // Taille maximale d'un source : une source plus grande est ignorée sans être gardée en mémoire
+    public static final int MAX_SOURCE = 1 << 24;
+    // Taille maximale d'une ligne d'en-tête : la suite d'une ligne plus longue est lue sans être gardée
+    public static final int MAX_HEADER = 256;
+
+    private int nbRegisters = 32;
+
+    /**
+     * Point d'entrée du serveur
+     * @param args [-r nbRegistres] [port]
+     */
+    public static void main(String[] args) {
+        CompileServer server = new CompileServer();
+        Integer port = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("-r") && i + 1 < args.length) {
+                    server.nbRegisters = Integer.parseInt(args[++i]);
+                } else {
+                    port = Integer.parseInt(args[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Usage : java Main -server [-r nbRegistres] [port]");
+            System.exit(2);
+        }
+
+        try {
+            if (port == null) {
+                server.serve(System.in, System.out);
+            } else {
+                server.listen(port);
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur serveur : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Écoute les connexions locales sur un port, chacune étant servie par un thread
+     * @param port port d'écoute
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public void listen(int port) throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("Serveur de compilation à l'écoute sur " + serverSocket.getLocalSocketAddress());
+            while (true) {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> {
+                    try (socket) {
+                        serve(socket.getInputStream(), socket.getOutputStream());
+                    } catch (IOException e) {
+                        System.err.println("Connexion interrompue : " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Traite les requêtes d'un flux jusqu'à QUIT ou la fin du flux
+     * @param in flux des requêtes
+     * @param out flux des réponses
+     * @throws IOException si la lecture ou l'écriture échoue
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        InputStream input = new BufferedInputStream(in);
+        OutputStream output = new BufferedOutputStream(out);
+
+        String line;
+        while ((line = readLine(input)) != null) {
+            if (line.length() > MAX_HEADER) {
+                respond(output, "ERR", "En-tête trop long (au plus " + MAX_HEADER + " octets)");
+                output.flush();
+                continue;
+            }
+            String[] words = line.trim().split(" ");
+            switch (words[0]) {
+                case "" -> {
+                    continue;
+                }
+                case "QUIT" -> {
+                    output.flush();
+                    return;
+                }
+                case "PING" -> output.write("PONG\n".getBytes(StandardCharsets.US_ASCII));
+                case "COMPILE" -> {
+                    if (words.length != 3) {
+                        respond(output, "ERR", "Requête invalide : " + line);
+                        break;
+                    }
+                    int length;
+                    try {
+                        length = Integer.parseInt(words[2]);
+                    } catch (NumberFormatException e) {
+                        respond(output, "ERR", "Taille invalide : " + words[2]);
+                        break;
+                    }
+                    if (length < 0) {
+                        respond(output, "ERR", "Taille invalide : " + words[2]);
+                        break;
+                    }
+                    if (length > MAX_SOURCE) {
+                        // Les octets de la source sont sautés pour que la requête suivante soit lue au bon endroit
+                        discard(input, length);
+                        respond(output, "ERR", "Source trop grande : " + length + " octets (au plus " + MAX_SOURCE + ")");
+                        break;
+                    }
+                    byte[] bytes = input.readNBytes(length);
+                    if (bytes.length != length) {
+                        throw new EOFException("Source incomplète : " + bytes.length + " octets sur " + length);
+                    }
+                    String source = new String(bytes, StandardCharsets.UTF_8);
+                    try {
+                        byte[] result = compile(words[1], source);
+                        output.write(("OK " + result.length + "\n").getBytes(StandardCharsets.US_ASCII));
+                        output.write(result);
+                    } catch (RuntimeException | IOException e) {
+                        respond(output, "ERR", e.getClass().getSimpleName() + " : " + e.getMessage());
+                    } catch (StackOverflowError e) {
+                        // Visiteurs récursifs : un source trop imbriqué ne doit pas arrêter la session
+                        respond(output, "ERR", "StackOverflowError : programme trop imbriqué");
+                    }
+                }
+                default -> respond(output, "ERR", "Commande inconnue : " + words[0]);
+            }
+            output.flush();
+        }
+        output.flush();
+    }
+
+    /**
+     * Compile un programme TCL
+     * @param format asm, lin ou obj
+     * @param source texte du programme
+     * @return byte[] code produit
+     * @throws IllegalArgumentException si le format est inconnu
+     * @throws IOException si l'encodage du résultat échoue
+     */
+    public byte[] compile(String format, String source) throws IllegalArgumentException, IOException {
+        if (!format.equals("asm") && !format.equals("lin") && !format.equals("obj")) {
+            throw new IllegalArgumentException("Format inconnu : " + format);
+        }
+
+        Program program = Main.generate(source);
+        if (!format.equals("lin")) {
+            program = new CodeOptimizer(nbRegisters).optimize(program);
+        }
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        if (format.equals("obj")) {
+            ObjectWriter.write(program, result);
+        } else {
+            Writer writer = new OutputStreamWriter(result, StandardCharsets.UTF_8);
+            program.writeTo(writer);
+            writer.flush();
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Écrit une réponse textuelle
+     * @param output flux des réponses
+     * @param status OK ou ERR
+     * @param message contenu de la réponse
+     * @throws IOException si l'écriture échoue
+     */
+    private static void respond(OutputStream output, String status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        output.write((status + " " + bytes.length + "\n").getBytes(StandardCharsets.US_ASCII));
+        output.write(bytes);
+    }
+
+    /**
+     * Lit et ignore des octets du flux des requêtes, par blocs (skip échoue sur un tube)
+     * @param input flux des requêtes
+     * @param length nombre d'octets à ignorer
+     * @throws IOException si la lecture échoue ou si le flux se termine avant
+     */
+    private static void discard(InputStream input, int length) throws IOException {
+        byte[] buffer = new byte[8192];
+        int remaining = length;
+        while (remaining > 0) {
+            int n = input.read(buffer, 0, Math.min(buffer.length, remaining));
+            if (n == -1) {
+                throw new EOFException("Source incomplète : " + (length - remaining) + " octets sur " + length);
+            }
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Lit une ligne d'en-tête (sans le \n) ; au-delà de MAX_HEADER + 1 octets, la fin de la ligne est ignorée
+     * @param input flux des requêtes
+     * @return String ligne lue (plus longue que MAX_HEADER si elle a été tronquée), null à la fin du flux
+     * @throws IOException si la lecture échoue ou si le flux s'arrête au milieu d'une ligne
+     */
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c = input.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != '\n') {
+            if (c == -1) {
+                throw new EOFException("Requête incomplète");
+            }
+            if (c != '\r' && line.size() <= MAX_HEADER) {
+                line.write(c);
+            }
+            c = input.read();
+        }
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+}
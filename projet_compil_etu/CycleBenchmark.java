@@ -0,0 +1,345 @@
+import Asm.Executor;
+import Asm.PagedMemory;
+import Asm.Profile;
+import Asm.Program;
+import Asm.ProgramBuffer;
+import Asm.ProgramInput;
+import Asm.ProgramOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Suite de mesure du code généré : chaque programme du corpus est compilé avec chaque réglage (code linéaire,
+ * allocation avec 32, 16 et 8 registres, allocation guidée par profil avec 8 registres), puis exécuté
+ * par l'exécuteur Java. Pour chaque couple (programme, réglage) sont relevés les cycles exécutés,
+ * le nombre d'instructions, le nombre d'instructions de débordement (Spill), les cycles de débordement
+ * et une empreinte des sorties.
+ *
+ * Les mesures sont comparées à une référence enregistrée : une mesure qui dépasse la référence de plus du seuil,
+ * ou des sorties différentes, sont signalées comme régressions.
+ *
+ * Usage : java Main -bench [-update] [-threshold pourcentage] [-baseline reference.txt] [fichiers|dossiers...]
+ * Sans fichier, le corpus est formé de Test/test_facto, test_fibo, test_tab, test_spill et du dossier Bench.
+ * Avec -update, la référence est réécrite avec les mesures courantes.
+ */
+public class CycleBenchmark {
+    // Réglages mesurés : nom et nombre de registres (0 : code linéaire, sans allocation)
+    private static final String[] SETTINGS = {"lineaire", "r32", "r16", "r8", "r8-pgo"};
+    private static final int[] REGISTERS = {0, 32, 16, 8, 8};
+
+    // Noms des mesures, dans l'ordre des colonnes de la référence
+    private static final String[] METRICS = {"cycles", "instructions", "debordements", "cyclesDebordement"};
+
+    private Path baseline = Paths.get("Bench", "baseline.txt");
+    private double threshold = 0.05;
+    private boolean update = false;
+
+    /**
+     * Mesures d'un programme compilé avec un réglage
+     * @param program fichier TCL
+     * @param setting nom du réglage
+     * @param values cycles, instructions, instructions de débordement, cycles de débordement
+     * @param output empreinte des sorties
+     */
+    record Measure(String program, String setting, long[] values, String output) {
+        /**
+         * Clé de la mesure dans la référence
+         * @return String « programme réglage »
+         */
+        String key() {
+            return program + " " + setting;
+        }
+    }
+
+    /**
+     * Point d'entrée de la suite de mesure
+     * @param args options, puis fichiers ou dossiers du corpus
+     */
+    public static void main(String[] args) {
+        CycleBenchmark benchmark = new CycleBenchmark();
+        List<Path> files = new ArrayList<>();
+        try {
+            List<Path> roots = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("-update")) {
+                    benchmark.update = true;
+                } else if (args[i].equals("-threshold") && i + 1 < args.length) {
+                    benchmark.threshold = Double.parseDouble(args[++i]) / 100;
+                } else if (args[i].equals("-baseline") && i + 1 < args.length) {
+                    benchmark.baseline = Paths.get(args[++i]);
+                } else {
+                    roots.add(Paths.get(args[i]));
+                }
+            }
+            if (roots.isEmpty()) {
+                for (String name : new String[] {"test_facto", "test_fibo", "test_tab", "test_spill"}) {
+                    roots.add(Paths.get("Test", name));
+                }
+                roots.add(Paths.get("Bench"));
+            }
+            for (Path root : roots) {
+                files.addAll(TestRunner.listPrograms(root));
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : java Main -bench [-update] [-threshold pourcentage] [-baseline reference.txt] [fichiers|dossiers...]");
+            System.exit(2);
+        }
+
+        try {
+            List<Measure> measures = measureAll(files);
+            printMeasures(measures);
+            if (benchmark.update) {
+                benchmark.writeBaseline(measures);
+                System.out.println("Référence écrite : " + benchmark.baseline);
+            } else if (benchmark.compare(measures) > 0) {
+                System.exit(1);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Mesure tous les programmes du corpus, un thread virtuel par programme
+     * @param files fichiers TCL
+     * @return List<Measure> mesures, par programme puis par réglage
+     * @throws IOException si un programme ne peut pas être lu
+     * @throws RuntimeException si un programme ne compile pas ou échoue à l'exécution
+     */
+    public static List<Measure> measureAll(List<Path> files) throws IOException, RuntimeException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<Measure>>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(executor.submit(() -> measure(file)));
+            }
+            List<Measure> measures = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    measures.addAll(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException io) {
+                        throw io;
+                    }
+                    throw new RuntimeException(files.get(i) + " : " + cause.getMessage(), cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("mesure interrompue", e);
+                }
+            }
+            return measures;
+        }
+    }
+
+    /**
+     * Mesure un programme avec chaque réglage
+     * @param file fichier TCL (ses entrées sont lues dans fichier.in s'il existe)
+     * @return List<Measure> une mesure par réglage
+     * @throws IOException si le programme ne peut pas être lu
+     */
+    private static List<Measure> measure(Path file) throws IOException {
+        String source = Files.readString(file, StandardCharsets.UTF_8);
+        Path inputFile = file.resolveSibling(file.getFileName() + ".in");
+        byte[] input = Files.isRegularFile(inputFile) ? Files.readAllBytes(inputFile) : new byte[0];
+        String name = file.toString().replace('\\', '/');
+
+        Program linear = Main.generate(source);
+
+        // Profil d'entraînement du programme linéaire, pour le réglage guidé par profil
+        Executor trainer = createExecutor(linear);
+        trainer.enableProfiling();
+        trainer.run(ProgramInput.of(input), ProgramOutput.of(OutputStream.nullOutputStream()));
+        StringWriter blockCounts = new StringWriter();
+        trainer.getProfile().writeBlockCounts(blockCounts);
+
+        List<Measure> measures = new ArrayList<>();
+        for (int s = 0; s < SETTINGS.length; s++) {
+            Program program = linear;
+            if (REGISTERS[s] > 0) {
+                CodeOptimizer optimizer = new CodeOptimizer(REGISTERS[s]);
+                if (SETTINGS[s].endsWith("-pgo")) {
+                    optimizer.loadProfile(new StringReader(blockCounts.toString()));
+                }
+                program = optimizer.optimize(linear);
+            }
+
+            Executor executor = createExecutor(program);
+            executor.enableProfiling();
+            ProgramOutput out = ProgramOutput.memory();
+            executor.run(ProgramInput.of(input), out);
+            Profile profile = executor.getProfile();
+
+            ProgramBuffer buffer = ProgramBuffer.from(program);
+            long spills = 0;
+            for (int i = 0; i < buffer.size(); i++) {
+                if (buffer.isSpill(i)) {
+                    spills++;
+                }
+            }
+            long[] values = {executor.getCycles(), buffer.size(), spills, profile.getSpillCycles()};
+            measures.add(new Measure(name, SETTINGS[s], values, fingerprint(out.toByteArray())));
+        }
+        return measures;
+    }
+
+    /**
+     * Crée un exécuteur avec les mêmes valeurs initiales que TestRunner
+     * @param program programme à exécuter
+     * @return Executor exécuteur
+     */
+    private static Executor createExecutor(Program program) {
+        Random random = new Random(TestRunner.SEED);
+        return new Executor(program, random, new PagedMemory(Executor.MEMORY_SIZE, random));
+    }
+
+    /**
+     * Empreinte des sorties d'un programme (FNV-1a sur 64 bits)
+     * @param output sorties
+     * @return String empreinte en hexadécimal
+     */
+    private static String fingerprint(byte[] output) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : output) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+
+    /**
+     * Affiche le tableau des mesures
+     * @param measures mesures
+     */
+    private static void printMeasures(List<Measure> measures) {
+        System.out.printf("%-28s %-10s %12s %12s %12s %12s%n", "programme", "réglage", METRICS[0], METRICS[1], METRICS[2], METRICS[3]);
+        for (Measure m : measures) {
+            long[] v = m.values();
+            System.out.printf("%-28s %-10s %12d %12d %12d %12d%n", m.program(), m.setting(), v[0], v[1], v[2], v[3]);
+        }
+    }
+
+    /**
+     * Écrit la référence : une ligne « programme réglage cycles instructions débordements cyclesDébordement sorties »
+     * @param measures mesures
+     * @throws IOException si le fichier ne peut pas être écrit
+     */
+    private void writeBaseline(List<Measure> measures) throws IOException {
+        if (baseline.getParent() != null) {
+            Files.createDirectories(baseline.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(baseline, StandardCharsets.UTF_8)) {
+            out.write("# programme réglage " + String.join(" ", METRICS) + " sorties" + System.lineSeparator());
+            for (Measure m : measures) {
+                out.write(m.key());
+                for (long value : m.values()) {
+                    out.write(" " + value);
+                }
+                out.write(" " + m.output() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Lit la référence
+     * @return Map<String, Measure> mesures de référence par clé « programme réglage »
+     * @throws IOException si le fichier ne peut pas être lu
+     * @throws IllegalArgumentException si une ligne est invalide
+     */
+    private Map<String, Measure> readBaseline() throws IOException, IllegalArgumentException {
+        Map<String, Measure> measures = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(baseline, StandardCharsets.UTF_8);
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            if (words.length != 3 + METRICS.length) {
+                throw new IllegalArgumentException(baseline + " ligne " + (n + 1) + " : mesure invalide : " + line);
+            }
+            long[] values = new long[METRICS.length];
+            try {
+                for (int k = 0; k < values.length; k++) {
+                    values[k] = Long.parseLong(words[2 + k]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(baseline + " ligne " + (n + 1) + " : mesure invalide : " + line);
+            }
+            Measure m = new Measure(words[0], words[1], values, words[words.length - 1]);
+            measures.put(m.key(), m);
+        }
+        return measures;
+    }
+
+    /**
+     * Compare les mesures à la référence et affiche les écarts
+     * @param measures mesures courantes
+     * @return int nombre de régressions
+     * @throws IOException si la référence ne peut pas être lue
+     */
+    private int compare(List<Measure> measures) throws IOException {
+        if (!Files.isRegularFile(baseline)) {
+            System.out.println("Pas de référence (" + baseline + ") : relancer avec -update pour l'écrire");
+            return 0;
+        }
+        Map<String, Measure> reference = readBaseline();
+        int nbRegressions = 0;
+        System.out.println();
+        for (Measure m : measures) {
+            Measure old = reference.get(m.key());
+            if (old == null) {
+                System.out.println("NOUVEAU     " + m.key());
+                continue;
+            }
+            if (!old.output().equals(m.output())) {
+                nbRegressions++;
+                System.out.println("RÉGRESSION  " + m.key() + " : sorties différentes");
+            }
+            for (int k = 0; k < METRICS.length; k++) {
+                long before = old.values()[k];
+                long after = m.values()[k];
+                if (after > before && after > before * (1 + threshold)) {
+                    nbRegressions++;
+                    System.out.println("RÉGRESSION  " + m.key() + " : " + METRICS[k] + " " + before + " -> " + after + " (" + change(before, after) + ")");
+                } else if (after < before && after < before * (1 - threshold)) {
+                    System.out.println("AMÉLIORÉ    " + m.key() + " : " + METRICS[k] + " " + before + " -> " + after + " (" + change(before, after) + ")");
+                }
+            }
+        }
+        System.out.printf(Locale.ROOT, "%d régression(s) au-delà de %.1f %%%n", nbRegressions, threshold * 100);
+        return nbRegressions;
+    }
+
+    /**
+     * Écart relatif entre deux mesures
+     * @param before mesure de référence
+     * @param after mesure courante
+     * @return String écart en pourcentage, signé
+     */
+    private static String change(long before, long after) {
+        if (before == 0) {
+            return "+inf %";
+        }
+        return String.format(Locale.ROOT, "%+.1f %%", 100.0 * (after - before) / before);
+    }
+}
@@ -0,0 +1,42 @@
+import Asm.Executor;
+import Asm.Program;
+import Asm.ProgramInput;
+import Asm.ProgramOutput;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ExecutorTest {
+    // Programmes exécutés par l'interpréteur puis par le JIT : test_tab dépasse 1300 instructions avec 8 registres
+    private static final List<String> PROGRAMS = List.of("Test/test_tab", "Test/test_fibo", "Bench/bench_collatz", "Bench/bench_pressure");
+    private static final int[] REGISTERS = {8, 5};
+    private static final long SEED = 0;
+
+    public static void main(String[] args) throws Exception {
+
+        // Test du JIT : mêmes sorties et même nombre de cycles que l'interpréteur
+        for(String name : PROGRAMS) {
+            String source = Files.readString(Paths.get("projet_compil_etu", name));
+            for(int nbRegisters : REGISTERS) {
+                Program program = new CodeOptimizer(nbRegisters).optimize(Main.generate(source));
+
+                Executor interpreter = new Executor(program, new Random(SEED));
+                ProgramOutput interpreted = ProgramOutput.memory();
+                interpreter.run(ProgramInput.empty(), interpreted);
+
+                Executor jit = new Executor(program, new Random(SEED));
+                if(!jit.enableJit()) throw new Exception("Le JIT n'a pas compilé " + name + " (" + nbRegisters + " registres, " + program.size() + " instructions).");
+                ProgramOutput jitted = ProgramOutput.memory();
+                jit.run(ProgramInput.empty(), jitted);
+
+                if(!Arrays.equals(interpreted.toByteArray(), jitted.toByteArray())) throw new Exception("Le JIT et l'interpréteur ne donnent pas les mêmes sorties sur " + name + " (" + nbRegisters + " registres).");
+                if(interpreter.getCycles() != jit.getCycles()) throw new Exception("Le JIT et l'interpréteur ne comptent pas les mêmes cycles sur " + name + " (" + nbRegisters + " registres).");
+
+                System.out.println(name + " (" + nbRegisters + " registres) : " + jit.getCycles() + " cycles");
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package Graph;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Résolution par liste de travail d'une analyse de flot de données sur un graphe orienté (graphe de contrôle).
+ * L'état de chaque sommet est gardé par l'appelant ; la fonction de transfert recalcule l'état d'un sommet
+ * à partir de ses voisins et indique si la partie lue par les autres sommets a changé.
+ *
+ * Les sommets sont traités dans l'ordre postfixe d'un parcours en profondeur (analyse arrière : les successeurs
+ * avant leurs prédécesseurs) ou dans l'ordre postfixe inverse (analyse avant). Seuls les voisins d'un sommet
+ * qui a changé sont remis dans la liste de travail, toujours traitée dans cet ordre.
+ */
+public class DataflowSolver<T> {
+    /**
+     * Sens de propagation de l'analyse
+     */
+    public enum Direction {
+        // L'état d'un sommet dépend de ses prédécesseurs (ex. : définitions atteignant un point)
+        FORWARD,
+        // L'état d'un sommet dépend de ses successeurs (ex. : variables vivantes)
+        BACKWARD
+    }
+
+    /**
+     * Fonction de transfert d'une analyse
+     */
+    @FunctionalInterface
+    public interface Transfer<T> {
+        /**
+         * Recalcule l'état d'un sommet
+         * @param node sommet
+         * @return boolean true si l'état lu par les voisins dépendants a changé
+         */
+        boolean apply(T node);
+    }
+
+    private final ArrayList<T> order = new ArrayList<T>();
+    // Voisins à reprendre quand un sommet change, par rang dans l'ordre de traitement
+    private final int[][] dependents;
+
+    /**
+     * Constructeur : calcule l'ordre de traitement et les dépendances une fois pour toutes
+     * @param graph graphe (il ne doit plus être modifié)
+     * @param direction sens de propagation
+     */
+    public DataflowSolver(OrientedGraph<T> graph, Direction direction) {
+        int n = graph.vertices.size();
+        HashMap<T, Integer> index = new HashMap<T, Integer>();
+        for (int i = 0; i < n; i++) {
+            index.put(graph.vertices.get(i), i);
+        }
+        int[][] successors = new int[n][];
+        int[] nbPredecessors = new int[n];
+        for (int i = 0; i < n; i++) {
+            ArrayList<T> out = graph.adjList.get(graph.vertices.get(i));
+            successors[i] = new int[out.size()];
+            for (int k = 0; k < out.size(); k++) {
+                successors[i][k] = index.get(out.get(k));
+                nbPredecessors[successors[i][k]]++;
+            }
+        }
+
+        // Ordre postfixe : parcours en profondeur itératif depuis chaque sommet non visité, dans l'ordre des sommets
+        int[] postorder = new int[n];
+        int nbVisited = 0;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) continue;
+            int top = 0;
+            stack[0] = root;
+            next[0] = 0;
+            visited[root] = true;
+            while (top >= 0) {
+                int u = stack[top];
+                if (next[top] < successors[u].length) {
+                    int v = successors[u][next[top]++];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        stack[++top] = v;
+                        next[top] = 0;
+                    }
+                } else {
+                    postorder[nbVisited++] = u;
+                    top--;
+                }
+            }
+        }
+
+        int[] rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            int u = direction == Direction.BACKWARD ? postorder[r] : postorder[n - 1 - r];
+            rank[u] = r;
+            this.order.add(graph.vertices.get(u));
+        }
+
+        // Dépendants : prédécesseurs pour une analyse arrière, successeurs pour une analyse avant
+        this.dependents = new int[n][];
+        if (direction == Direction.FORWARD) {
+            for (int u = 0; u < n; u++) {
+                int[] d = new int[successors[u].length];
+                for (int k = 0; k < d.length; k++) {
+                    d[k] = rank[successors[u][k]];
+                }
+                this.dependents[rank[u]] = d;
+            }
+        } else {
+            int[] filled = new int[n];
+            for (int u = 0; u < n; u++) {
+                this.dependents[rank[u]] = new int[nbPredecessors[u]];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int v : successors[u]) {
+                    this.dependents[rank[v]][filled[v]++] = rank[u];
+                }
+            }
+        }
+    }
+
+    /**
+     * Résout l'analyse : chaque sommet est traité au moins une fois, puis chaque fois qu'un sommet dont il dépend change
+     * @param transfer fonction de transfert
+     * @return int nombre d'applications de la fonction de transfert
+     */
+    public int solve(Transfer<T> transfer) {
+        int n = order.size();
+        BitSet pending = new BitSet(n);
+        pending.set(0, n);
+        int nbApplications = 0;
+
+        // Parcours circulaire des sommets en attente, dans l'ordre de traitement
+        int cursor = 0;
+        while (!pending.isEmpty()) {
+            int r = pending.nextSetBit(cursor);
+            if (r < 0) {
+                r = pending.nextSetBit(0);
+            }
+            pending.clear(r);
+            cursor = r + 1;
+            nbApplications++;
+            if (transfer.apply(order.get(r))) {
+                for (int d : dependents[r]) {
+                    pending.set(d);
+                }
+            }
+        }
+        return nbApplications;
+    }
+
+    /**
+     * Getter de l'ordre de traitement
+     * @return les sommets, dans l'ordre où ils sont traités la première fois
+     */
+    public ArrayList<T> getOrder() {
+        return this.order;
+    }
+}
@@ -0,0 +1,177 @@
+package Graph;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Graphe d'interférence (graphe de conflit) dont les sommets sont les entiers 0 à nbVertices - 1,
+ * typiquement la numérotation compacte des registres d'une fonction.
+ *
+ * Les arêtes sont gardées deux fois : dans une matrice de bits triangulaire, qui teste une arête en temps constant,
+ * et dans un tableau de voisins par sommet, qui sert au parcours. Contrairement à UnorientedGraph, l'ajout d'une
+ * arête ne parcourt donc pas la liste des voisins.
+ * La matrice occupe n² / 16 octets : au-delà de DENSE_LIMIT sommets (8 Mo), les arêtes sont gardées dans
+ * un ensemble haché, dont la taille ne dépend que du nombre d'arêtes.
+ */
+public class InterferenceGraph {
+    // Nombre de sommets au-delà duquel la matrice de bits n'est plus allouée
+    public static final int DENSE_LIMIT = 1 << 13;
+
+    private final int nbVertices;
+    // Bit (u, v) avec u > v à la position u * (u - 1) / 2 + v, null au-delà de DENSE_LIMIT sommets
+    private final long[] matrix;
+    // Arêtes par leur position dans la matrice, quand la matrice n'est pas allouée
+    private final HashSet<Long> edges;
+    private final int[][] neighbors;
+    private final int[] degree;
+    private final int[] colors;
+
+    /**
+     * Constructeur
+     * @param nbVertices nombre de sommets
+     * @throws IllegalArgumentException si le nombre de sommets est négatif
+     */
+    public InterferenceGraph(int nbVertices) throws IllegalArgumentException {
+        if (nbVertices < 0) {
+            throw new IllegalArgumentException("Nombre de sommets négatif : " + nbVertices);
+        }
+        this.nbVertices = nbVertices;
+        if (nbVertices <= DENSE_LIMIT) {
+            long nbBits = (long) nbVertices * (nbVertices - 1) / 2;
+            this.matrix = new long[(int) ((nbBits + 63) >>> 6)];
+            this.edges = null;
+        } else {
+            this.matrix = null;
+            this.edges = new HashSet<>();
+        }
+        this.neighbors = new int[nbVertices][];
+        this.degree = new int[nbVertices];
+        this.colors = new int[nbVertices];
+        Arrays.fill(this.colors, -1);
+    }
+
+    /**
+     * Getter du nombre de sommets
+     * @return int nombre de sommets
+     */
+    public int getNbVertices() {
+        return this.nbVertices;
+    }
+
+    /**
+     * Position du bit d'une arête dans la matrice
+     * @param u sommet
+     * @param v sommet différent de u
+     * @return long position du bit
+     */
+    private static long bit(int u, int v) {
+        if (u < v) {
+            int w = u;
+            u = v;
+            v = w;
+        }
+        return (long) u * (u - 1) / 2 + v;
+    }
+
+    /**
+     * Teste si uv est une arête
+     * @param u sommet
+     * @param v sommet
+     * @return boolean uv est une arête
+     */
+    public boolean hasEdge(int u, int v) {
+        if (u == v) return false;
+        long b = bit(u, v);
+        if (this.matrix == null) return this.edges.contains(b);
+        return (this.matrix[(int) (b >>> 6)] & (1L << b)) != 0;
+    }
+
+    /**
+     * Ajout d'une arête (une boucle uu est ignorée)
+     * @param u sommet
+     * @param v sommet
+     */
+    public void addEdge(int u, int v) {
+        if (u == v) return;
+        long b = bit(u, v);
+        if (this.matrix == null) {
+            if (!this.edges.add(b)) return;
+        } else {
+            int word = (int) (b >>> 6);
+            if ((this.matrix[word] & (1L << b)) != 0) return;
+            this.matrix[word] |= 1L << b;
+        }
+        addNeighbor(u, v);
+        addNeighbor(v, u);
+    }
+
+    /**
+     * Ajoute v au tableau des voisins de u, agrandi si besoin
+     * @param u sommet
+     * @param v voisin
+     */
+    private void addNeighbor(int u, int v) {
+        int[] adj = this.neighbors[u];
+        if (adj == null) {
+            adj = new int[4];
+        } else if (this.degree[u] == adj.length) {
+            adj = Arrays.copyOf(adj, adj.length * 2);
+        }
+        adj[this.degree[u]++] = v;
+        this.neighbors[u] = adj;
+    }
+
+    /**
+     * Getter du degré d'un sommet
+     * @param u sommet
+     * @return int nombre de voisins de u
+     */
+    public int getDegree(int u) {
+        return this.degree[u];
+    }
+
+    /**
+     * Getter des voisins d'un sommet
+     * @param u sommet
+     * @return les voisins de u, dans l'ordre d'ajout des arêtes
+     */
+    public int[] getNeighbors(int u) {
+        if (this.neighbors[u] == null) return new int[0];
+        return Arrays.copyOf(this.neighbors[u], this.degree[u]);
+    }
+
+    /**
+     * Getter de la couleur d'un sommet
+     * @param u sommet
+     * @return int couleur, -1 si le graphe n'est pas encore coloré
+     */
+    public int getColor(int u) {
+        return this.colors[u];
+    }
+
+    /**
+     * Algorithme glouton de coloration, dans l'ordre des sommets : chaque sommet prend la plus petite couleur
+     * qu'aucun de ses voisins déjà colorés n'utilise (même coloration que UnorientedGraph.color quand les sommets
+     * y sont ajoutés dans l'ordre 0, 1, 2...)
+     * @return int nombre de couleurs utilisées
+     */
+    public int color() {
+        int nbColors = 0;
+        // usedBy[c] == u + 1 : la couleur c est prise par un voisin de u (évite de remettre le tableau à zéro)
+        int[] usedBy = new int[nbVertices + 1];
+        for (int u = 0; u < nbVertices; u++) {
+            for (int k = 0; k < this.degree[u]; k++) {
+                int c = this.colors[this.neighbors[u][k]];
+                if (c != -1) {
+                    usedBy[c] = u + 1;
+                }
+            }
+            int c = 0;
+            while (usedBy[c] == u + 1) {
+                c++;
+            }
+            this.colors[u] = c;
+            nbColors = Math.max(nbColors, c + 1);
+        }
+        return nbColors;
+    }
+}
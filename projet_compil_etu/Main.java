@@ -1,13 +1,51 @@
 
 
+import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import Asm.ObjectWriter;
 import Asm.Program;
 
 import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
 	public static void main(String[] args) {
+		// -server : serveur de compilation (voir CompileServer)
+		if (args.length > 0 && args[0].equals("-server")) {
+			CompileServer.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
+		// -profile : exécution avec profil par ligne et par fonction (voir Profiler)
+		if (args.length > 0 && args[0].equals("-profile")) {
+			Profiler.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
+		// -test : compilation et exécution des programmes de test dans le processus (voir TestRunner)
+		if (args.length > 0 && args[0].equals("-test")) {
+			TestRunner.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
+		// -bench : mesure des cycles du code généré et comparaison à la référence (voir CycleBenchmark)
+		if (args.length > 0 && args[0].equals("-bench")) {
+			CycleBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
+		// Avec des arguments : compilation par lots (voir BatchCompiler)
+		if (args.length > 0) {
+			BatchCompiler.main(args);
+			return;
+		}
+
 		// Lire le fichier input.txt
 		String fichier = "projet_compil_etu\\input";
 		StringBuilder input = new StringBuilder();
@@ -22,48 +60,88 @@ public class Main {
 			return;
 		}
 
-		// Analyse lexicale et syntaxique
-		grammarTCLLexer lexer = new grammarTCLLexer(CharStreams.fromString(input.toString()));
-		CommonTokenStream tokens = new CommonTokenStream(lexer);
-		grammarTCLParser parser = new grammarTCLParser(tokens);
-		grammarTCLParser.MainContext tree = parser.main();
-
-		// TyperVisitor
-		TyperVisitor typer = new TyperVisitor();
-		typer.visit(tree);
-
-		// Génération de code
-		CodeGenerator codeGen = new CodeGenerator (typer.getTypes(), typer.getEnvironment());
-		Program linearProgram = codeGen.visit(tree);
+		// Analyse, typage et génération de code
+		Program linearProgram = generate(input.toString());
 
         // Optimisation de code
         CodeOptimizer codeOpt = new CodeOptimizer(32);
         Program program = codeOpt.optimize(linearProgram);
 
-		// Affichage du code linéaire
-		System.out.println("=== CODE LINÉAIRE ===");
-		System.out.println(linearProgram);
-
-        System.out.println();
-        System.out.println();
-        System.out.println();
+		// Affichage des codes linéaire et final (écrits directement, sans passer par toString)
+		Writer console = new BufferedWriter(new OutputStreamWriter(System.out));
+		try {
+			console.write("=== CODE LINÉAIRE ===\n");
+			linearProgram.writeTo(console);
+			console.write("\n\n\n\n");
 
-        // Affichage du code final
-        System.out.println("=== CODE FINAL ===");
-        System.out.println(program);
+			console.write("=== CODE FINAL ===\n");
+			program.writeTo(console);
+			console.write("\n");
+			console.flush();
+		} catch (IOException e) {
+			System.out.println("Erreur affichage : " + e.getMessage());
+		}
 
 		//  Écrire dans un fichier le programme linéaire
-		try (FileWriter fw = new FileWriter("projet_compil_etu\\prog_lineaire.asm")) {
-			fw.write(linearProgram.toString());
+		try (Writer fw = new BufferedWriter(new FileWriter("projet_compil_etu\\prog_lineaire.asm"))) {
+			linearProgram.writeTo(fw);
 		} catch (IOException e) {
 			System.out.println("Erreur écriture fichier : " + e.getMessage());
 		}
 
         //  Écrire dans un fichier le programme final
-        try (FileWriter fw = new FileWriter("projet_compil_etu\\prog.asm")) {
-            fw.write(program.toString());
+        try (Writer fw = new BufferedWriter(new FileWriter("projet_compil_etu\\prog.asm"))) {
+            program.writeTo(fw);
         } catch (IOException e) {
             System.out.println("Erreur écriture fichier : " + e.getMessage());
         }
+
+        //  Écrire dans un fichier objet binaire le programme final
+        try {
+            ObjectWriter.write(program, Paths.get("projet_compil_etu\\prog.obj"));
+        } catch (IOException e) {
+            System.out.println("Erreur écriture fichier : " + e.getMessage());
+        }
+	}
+
+	/**
+	 * Analyse lexicale et syntaxique, typage et génération du code linéaire d'un programme TCL
+	 * @param source texte du programme
+	 * @return Program code linéaire (registres virtuels)
+	 * @throws RuntimeException si le programme contient des erreurs de syntaxe ou de typage
+	 */
+	public static Program generate(String source) {
+		// Analyse lexicale et syntaxique : les erreurs sont relevées au lieu d'être affichées sur la console
+		List<String> syntaxErrors = new ArrayList<>();
+		BaseErrorListener errorListener = new BaseErrorListener() {
+			@Override
+			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
+				syntaxErrors.add("line " + line + ":" + charPositionInLine + " " + msg);
+			}
+		};
+		grammarTCLLexer lexer = new grammarTCLLexer(CharStreams.fromString(source));
+		lexer.removeErrorListeners();
+		lexer.addErrorListener(errorListener);
+		CommonTokenStream tokens = new CommonTokenStream(lexer);
+		grammarTCLParser parser = new grammarTCLParser(tokens);
+		parser.removeErrorListeners();
+		parser.addErrorListener(errorListener);
+		grammarTCLParser.MainContext tree = parser.main();
+
+		// L'arbre d'un programme incorrect est incomplet : pas de typage ni de génération de code
+		if (!syntaxErrors.isEmpty()) {
+			throw new RuntimeException("Erreur de syntaxe :\n" + String.join("\n", syntaxErrors));
+		}
+
+		// Contexte propre à cette compilation (compteurs partagés par le typage et la génération de code)
+		CompilationContext context = new CompilationContext();
+
+		// TyperVisitor
+		TyperVisitor typer = new TyperVisitor(context);
+		typer.visit(tree);
+
+		// Génération de code
+		CodeGenerator codeGen = new CodeGenerator (typer.getTypes(), typer.getEnvironment(), context);
+		return codeGen.visit(tree);
 	}
 }
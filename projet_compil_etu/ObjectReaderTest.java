@@ -0,0 +1,139 @@
+import Asm.Executor;
+import Asm.ObjectReader;
+import Asm.ObjectWriter;
+import Asm.Opcode;
+import Asm.Program;
+import Asm.ProgramInput;
+import Asm.ProgramOutput;
+import Asm.Stop;
+import Asm.UALi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ObjectReaderTest {
+    // Programmes écrits en fichier objet puis relus
+    private static final List<String> PROGRAMS = List.of("Test/test_tab", "Test/test_fibo", "Test/test_spill", "Bench/bench_collatz");
+    private static final int NB_REGISTERS = 8;
+    private static final long SEED = 0;
+
+    public static void main(String[] args) throws Exception {
+        Path obj = Files.createTempFile("prog", ".obj");
+        try {
+            // Test aller-retour : même texte assembleur et mêmes sorties à l'exécution
+            for(String name : PROGRAMS) {
+                String source = Files.readString(Paths.get("projet_compil_etu", name));
+                Program program = new CodeOptimizer(NB_REGISTERS).optimize(Main.generate(source));
+                ObjectWriter.write(program, obj);
+                Program read = new ObjectReader(obj).readProgram();
+
+                if(!asm(program).equals(asm(read))) throw new Exception("Le programme relu de " + name + " diffère du programme écrit.");
+                if(!Arrays.equals(run(program), run(read))) throw new Exception("Le programme relu de " + name + " ne donne pas les mêmes sorties.");
+
+                long asmSize = asm(program).getBytes(StandardCharsets.UTF_8).length;
+                long objSize = Files.size(obj);
+                if(objSize * 2 > asmSize) throw new Exception("Le fichier objet de " + name + " devrait faire moins de la moitié du texte assembleur (" + objSize + " / " + asmSize + " octets).");
+                System.out.println(name + " : " + objSize + " octets (" + asmSize + " en assembleur)");
+            }
+
+            // Test des valeurs extrêmes : les entiers écrits sur 5 octets sont relus à l'identique
+            Program extremes = new Program();
+            for(int imm : new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1 << 27, -(1 << 27)}) {
+                extremes.addInstruction(new UALi(UALi.Op.ADD, 1, 2, imm));
+            }
+            extremes.addInstruction(new Stop());
+            ObjectWriter.write(extremes, obj);
+            if(!asm(extremes).equals(asm(new ObjectReader(obj).readProgram()))) throw new Exception("Les valeurs extrêmes relues diffèrent des valeurs écrites.");
+
+            // Entier dont le cinquième octet dépasse 32 bits : refusé
+            ByteArrayOutputStream overflow = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(overflow);
+            data.writeInt(ObjectWriter.MAGIC);
+            data.writeInt(ObjectWriter.VERSION);
+            data.writeInt(0);
+            data.writeInt(1);
+            data.writeInt(6);
+            data.write(new byte[] {(byte) Opcode.OUT.ordinal(), (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x1F});
+            Files.write(obj, overflow.toByteArray());
+            expectInvalid(obj, "avec un registre sur plus de 32 bits");
+
+            // Test des fichiers invalides : IOException et non une erreur d'index
+            String source = Files.readString(Paths.get("projet_compil_etu", "Test/test_tab"));
+            ObjectWriter.write(new CodeOptimizer(NB_REGISTERS).optimize(Main.generate(source)), obj);
+            byte[] bytes = Files.readAllBytes(obj);
+
+            // Fichier tronqué à chaque longueur possible
+            for(int length = 0; length < bytes.length; length++) {
+                Files.write(obj, Arrays.copyOf(bytes, length));
+                expectInvalid(obj, "tronqué à " + length + " octets");
+            }
+
+            // Nombres de l'en-tête hors limites
+            for(int offset : new int[] {8, 12, 16}) {
+                byte[] corrupted = bytes.clone();
+                corrupted[offset] = (byte) 0x7F;
+                Files.write(obj, corrupted);
+                expectInvalid(obj, "en-tête modifié à l'octet " + offset);
+            }
+
+            // Octets modifiés un par un après l'en-tête : le fichier peut rester valide, mais ne doit pas faire
+            // d'erreur autre qu'une IOException
+            for(int offset = 20; offset < bytes.length; offset++) {
+                byte[] corrupted = bytes.clone();
+                corrupted[offset] = (byte) 0xFF;
+                Files.write(obj, corrupted);
+                try {
+                    new ObjectReader(obj).readProgram();
+                } catch(IOException e) {
+                    // attendu
+                }
+            }
+        } finally {
+            Files.deleteIfExists(obj);
+        }
+    }
+
+    /**
+     * Texte assembleur d'un programme
+     * @param program programme
+     * @return String texte assembleur
+     */
+    private static String asm(Program program) throws IOException {
+        StringBuilder text = new StringBuilder();
+        program.writeTo(text);
+        return text.toString();
+    }
+
+    /**
+     * Exécute un programme avec l'interpréteur
+     * @param program programme
+     * @return byte[] sorties du programme
+     */
+    private static byte[] run(Program program) throws IOException {
+        ProgramOutput output = ProgramOutput.memory();
+        new Executor(program, new Random(SEED)).run(ProgramInput.empty(), output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Vérifie que la lecture d'un fichier objet échoue par une IOException
+     * @param obj fichier objet
+     * @param description modification apportée au fichier
+     */
+    private static void expectInvalid(Path obj, String description) throws Exception {
+        try {
+            new ObjectReader(obj).readProgram();
+        } catch(IOException e) {
+            return;
+        }
+        throw new Exception("Le fichier objet " + description + " devrait être refusé.");
+    }
+}
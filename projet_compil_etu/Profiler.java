@@ -0,0 +1,145 @@
+import Asm.Executor;
+import Asm.Profile;
+import Asm.Program;
+import Asm.ProgramInput;
+import Asm.ProgramOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Profilage d'un programme TCL : compilation complète, exécution par l'exécuteur Java en comptant
+ * les exécutions de chaque instruction, puis rapport des cycles par fonction et par ligne du code source
+ * (voir Asm.Profile). Les lignes viennent de CodeGenerator et sont conservées par l'allocation des registres.
+ *
+ * Usage : java Main -profile [-r nbRegistres] [-flame piles.txt] [-train] [-pgo] fichier.tcl [entrees.txt]
+ * Les sorties du programme sont écrites sur la sortie standard, suivies du rapport.
+ * Avec -flame, les piles d'appels repliées sont écrites dans un fichier pour les outils de flame graph
+ * (par exemple : flamegraph.pl piles.txt > profil.svg).
+ * Avec -train, le programme linéaire (avant allocation) est d'abord exécuté avec les mêmes entrées, et le nombre
+ * d'exécutions de ses blocs est écrit dans fichier.tcl.prof. Avec -pgo, ce fichier guide l'allocation des registres
+ * (voir CodeOptimizer.loadProfile) ; BatchCompiler accepte la même option.
+ */
+public class Profiler {
+    private int nbRegisters = 32;
+    private Path flameGraph = null;
+    private boolean train = false;
+    private boolean pgo = false;
+
+    /**
+     * Point d'entrée du profilage
+     * @param args options, fichier TCL et fichier des entrées
+     */
+    public static void main(String[] args) {
+        Profiler profiler = new Profiler();
+        Path source = null;
+        Path input = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("-r") && i + 1 < args.length) {
+                    profiler.nbRegisters = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("-flame") && i + 1 < args.length) {
+                    profiler.flameGraph = Paths.get(args[++i]);
+                } else if (args[i].equals("-train")) {
+                    profiler.train = true;
+                } else if (args[i].equals("-pgo")) {
+                    profiler.pgo = true;
+                } else if (source == null) {
+                    source = Paths.get(args[i]);
+                } else if (input == null) {
+                    input = Paths.get(args[i]);
+                } else {
+                    throw new IllegalArgumentException("argument en trop : " + args[i]);
+                }
+            }
+            if (source == null) {
+                throw new IllegalArgumentException("aucun fichier à profiler");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : java Main -profile [-r nbRegistres] [-flame piles.txt] [-train] [-pgo] fichier.tcl [entrees.txt]");
+            System.exit(2);
+        }
+
+        try {
+            profiler.profile(source, input);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compile, exécute et profile un programme
+     * @param sourceFile fichier TCL
+     * @param inputFile fichier des entrées (null : entrée vide)
+     * @throws IOException si un fichier ne peut pas être lu ou si l'écriture échoue
+     */
+    public void profile(Path sourceFile, Path inputFile) throws IOException {
+        String source = Files.readString(sourceFile, StandardCharsets.UTF_8);
+        Program linear = Main.generate(source);
+        Path blockCounts = profilePath(sourceFile);
+
+        if (train) {
+            // Exécution d'entraînement : le programme linéaire utilise des registres virtuels, que l'exécuteur accepte
+            Executor trainer = new Executor(linear);
+            trainer.enableProfiling();
+            try (ProgramInput in = openInput(inputFile)) {
+                trainer.run(in, ProgramOutput.of(OutputStream.nullOutputStream()));
+            }
+            try (Writer counts = Files.newBufferedWriter(blockCounts, StandardCharsets.UTF_8)) {
+                trainer.getProfile().writeBlockCounts(counts);
+            }
+        }
+
+        CodeOptimizer optimizer = new CodeOptimizer(nbRegisters);
+        if (pgo) {
+            optimizer.loadProfile(blockCounts);
+        }
+        Program program = optimizer.optimize(linear);
+
+        Executor executor = new Executor(program);
+        executor.enableProfiling();
+        try (ProgramInput in = openInput(inputFile)) {
+            executor.run(in, ProgramOutput.of(System.out));
+        }
+
+        Profile profile = executor.getProfile();
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        out.write(System.lineSeparator());
+        profile.writeReport(out, source);
+        out.flush();
+
+        if (flameGraph != null) {
+            try (Writer stacks = Files.newBufferedWriter(flameGraph, StandardCharsets.UTF_8)) {
+                profile.writeCollapsedStacks(stacks);
+            }
+        }
+    }
+
+    /**
+     * Fichier du profil d'entraînement d'un programme
+     * @param sourceFile fichier TCL
+     * @return Path fichier.tcl.prof, à côté du fichier TCL
+     */
+    static Path profilePath(Path sourceFile) {
+        return sourceFile.resolveSibling(sourceFile.getFileName() + ".prof");
+    }
+
+    /**
+     * Ouvre le fichier des entrées
+     * @param inputFile fichier des entrées (null : entrée vide)
+     * @return ProgramInput entrées, projetées en mémoire
+     * @throws IOException si le fichier ne peut pas être ouvert
+     */
+    private static ProgramInput openInput(Path inputFile) throws IOException {
+        return inputFile == null ? ProgramInput.empty() : ProgramInput.map(inputFile);
+    }
+}
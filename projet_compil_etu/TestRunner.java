@@ -0,0 +1,187 @@
+import Asm.Executor;
+import Asm.PagedMemory;
+import Asm.Program;
+import Asm.ProgramInput;
+import Asm.ProgramOutput;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Exécution des programmes de test dans le processus même : chaque fichier TCL est compilé (toute la chaîne)
+ * puis exécuté par l'exécuteur Java, sur un thread virtuel par fichier. Chaque exécution a sa propre mémoire,
+ * ses propres registres et ses propres tampons d'entrée et de sortie, sans fichier intermédiaire ni script Python.
+ *
+ * Usage : java Main -test [-r nbRegistres] [fichiers|dossiers...]
+ * Sans fichier, le dossier Test est utilisé. Les entrées d'un programme sont lues dans fichier.in s'il existe.
+ * Pour chaque programme sont affichés le nombre de cycles, la durée (compilation et exécution) et les sorties.
+ */
+public class TestRunner {
+    // Graine des valeurs initiales de la mémoire et des registres : les exécutions sont reproductibles
+    static final long SEED = 0;
+
+    /**
+     * Résultat de l'exécution d'un programme
+     * @param file fichier TCL
+     * @param output sorties du programme
+     * @param cycles nombre de cycles exécutés
+     * @param nanos durée de la compilation et de l'exécution
+     * @param error erreur de compilation ou d'exécution (null si le programme s'est arrêté normalement)
+     */
+    public record Result(Path file, String output, long cycles, long nanos, Exception error) {
+        /**
+         * Indique si le programme a été compilé et exécuté sans erreur
+         * @return boolean true si aucune erreur
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Point d'entrée du lanceur de tests
+     * @param args options, puis fichiers ou dossiers
+     */
+    public static void main(String[] args) {
+        int nbRegisters = 32;
+        List<Path> files = new ArrayList<>();
+        try {
+            List<Path> roots = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("-r") && i + 1 < args.length) {
+                    nbRegisters = Integer.parseInt(args[++i]);
+                } else {
+                    roots.add(Paths.get(args[i]));
+                }
+            }
+            if (roots.isEmpty()) {
+                roots.add(Paths.get("Test"));
+            }
+            for (Path root : roots) {
+                files.addAll(listPrograms(root));
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : java Main -test [-r nbRegistres] [fichiers|dossiers...]");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        List<Result> results = runAll(files, nbRegisters);
+        long elapsed = System.nanoTime() - start;
+
+        int nbErrors = 0;
+        for (Result result : results) {
+            if (result.isSuccess()) {
+                System.out.printf("OK     %-40s %10d cycles %8.2f ms%n", result.file(), result.cycles(), result.nanos() / 1e6);
+                if (!result.output().isEmpty()) {
+                    System.out.println(result.output().stripTrailing().indent(7).stripTrailing());
+                }
+            } else {
+                nbErrors++;
+                Exception error = result.error();
+                System.out.printf("ERREUR %-40s %s : %s%n", result.file(), error.getClass().getSimpleName(), error.getMessage());
+            }
+        }
+        System.out.printf("%d programme(s), %d erreur(s), %.2f ms%n", results.size(), nbErrors, elapsed / 1e6);
+        if (nbErrors > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Liste les programmes TCL d'un fichier ou d'un dossier (les sorties du compilateur, les entrées .in,
+     * les profils, les fichiers texte et les scripts sont ignorés)
+     * @param root fichier ou dossier
+     * @return List<Path> programmes, dans l'ordre alphabétique
+     * @throws IOException si le dossier ne peut pas être parcouru
+     * @throws IllegalArgumentException si le fichier n'existe pas
+     */
+    public static List<Path> listPrograms(Path root) throws IOException, IllegalArgumentException {
+        if (Files.isRegularFile(root)) {
+            return List.of(root);
+        }
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("fichier introuvable : " + root);
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isRegularFile).filter(TestRunner::isProgram).sorted().toList();
+        }
+    }
+
+    /**
+     * Indique si un fichier trouvé dans un dossier est un programme TCL à exécuter
+     * @param file fichier
+     * @return boolean true si le fichier doit être exécuté
+     */
+    static boolean isProgram(Path file) {
+        String name = file.getFileName().toString();
+        return !name.startsWith(".") && !name.endsWith(".asm") && !name.endsWith(".obj") && !name.endsWith(".prof")
+                && !name.endsWith(".in") && !name.endsWith(".txt") && !name.endsWith(".py");
+    }
+
+    /**
+     * Compile et exécute des programmes en parallèle, un thread virtuel par programme
+     * @param files fichiers TCL
+     * @param nbRegisters nombre de registres de la machine cible
+     * @return List<Result> résultats, dans l'ordre des fichiers
+     */
+    public static List<Result> runAll(List<Path> files, int nbRegisters) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(executor.submit(() -> run(file, nbRegisters)));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new Result(files.get(i), "", 0, 0, new RuntimeException(e.getCause())));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.add(new Result(files.get(i), "", 0, 0, e));
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Compile et exécute un programme. Les erreurs de compilation et d'exécution sont rendues dans le résultat.
+     * @param file fichier TCL (ses entrées sont lues dans fichier.in s'il existe)
+     * @param nbRegisters nombre de registres de la machine cible
+     * @return Result sorties, cycles et durée
+     */
+    public static Result run(Path file, int nbRegisters) {
+        long start = System.nanoTime();
+        ProgramOutput out = ProgramOutput.memory();
+        Executor executor = null;
+        try {
+            String source = Files.readString(file, StandardCharsets.UTF_8);
+            Path inputFile = file.resolveSibling(file.getFileName() + ".in");
+            byte[] input = Files.isRegularFile(inputFile) ? Files.readAllBytes(inputFile) : new byte[0];
+
+            Program program = new CodeOptimizer(nbRegisters).optimize(Main.generate(source));
+            Random random = new Random(SEED);
+            executor = new Executor(program, random, new PagedMemory(Executor.MEMORY_SIZE, random));
+            executor.run(ProgramInput.of(input), out);
+            return new Result(file, new String(out.toByteArray(), StandardCharsets.US_ASCII), executor.getCycles(), System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException e) {
+            long cycles = executor == null ? 0 : executor.getCycles();
+            return new Result(file, new String(out.toByteArray(), StandardCharsets.US_ASCII), cycles, System.nanoTime() - start, e);
+        }
+    }
+}
@@ -9,15 +9,6 @@ import org.antlr.v4.runtime.tree.TerminalNode;
 public class UnknownType extends Type {
     private String varName;
     private int varIndex;
-    private static int newVariableCounter = 0;
-
-    /**
-     * Constructeur sans nom
-     */
-    public UnknownType(){
-        this.varIndex = newVariableCounter++;
-        this.varName = "#";
-    }
 
     /**
      * Constructeur à partir d'un nom de variable et un numéro
@@ -24,7 +24,19 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
     private final PrimitiveType BOOL_TYPE = new PrimitiveType(Type.Base.BOOL);
     private final Type VOID_TYPE = null; // Type pour les instructions
 
+    // Compteur des variables de type de la compilation
+    private final CompilationContext context;
+
     public TyperVisitor() {
+        this(new CompilationContext());
+    }
+
+    /**
+     * Constructeur avec le contexte de la compilation
+     * @param context contexte de la compilation (fournit les variables de type fraîches)
+     */
+    public TyperVisitor(CompilationContext context) {
+        this.context = context;
         // Initialisation globale
         env.push(new HashMap<>());
     }
@@ -194,7 +206,7 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
 
         unifyAndApply(tIndex, INT_TYPE, ctx);
 
-        UnknownType tElem = new UnknownType();
+        UnknownType tElem = context.newTypeVariable();
         ArrayType tExpectedArray = new ArrayType(tElem);
 
         unifyAndApply(tVar, tExpectedArray, ctx);
@@ -245,7 +257,7 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
             unifyAndApply(expectedArgType, actualArgType, ctx);
         }
 
-        UnknownType tResult = new UnknownType();
+        UnknownType tResult = context.newTypeVariable();
         unifyAndApply(signature.getReturnType(), tResult, ctx);
 
         return tResult.substituteAll(this.types);
@@ -259,7 +271,7 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
         if (t instanceof UnknownType) {
             UnknownType u = (UnknownType) t;
             if (mapping.containsKey(u)) return mapping.get(u);
-            UnknownType fresh = new UnknownType();
+            UnknownType fresh = context.newTypeVariable();
             mapping.put(u, fresh);
             return fresh;
         }
@@ -356,7 +368,7 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
     @Override
     public Type visitTab_initialization(grammarTCLParser.Tab_initializationContext ctx) {
         if (ctx.expr().isEmpty()) {
-            return new ArrayType(new UnknownType());
+            return new ArrayType(context.newTypeVariable());
         }
         Type tElem = visit(ctx.expr(0));
 
@@ -400,7 +412,7 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
             return BOOL_TYPE;
         }
         if (typeKeyword.equals("auto")) {
-            return new UnknownType();
+            return context.newTypeVariable();
         }
         throw new RuntimeException("Type Error: Type de base inconnu: " + typeKeyword);
     }
@@ -478,7 +490,7 @@ public class TyperVisitor extends AbstractParseTreeVisitor<Type> implements gram
             unifyAndApply(indexType, INT_TYPE, ctx);
 
             // On s'attend à ce que variableType soit un ArrayType(...)
-            UnknownType elem = new UnknownType();
+            UnknownType elem = context.newTypeVariable();
             ArrayType expectedArray = new ArrayType(elem);
             unifyAndApply(variableType, expectedArray, ctx);
 
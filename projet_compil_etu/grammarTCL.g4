@@ -69,4 +69,5 @@ ELSE : 'else';
 WHILE : 'while';
 FOR: 'for';
 RETURN : 'return';
-VAR : [A-Za-z_][A-Za-z0-9_]*;
\ No newline at end of file
+VAR : [A-Za-z_][A-Za-z0-9_]*;
+COMMENT : '//' ~[\r\n]* -> skip;
\ No newline at end of file
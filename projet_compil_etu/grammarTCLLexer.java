@@ -1,4 +1,4 @@
-// Generated from grammarTCL.g4 by ANTLR 4.13.1
+// Generated from grammarTCL.g4 by ANTLR 4.13.0
 import org.antlr.v4.runtime.Lexer;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.Token;
@@ -8,9 +8,9 @@ import org.antlr.v4.runtime.atn.*;
 import org.antlr.v4.runtime.dfa.DFA;
 import org.antlr.v4.runtime.misc.*;
 
-@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue", "this-escape"})
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue"})
 public class grammarTCLLexer extends Lexer {
-	static { RuntimeMetaData.checkVersion("4.13.1", RuntimeMetaData.VERSION); }
+	static { RuntimeMetaData.checkVersion("4.13.0", RuntimeMetaData.VERSION); }
 
 	protected static final DFA[] _decisionToDFA;
 	protected static final PredictionContextCache _sharedContextCache =
@@ -20,7 +20,7 @@ public class grammarTCLLexer extends Lexer {
 		SEMICOL=10, NEWLINE=11, INT=12, BOOL=13, OR=14, AND=15, MUL=16, DIV=17, 
 		MODULO=18, ADD=19, SUB=20, SUPEQ=21, INFEQ=22, SUP=23, INF=24, EQUALS=25, 
 		DIFF=26, NOT=27, ASSIGN=28, BASE_TYPE=29, IF=30, ELSE=31, WHILE=32, FOR=33, 
-		RETURN=34, VAR=35;
+		RETURN=34, VAR=35, COMMENT=36;
 	public static String[] channelNames = {
 		"DEFAULT_TOKEN_CHANNEL", "HIDDEN"
 	};
@@ -34,7 +34,8 @@ public class grammarTCLLexer extends Lexer {
 			"T__0", "T__1", "T__2", "T__3", "T__4", "T__5", "T__6", "T__7", "PRINT", 
 			"SEMICOL", "NEWLINE", "INT", "BOOL", "OR", "AND", "MUL", "DIV", "MODULO", 
 			"ADD", "SUB", "SUPEQ", "INFEQ", "SUP", "INF", "EQUALS", "DIFF", "NOT", 
-			"ASSIGN", "BASE_TYPE", "IF", "ELSE", "WHILE", "FOR", "RETURN", "VAR"
+			"ASSIGN", "BASE_TYPE", "IF", "ELSE", "WHILE", "FOR", "RETURN", "VAR", 
+			"COMMENT"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
@@ -53,7 +54,7 @@ public class grammarTCLLexer extends Lexer {
 			null, null, null, null, null, null, null, null, null, "PRINT", "SEMICOL", 
 			"NEWLINE", "INT", "BOOL", "OR", "AND", "MUL", "DIV", "MODULO", "ADD", 
 			"SUB", "SUPEQ", "INFEQ", "SUP", "INF", "EQUALS", "DIFF", "NOT", "ASSIGN", 
-			"BASE_TYPE", "IF", "ELSE", "WHILE", "FOR", "RETURN", "VAR"
+			"BASE_TYPE", "IF", "ELSE", "WHILE", "FOR", "RETURN", "VAR", "COMMENT"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -115,7 +116,7 @@ public class grammarTCLLexer extends Lexer {
 	public ATN getATN() { return _ATN; }
 
 	public static final String _serializedATN =
-		"\u0004\u0000#\u00d3\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002\u0001"+
+		"\u0004\u0000$\u00e0\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002\u0001"+
 		"\u0007\u0001\u0002\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004"+
 		"\u0007\u0004\u0002\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007"+
 		"\u0007\u0007\u0002\b\u0007\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002\u000b"+
@@ -126,123 +127,131 @@ public class grammarTCLLexer extends Lexer {
 		"\u0018\u0007\u0018\u0002\u0019\u0007\u0019\u0002\u001a\u0007\u001a\u0002"+
 		"\u001b\u0007\u001b\u0002\u001c\u0007\u001c\u0002\u001d\u0007\u001d\u0002"+
 		"\u001e\u0007\u001e\u0002\u001f\u0007\u001f\u0002 \u0007 \u0002!\u0007"+
-		"!\u0002\"\u0007\"\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001"+
-		"\u0002\u0001\u0002\u0001\u0003\u0001\u0003\u0001\u0004\u0001\u0004\u0001"+
-		"\u0005\u0001\u0005\u0001\u0006\u0001\u0006\u0001\u0007\u0001\u0007\u0001"+
+		"!\u0002\"\u0007\"\u0002#\u0007#\u0001\u0000\u0001\u0000\u0001\u0001\u0001"+
+		"\u0001\u0001\u0002\u0001\u0002\u0001\u0003\u0001\u0003\u0001\u0004\u0001"+
+		"\u0004\u0001\u0005\u0001\u0005\u0001\u0006\u0001\u0006\u0001\u0007\u0001"+
 		"\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001"+
-		"\u0007\u0001\u0007\u0001\u0007\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b"+
-		"\u0001\b\u0001\t\u0001\t\u0001\n\u0004\nj\b\n\u000b\n\f\nk\u0001\n\u0001"+
-		"\n\u0001\u000b\u0003\u000bq\b\u000b\u0001\u000b\u0004\u000bt\b\u000b\u000b"+
-		"\u000b\f\u000bu\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001"+
-		"\f\u0001\f\u0001\f\u0003\f\u0081\b\f\u0001\r\u0001\r\u0001\r\u0001\u000e"+
-		"\u0001\u000e\u0001\u000e\u0001\u000f\u0001\u000f\u0001\u0010\u0001\u0010"+
-		"\u0001\u0011\u0001\u0011\u0001\u0012\u0001\u0012\u0001\u0013\u0001\u0013"+
-		"\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0015\u0001\u0015\u0001\u0015"+
-		"\u0001\u0016\u0001\u0016\u0001\u0017\u0001\u0017\u0001\u0018\u0001\u0018"+
-		"\u0001\u0018\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u001a\u0001\u001a"+
-		"\u0001\u001b\u0001\u001b\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c"+
-		"\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c"+
-		"\u0001\u001c\u0003\u001c\u00b2\b\u001c\u0001\u001d\u0001\u001d\u0001\u001d"+
-		"\u0001\u001e\u0001\u001e\u0001\u001e\u0001\u001e\u0001\u001e\u0001\u001f"+
-		"\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001 \u0001"+
-		" \u0001 \u0001 \u0001!\u0001!\u0001!\u0001!\u0001!\u0001!\u0001!\u0001"+
-		"\"\u0001\"\u0005\"\u00cf\b\"\n\"\f\"\u00d2\t\"\u0000\u0000#\u0001\u0001"+
-		"\u0003\u0002\u0005\u0003\u0007\u0004\t\u0005\u000b\u0006\r\u0007\u000f"+
-		"\b\u0011\t\u0013\n\u0015\u000b\u0017\f\u0019\r\u001b\u000e\u001d\u000f"+
-		"\u001f\u0010!\u0011#\u0012%\u0013\'\u0014)\u0015+\u0016-\u0017/\u0018"+
-		"1\u00193\u001a5\u001b7\u001c9\u001d;\u001e=\u001f? A!C\"E#\u0001\u0000"+
-		"\u0004\u0003\u0000\t\n\r\r  \u0001\u000009\u0003\u0000AZ__az\u0004\u0000"+
-		"09AZ__az\u00d9\u0000\u0001\u0001\u0000\u0000\u0000\u0000\u0003\u0001\u0000"+
-		"\u0000\u0000\u0000\u0005\u0001\u0000\u0000\u0000\u0000\u0007\u0001\u0000"+
-		"\u0000\u0000\u0000\t\u0001\u0000\u0000\u0000\u0000\u000b\u0001\u0000\u0000"+
-		"\u0000\u0000\r\u0001\u0000\u0000\u0000\u0000\u000f\u0001\u0000\u0000\u0000"+
-		"\u0000\u0011\u0001\u0000\u0000\u0000\u0000\u0013\u0001\u0000\u0000\u0000"+
-		"\u0000\u0015\u0001\u0000\u0000\u0000\u0000\u0017\u0001\u0000\u0000\u0000"+
-		"\u0000\u0019\u0001\u0000\u0000\u0000\u0000\u001b\u0001\u0000\u0000\u0000"+
-		"\u0000\u001d\u0001\u0000\u0000\u0000\u0000\u001f\u0001\u0000\u0000\u0000"+
-		"\u0000!\u0001\u0000\u0000\u0000\u0000#\u0001\u0000\u0000\u0000\u0000%"+
-		"\u0001\u0000\u0000\u0000\u0000\'\u0001\u0000\u0000\u0000\u0000)\u0001"+
-		"\u0000\u0000\u0000\u0000+\u0001\u0000\u0000\u0000\u0000-\u0001\u0000\u0000"+
-		"\u0000\u0000/\u0001\u0000\u0000\u0000\u00001\u0001\u0000\u0000\u0000\u0000"+
-		"3\u0001\u0000\u0000\u0000\u00005\u0001\u0000\u0000\u0000\u00007\u0001"+
-		"\u0000\u0000\u0000\u00009\u0001\u0000\u0000\u0000\u0000;\u0001\u0000\u0000"+
-		"\u0000\u0000=\u0001\u0000\u0000\u0000\u0000?\u0001\u0000\u0000\u0000\u0000"+
-		"A\u0001\u0000\u0000\u0000\u0000C\u0001\u0000\u0000\u0000\u0000E\u0001"+
-		"\u0000\u0000\u0000\u0001G\u0001\u0000\u0000\u0000\u0003I\u0001\u0000\u0000"+
-		"\u0000\u0005K\u0001\u0000\u0000\u0000\u0007M\u0001\u0000\u0000\u0000\t"+
-		"O\u0001\u0000\u0000\u0000\u000bQ\u0001\u0000\u0000\u0000\rS\u0001\u0000"+
-		"\u0000\u0000\u000fU\u0001\u0000\u0000\u0000\u0011`\u0001\u0000\u0000\u0000"+
-		"\u0013f\u0001\u0000\u0000\u0000\u0015i\u0001\u0000\u0000\u0000\u0017p"+
-		"\u0001\u0000\u0000\u0000\u0019\u0080\u0001\u0000\u0000\u0000\u001b\u0082"+
-		"\u0001\u0000\u0000\u0000\u001d\u0085\u0001\u0000\u0000\u0000\u001f\u0088"+
-		"\u0001\u0000\u0000\u0000!\u008a\u0001\u0000\u0000\u0000#\u008c\u0001\u0000"+
-		"\u0000\u0000%\u008e\u0001\u0000\u0000\u0000\'\u0090\u0001\u0000\u0000"+
-		"\u0000)\u0092\u0001\u0000\u0000\u0000+\u0095\u0001\u0000\u0000\u0000-"+
-		"\u0098\u0001\u0000\u0000\u0000/\u009a\u0001\u0000\u0000\u00001\u009c\u0001"+
-		"\u0000\u0000\u00003\u009f\u0001\u0000\u0000\u00005\u00a2\u0001\u0000\u0000"+
-		"\u00007\u00a4\u0001\u0000\u0000\u00009\u00b1\u0001\u0000\u0000\u0000;"+
-		"\u00b3\u0001\u0000\u0000\u0000=\u00b6\u0001\u0000\u0000\u0000?\u00bb\u0001"+
-		"\u0000\u0000\u0000A\u00c1\u0001\u0000\u0000\u0000C\u00c5\u0001\u0000\u0000"+
-		"\u0000E\u00cc\u0001\u0000\u0000\u0000GH\u0005(\u0000\u0000H\u0002\u0001"+
-		"\u0000\u0000\u0000IJ\u0005)\u0000\u0000J\u0004\u0001\u0000\u0000\u0000"+
-		"KL\u0005{\u0000\u0000L\u0006\u0001\u0000\u0000\u0000MN\u0005,\u0000\u0000"+
-		"N\b\u0001\u0000\u0000\u0000OP\u0005}\u0000\u0000P\n\u0001\u0000\u0000"+
-		"\u0000QR\u0005[\u0000\u0000R\f\u0001\u0000\u0000\u0000ST\u0005]\u0000"+
-		"\u0000T\u000e\u0001\u0000\u0000\u0000UV\u0005i\u0000\u0000VW\u0005n\u0000"+
-		"\u0000WX\u0005t\u0000\u0000XY\u0005 \u0000\u0000YZ\u0005m\u0000\u0000"+
-		"Z[\u0005a\u0000\u0000[\\\u0005i\u0000\u0000\\]\u0005n\u0000\u0000]^\u0005"+
-		"(\u0000\u0000^_\u0005)\u0000\u0000_\u0010\u0001\u0000\u0000\u0000`a\u0005"+
-		"p\u0000\u0000ab\u0005r\u0000\u0000bc\u0005i\u0000\u0000cd\u0005n\u0000"+
-		"\u0000de\u0005t\u0000\u0000e\u0012\u0001\u0000\u0000\u0000fg\u0005;\u0000"+
-		"\u0000g\u0014\u0001\u0000\u0000\u0000hj\u0007\u0000\u0000\u0000ih\u0001"+
-		"\u0000\u0000\u0000jk\u0001\u0000\u0000\u0000ki\u0001\u0000\u0000\u0000"+
-		"kl\u0001\u0000\u0000\u0000lm\u0001\u0000\u0000\u0000mn\u0006\n\u0000\u0000"+
-		"n\u0016\u0001\u0000\u0000\u0000oq\u0005-\u0000\u0000po\u0001\u0000\u0000"+
-		"\u0000pq\u0001\u0000\u0000\u0000qs\u0001\u0000\u0000\u0000rt\u0007\u0001"+
-		"\u0000\u0000sr\u0001\u0000\u0000\u0000tu\u0001\u0000\u0000\u0000us\u0001"+
-		"\u0000\u0000\u0000uv\u0001\u0000\u0000\u0000v\u0018\u0001\u0000\u0000"+
-		"\u0000wx\u0005t\u0000\u0000xy\u0005r\u0000\u0000yz\u0005u\u0000\u0000"+
-		"z\u0081\u0005e\u0000\u0000{|\u0005f\u0000\u0000|}\u0005a\u0000\u0000}"+
-		"~\u0005l\u0000\u0000~\u007f\u0005s\u0000\u0000\u007f\u0081\u0005e\u0000"+
-		"\u0000\u0080w\u0001\u0000\u0000\u0000\u0080{\u0001\u0000\u0000\u0000\u0081"+
-		"\u001a\u0001\u0000\u0000\u0000\u0082\u0083\u0005|\u0000\u0000\u0083\u0084"+
-		"\u0005|\u0000\u0000\u0084\u001c\u0001\u0000\u0000\u0000\u0085\u0086\u0005"+
-		"&\u0000\u0000\u0086\u0087\u0005&\u0000\u0000\u0087\u001e\u0001\u0000\u0000"+
-		"\u0000\u0088\u0089\u0005*\u0000\u0000\u0089 \u0001\u0000\u0000\u0000\u008a"+
-		"\u008b\u0005/\u0000\u0000\u008b\"\u0001\u0000\u0000\u0000\u008c\u008d"+
-		"\u0005%\u0000\u0000\u008d$\u0001\u0000\u0000\u0000\u008e\u008f\u0005+"+
-		"\u0000\u0000\u008f&\u0001\u0000\u0000\u0000\u0090\u0091\u0005-\u0000\u0000"+
-		"\u0091(\u0001\u0000\u0000\u0000\u0092\u0093\u0005>\u0000\u0000\u0093\u0094"+
-		"\u0005=\u0000\u0000\u0094*\u0001\u0000\u0000\u0000\u0095\u0096\u0005<"+
-		"\u0000\u0000\u0096\u0097\u0005=\u0000\u0000\u0097,\u0001\u0000\u0000\u0000"+
-		"\u0098\u0099\u0005>\u0000\u0000\u0099.\u0001\u0000\u0000\u0000\u009a\u009b"+
-		"\u0005<\u0000\u0000\u009b0\u0001\u0000\u0000\u0000\u009c\u009d\u0005="+
-		"\u0000\u0000\u009d\u009e\u0005=\u0000\u0000\u009e2\u0001\u0000\u0000\u0000"+
-		"\u009f\u00a0\u0005!\u0000\u0000\u00a0\u00a1\u0005=\u0000\u0000\u00a14"+
-		"\u0001\u0000\u0000\u0000\u00a2\u00a3\u0005!\u0000\u0000\u00a36\u0001\u0000"+
-		"\u0000\u0000\u00a4\u00a5\u0005=\u0000\u0000\u00a58\u0001\u0000\u0000\u0000"+
-		"\u00a6\u00a7\u0005i\u0000\u0000\u00a7\u00a8\u0005n\u0000\u0000\u00a8\u00b2"+
-		"\u0005t\u0000\u0000\u00a9\u00aa\u0005b\u0000\u0000\u00aa\u00ab\u0005o"+
-		"\u0000\u0000\u00ab\u00ac\u0005o\u0000\u0000\u00ac\u00b2\u0005l\u0000\u0000"+
-		"\u00ad\u00ae\u0005a\u0000\u0000\u00ae\u00af\u0005u\u0000\u0000\u00af\u00b0"+
-		"\u0005t\u0000\u0000\u00b0\u00b2\u0005o\u0000\u0000\u00b1\u00a6\u0001\u0000"+
-		"\u0000\u0000\u00b1\u00a9\u0001\u0000\u0000\u0000\u00b1\u00ad\u0001\u0000"+
-		"\u0000\u0000\u00b2:\u0001\u0000\u0000\u0000\u00b3\u00b4\u0005i\u0000\u0000"+
-		"\u00b4\u00b5\u0005f\u0000\u0000\u00b5<\u0001\u0000\u0000\u0000\u00b6\u00b7"+
-		"\u0005e\u0000\u0000\u00b7\u00b8\u0005l\u0000\u0000\u00b8\u00b9\u0005s"+
-		"\u0000\u0000\u00b9\u00ba\u0005e\u0000\u0000\u00ba>\u0001\u0000\u0000\u0000"+
-		"\u00bb\u00bc\u0005w\u0000\u0000\u00bc\u00bd\u0005h\u0000\u0000\u00bd\u00be"+
-		"\u0005i\u0000\u0000\u00be\u00bf\u0005l\u0000\u0000\u00bf\u00c0\u0005e"+
-		"\u0000\u0000\u00c0@\u0001\u0000\u0000\u0000\u00c1\u00c2\u0005f\u0000\u0000"+
-		"\u00c2\u00c3\u0005o\u0000\u0000\u00c3\u00c4\u0005r\u0000\u0000\u00c4B"+
-		"\u0001\u0000\u0000\u0000\u00c5\u00c6\u0005r\u0000\u0000\u00c6\u00c7\u0005"+
-		"e\u0000\u0000\u00c7\u00c8\u0005t\u0000\u0000\u00c8\u00c9\u0005u\u0000"+
-		"\u0000\u00c9\u00ca\u0005r\u0000\u0000\u00ca\u00cb\u0005n\u0000\u0000\u00cb"+
-		"D\u0001\u0000\u0000\u0000\u00cc\u00d0\u0007\u0002\u0000\u0000\u00cd\u00cf"+
-		"\u0007\u0003\u0000\u0000\u00ce\u00cd\u0001\u0000\u0000\u0000\u00cf\u00d2"+
-		"\u0001\u0000\u0000\u0000\u00d0\u00ce\u0001\u0000\u0000\u0000\u00d0\u00d1"+
-		"\u0001\u0000\u0000\u0000\u00d1F\u0001\u0000\u0000\u0000\u00d2\u00d0\u0001"+
-		"\u0000\u0000\u0000\u0007\u0000kpu\u0080\u00b1\u00d0\u0001\u0006\u0000"+
+		"\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\b\u0001\b\u0001\b\u0001"+
+		"\b\u0001\b\u0001\b\u0001\t\u0001\t\u0001\n\u0004\nl\b\n\u000b\n\f\nm\u0001"+
+		"\n\u0001\n\u0001\u000b\u0003\u000bs\b\u000b\u0001\u000b\u0004\u000bv\b"+
+		"\u000b\u000b\u000b\f\u000bw\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001"+
+		"\f\u0001\f\u0001\f\u0001\f\u0003\f\u0083\b\f\u0001\r\u0001\r\u0001\r\u0001"+
+		"\u000e\u0001\u000e\u0001\u000e\u0001\u000f\u0001\u000f\u0001\u0010\u0001"+
+		"\u0010\u0001\u0011\u0001\u0011\u0001\u0012\u0001\u0012\u0001\u0013\u0001"+
+		"\u0013\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0015\u0001\u0015\u0001"+
+		"\u0015\u0001\u0016\u0001\u0016\u0001\u0017\u0001\u0017\u0001\u0018\u0001"+
+		"\u0018\u0001\u0018\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u001a\u0001"+
+		"\u001a\u0001\u001b\u0001\u001b\u0001\u001c\u0001\u001c\u0001\u001c\u0001"+
+		"\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001c\u0001"+
+		"\u001c\u0001\u001c\u0003\u001c\u00b4\b\u001c\u0001\u001d\u0001\u001d\u0001"+
+		"\u001d\u0001\u001e\u0001\u001e\u0001\u001e\u0001\u001e\u0001\u001e\u0001"+
+		"\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001\u001f\u0001"+
+		" \u0001 \u0001 \u0001 \u0001!\u0001!\u0001!\u0001!\u0001!\u0001!\u0001"+
+		"!\u0001\"\u0001\"\u0005\"\u00d1\b\"\n\"\f\"\u00d4\t\"\u0001#\u0001#\u0001"+
+		"#\u0001#\u0005#\u00da\b#\n#\f#\u00dd\t#\u0001#\u0001#\u0000\u0000$\u0001"+
+		"\u0001\u0003\u0002\u0005\u0003\u0007\u0004\t\u0005\u000b\u0006\r\u0007"+
+		"\u000f\b\u0011\t\u0013\n\u0015\u000b\u0017\f\u0019\r\u001b\u000e\u001d"+
+		"\u000f\u001f\u0010!\u0011#\u0012%\u0013\'\u0014)\u0015+\u0016-\u0017/"+
+		"\u00181\u00193\u001a5\u001b7\u001c9\u001d;\u001e=\u001f? A!C\"E#G$\u0001"+
+		"\u0000\u0005\u0003\u0000\t\n\r\r  \u0001\u000009\u0003\u0000AZ__az\u0004"+
+		"\u000009AZ__az\u0002\u0000\n\n\r\r\u00e7\u0000\u0001\u0001\u0000\u0000"+
+		"\u0000\u0000\u0003\u0001\u0000\u0000\u0000\u0000\u0005\u0001\u0000\u0000"+
+		"\u0000\u0000\u0007\u0001\u0000\u0000\u0000\u0000\t\u0001\u0000\u0000\u0000"+
+		"\u0000\u000b\u0001\u0000\u0000\u0000\u0000\r\u0001\u0000\u0000\u0000\u0000"+
+		"\u000f\u0001\u0000\u0000\u0000\u0000\u0011\u0001\u0000\u0000\u0000\u0000"+
+		"\u0013\u0001\u0000\u0000\u0000\u0000\u0015\u0001\u0000\u0000\u0000\u0000"+
+		"\u0017\u0001\u0000\u0000\u0000\u0000\u0019\u0001\u0000\u0000\u0000\u0000"+
+		"\u001b\u0001\u0000\u0000\u0000\u0000\u001d\u0001\u0000\u0000\u0000\u0000"+
+		"\u001f\u0001\u0000\u0000\u0000\u0000!\u0001\u0000\u0000\u0000\u0000#\u0001"+
+		"\u0000\u0000\u0000\u0000%\u0001\u0000\u0000\u0000\u0000\'\u0001\u0000"+
+		"\u0000\u0000\u0000)\u0001\u0000\u0000\u0000\u0000+\u0001\u0000\u0000\u0000"+
+		"\u0000-\u0001\u0000\u0000\u0000\u0000/\u0001\u0000\u0000\u0000\u00001"+
+		"\u0001\u0000\u0000\u0000\u00003\u0001\u0000\u0000\u0000\u00005\u0001\u0000"+
+		"\u0000\u0000\u00007\u0001\u0000\u0000\u0000\u00009\u0001\u0000\u0000\u0000"+
+		"\u0000;\u0001\u0000\u0000\u0000\u0000=\u0001\u0000\u0000\u0000\u0000?"+
+		"\u0001\u0000\u0000\u0000\u0000A\u0001\u0000\u0000\u0000\u0000C\u0001\u0000"+
+		"\u0000\u0000\u0000E\u0001\u0000\u0000\u0000\u0000G\u0001\u0000\u0000\u0000"+
+		"\u0001I\u0001\u0000\u0000\u0000\u0003K\u0001\u0000\u0000\u0000\u0005M"+
+		"\u0001\u0000\u0000\u0000\u0007O\u0001\u0000\u0000\u0000\tQ\u0001\u0000"+
+		"\u0000\u0000\u000bS\u0001\u0000\u0000\u0000\rU\u0001\u0000\u0000\u0000"+
+		"\u000fW\u0001\u0000\u0000\u0000\u0011b\u0001\u0000\u0000\u0000\u0013h"+
+		"\u0001\u0000\u0000\u0000\u0015k\u0001\u0000\u0000\u0000\u0017r\u0001\u0000"+
+		"\u0000\u0000\u0019\u0082\u0001\u0000\u0000\u0000\u001b\u0084\u0001\u0000"+
+		"\u0000\u0000\u001d\u0087\u0001\u0000\u0000\u0000\u001f\u008a\u0001\u0000"+
+		"\u0000\u0000!\u008c\u0001\u0000\u0000\u0000#\u008e\u0001\u0000\u0000\u0000"+
+		"%\u0090\u0001\u0000\u0000\u0000\'\u0092\u0001\u0000\u0000\u0000)\u0094"+
+		"\u0001\u0000\u0000\u0000+\u0097\u0001\u0000\u0000\u0000-\u009a\u0001\u0000"+
+		"\u0000\u0000/\u009c\u0001\u0000\u0000\u00001\u009e\u0001\u0000\u0000\u0000"+
+		"3\u00a1\u0001\u0000\u0000\u00005\u00a4\u0001\u0000\u0000\u00007\u00a6"+
+		"\u0001\u0000\u0000\u00009\u00b3\u0001\u0000\u0000\u0000;\u00b5\u0001\u0000"+
+		"\u0000\u0000=\u00b8\u0001\u0000\u0000\u0000?\u00bd\u0001\u0000\u0000\u0000"+
+		"A\u00c3\u0001\u0000\u0000\u0000C\u00c7\u0001\u0000\u0000\u0000E\u00ce"+
+		"\u0001\u0000\u0000\u0000G\u00d5\u0001\u0000\u0000\u0000IJ\u0005(\u0000"+
+		"\u0000J\u0002\u0001\u0000\u0000\u0000KL\u0005)\u0000\u0000L\u0004\u0001"+
+		"\u0000\u0000\u0000MN\u0005{\u0000\u0000N\u0006\u0001\u0000\u0000\u0000"+
+		"OP\u0005,\u0000\u0000P\b\u0001\u0000\u0000\u0000QR\u0005}\u0000\u0000"+
+		"R\n\u0001\u0000\u0000\u0000ST\u0005[\u0000\u0000T\f\u0001\u0000\u0000"+
+		"\u0000UV\u0005]\u0000\u0000V\u000e\u0001\u0000\u0000\u0000WX\u0005i\u0000"+
+		"\u0000XY\u0005n\u0000\u0000YZ\u0005t\u0000\u0000Z[\u0005 \u0000\u0000"+
+		"[\\\u0005m\u0000\u0000\\]\u0005a\u0000\u0000]^\u0005i\u0000\u0000^_\u0005"+
+		"n\u0000\u0000_`\u0005(\u0000\u0000`a\u0005)\u0000\u0000a\u0010\u0001\u0000"+
+		"\u0000\u0000bc\u0005p\u0000\u0000cd\u0005r\u0000\u0000de\u0005i\u0000"+
+		"\u0000ef\u0005n\u0000\u0000fg\u0005t\u0000\u0000g\u0012\u0001\u0000\u0000"+
+		"\u0000hi\u0005;\u0000\u0000i\u0014\u0001\u0000\u0000\u0000jl\u0007\u0000"+
+		"\u0000\u0000kj\u0001\u0000\u0000\u0000lm\u0001\u0000\u0000\u0000mk\u0001"+
+		"\u0000\u0000\u0000mn\u0001\u0000\u0000\u0000no\u0001\u0000\u0000\u0000"+
+		"op\u0006\n\u0000\u0000p\u0016\u0001\u0000\u0000\u0000qs\u0005-\u0000\u0000"+
+		"rq\u0001\u0000\u0000\u0000rs\u0001\u0000\u0000\u0000su\u0001\u0000\u0000"+
+		"\u0000tv\u0007\u0001\u0000\u0000ut\u0001\u0000\u0000\u0000vw\u0001\u0000"+
+		"\u0000\u0000wu\u0001\u0000\u0000\u0000wx\u0001\u0000\u0000\u0000x\u0018"+
+		"\u0001\u0000\u0000\u0000yz\u0005t\u0000\u0000z{\u0005r\u0000\u0000{|\u0005"+
+		"u\u0000\u0000|\u0083\u0005e\u0000\u0000}~\u0005f\u0000\u0000~\u007f\u0005"+
+		"a\u0000\u0000\u007f\u0080\u0005l\u0000\u0000\u0080\u0081\u0005s\u0000"+
+		"\u0000\u0081\u0083\u0005e\u0000\u0000\u0082y\u0001\u0000\u0000\u0000\u0082"+
+		"}\u0001\u0000\u0000\u0000\u0083\u001a\u0001\u0000\u0000\u0000\u0084\u0085"+
+		"\u0005|\u0000\u0000\u0085\u0086\u0005|\u0000\u0000\u0086\u001c\u0001\u0000"+
+		"\u0000\u0000\u0087\u0088\u0005&\u0000\u0000\u0088\u0089\u0005&\u0000\u0000"+
+		"\u0089\u001e\u0001\u0000\u0000\u0000\u008a\u008b\u0005*\u0000\u0000\u008b"+
+		" \u0001\u0000\u0000\u0000\u008c\u008d\u0005/\u0000\u0000\u008d\"\u0001"+
+		"\u0000\u0000\u0000\u008e\u008f\u0005%\u0000\u0000\u008f$\u0001\u0000\u0000"+
+		"\u0000\u0090\u0091\u0005+\u0000\u0000\u0091&\u0001\u0000\u0000\u0000\u0092"+
+		"\u0093\u0005-\u0000\u0000\u0093(\u0001\u0000\u0000\u0000\u0094\u0095\u0005"+
+		">\u0000\u0000\u0095\u0096\u0005=\u0000\u0000\u0096*\u0001\u0000\u0000"+
+		"\u0000\u0097\u0098\u0005<\u0000\u0000\u0098\u0099\u0005=\u0000\u0000\u0099"+
+		",\u0001\u0000\u0000\u0000\u009a\u009b\u0005>\u0000\u0000\u009b.\u0001"+
+		"\u0000\u0000\u0000\u009c\u009d\u0005<\u0000\u0000\u009d0\u0001\u0000\u0000"+
+		"\u0000\u009e\u009f\u0005=\u0000\u0000\u009f\u00a0\u0005=\u0000\u0000\u00a0"+
+		"2\u0001\u0000\u0000\u0000\u00a1\u00a2\u0005!\u0000\u0000\u00a2\u00a3\u0005"+
+		"=\u0000\u0000\u00a34\u0001\u0000\u0000\u0000\u00a4\u00a5\u0005!\u0000"+
+		"\u0000\u00a56\u0001\u0000\u0000\u0000\u00a6\u00a7\u0005=\u0000\u0000\u00a7"+
+		"8\u0001\u0000\u0000\u0000\u00a8\u00a9\u0005i\u0000\u0000\u00a9\u00aa\u0005"+
+		"n\u0000\u0000\u00aa\u00b4\u0005t\u0000\u0000\u00ab\u00ac\u0005b\u0000"+
+		"\u0000\u00ac\u00ad\u0005o\u0000\u0000\u00ad\u00ae\u0005o\u0000\u0000\u00ae"+
+		"\u00b4\u0005l\u0000\u0000\u00af\u00b0\u0005a\u0000\u0000\u00b0\u00b1\u0005"+
+		"u\u0000\u0000\u00b1\u00b2\u0005t\u0000\u0000\u00b2\u00b4\u0005o\u0000"+
+		"\u0000\u00b3\u00a8\u0001\u0000\u0000\u0000\u00b3\u00ab\u0001\u0000\u0000"+
+		"\u0000\u00b3\u00af\u0001\u0000\u0000\u0000\u00b4:\u0001\u0000\u0000\u0000"+
+		"\u00b5\u00b6\u0005i\u0000\u0000\u00b6\u00b7\u0005f\u0000\u0000\u00b7<"+
+		"\u0001\u0000\u0000\u0000\u00b8\u00b9\u0005e\u0000\u0000\u00b9\u00ba\u0005"+
+		"l\u0000\u0000\u00ba\u00bb\u0005s\u0000\u0000\u00bb\u00bc\u0005e\u0000"+
+		"\u0000\u00bc>\u0001\u0000\u0000\u0000\u00bd\u00be\u0005w\u0000\u0000\u00be"+
+		"\u00bf\u0005h\u0000\u0000\u00bf\u00c0\u0005i\u0000\u0000\u00c0\u00c1\u0005"+
+		"l\u0000\u0000\u00c1\u00c2\u0005e\u0000\u0000\u00c2@\u0001\u0000\u0000"+
+		"\u0000\u00c3\u00c4\u0005f\u0000\u0000\u00c4\u00c5\u0005o\u0000\u0000\u00c5"+
+		"\u00c6\u0005r\u0000\u0000\u00c6B\u0001\u0000\u0000\u0000\u00c7\u00c8\u0005"+
+		"r\u0000\u0000\u00c8\u00c9\u0005e\u0000\u0000\u00c9\u00ca\u0005t\u0000"+
+		"\u0000\u00ca\u00cb\u0005u\u0000\u0000\u00cb\u00cc\u0005r\u0000\u0000\u00cc"+
+		"\u00cd\u0005n\u0000\u0000\u00cdD\u0001\u0000\u0000\u0000\u00ce\u00d2\u0007"+
+		"\u0002\u0000\u0000\u00cf\u00d1\u0007\u0003\u0000\u0000\u00d0\u00cf\u0001"+
+		"\u0000\u0000\u0000\u00d1\u00d4\u0001\u0000\u0000\u0000\u00d2\u00d0\u0001"+
+		"\u0000\u0000\u0000\u00d2\u00d3\u0001\u0000\u0000\u0000\u00d3F\u0001\u0000"+
+		"\u0000\u0000\u00d4\u00d2\u0001\u0000\u0000\u0000\u00d5\u00d6\u0005/\u0000"+
+		"\u0000\u00d6\u00d7\u0005/\u0000\u0000\u00d7\u00db\u0001\u0000\u0000\u0000"+
+		"\u00d8\u00da\b\u0004\u0000\u0000\u00d9\u00d8\u0001\u0000\u0000\u0000\u00da"+
+		"\u00dd\u0001\u0000\u0000\u0000\u00db\u00d9\u0001\u0000\u0000\u0000\u00db"+
+		"\u00dc\u0001\u0000\u0000\u0000\u00dc\u00de\u0001\u0000\u0000\u0000\u00dd"+
+		"\u00db\u0001\u0000\u0000\u0000\u00de\u00df\u0006#\u0000\u0000\u00dfH\u0001"+
+		"\u0000\u0000\u0000\b\u0000mrw\u0082\u00b3\u00d2\u00db\u0001\u0006\u0000"+
 		"\u0000";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
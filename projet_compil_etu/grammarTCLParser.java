@@ -1,4 +1,4 @@
-// Generated from grammarTCL.g4 by ANTLR 4.13.1
+// Generated from grammarTCL.g4 by ANTLR 4.13.0
 import org.antlr.v4.runtime.atn.*;
 import org.antlr.v4.runtime.dfa.DFA;
 import org.antlr.v4.runtime.*;
@@ -10,7 +10,7 @@ import java.util.ArrayList;
 
 @SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue"})
 public class grammarTCLParser extends Parser {
-	static { RuntimeMetaData.checkVersion("4.13.1", RuntimeMetaData.VERSION); }
+	static { RuntimeMetaData.checkVersion("4.13.0", RuntimeMetaData.VERSION); }
 
 	protected static final DFA[] _decisionToDFA;
 	protected static final PredictionContextCache _sharedContextCache =
@@ -20,7 +20,7 @@ public class grammarTCLParser extends Parser {
 		SEMICOL=10, NEWLINE=11, INT=12, BOOL=13, OR=14, AND=15, MUL=16, DIV=17, 
 		MODULO=18, ADD=19, SUB=20, SUPEQ=21, INFEQ=22, SUP=23, INF=24, EQUALS=25, 
 		DIFF=26, NOT=27, ASSIGN=28, BASE_TYPE=29, IF=30, ELSE=31, WHILE=32, FOR=33, 
-		RETURN=34, VAR=35;
+		RETURN=34, VAR=35, COMMENT=36;
 	public static final int
 		RULE_expr = 0, RULE_type = 1, RULE_instr = 2, RULE_core_fct = 3, RULE_decl_fct = 4, 
 		RULE_main = 5;
@@ -45,7 +45,7 @@ public class grammarTCLParser extends Parser {
 			null, null, null, null, null, null, null, null, null, "PRINT", "SEMICOL", 
 			"NEWLINE", "INT", "BOOL", "OR", "AND", "MUL", "DIV", "MODULO", "ADD", 
 			"SUB", "SUPEQ", "INFEQ", "SUP", "INF", "EQUALS", "DIFF", "NOT", "ASSIGN", 
-			"BASE_TYPE", "IF", "ELSE", "WHILE", "FOR", "RETURN", "VAR"
+			"BASE_TYPE", "IF", "ELSE", "WHILE", "FOR", "RETURN", "VAR", "COMMENT"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -1566,7 +1566,7 @@ public class grammarTCLParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001#\u00c6\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
+		"\u0004\u0001$\u00c6\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
 		"\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004\u0002"+
 		"\u0005\u0007\u0005\u0001\u0000\u0001\u0000\u0001\u0000\u0001\u0000\u0001"+
 		"\u0000\u0001\u0000\u0001\u0000\u0001\u0000\u0001\u0000\u0005\u0000\u0016"+